@@ -0,0 +1,205 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of a <code>PaintShopSolver</code> using the "AC-2001" arc consistency algorithm:
+ * the same reduction of the domains as {@link AC3SatSolver}, with residual supports.
+ * <p>For each paint, finish and customer taste referencing the paint, the position of the last paint
+ * reference found to support the finish is kept. As the domains only shrink, a revision resumes from that
+ * position instead of rescanning the customer taste: each paint reference is scanned at most once per
+ * (paint, finish, customer taste), whatever the number of revisions.</p>
+ * <p>The customer tastes are read from {@link CustomerTasteClauses}, the domains are bit masks.</p>
+ *
+ * @see <a href="https://www.ijcai.org/Proceedings/01/IJCAI-2001-d.pdf">Refining the basic constraint
+ * propagation algorithm (AC-2001)</a>
+ */
+public class AC2001SatSolver implements AnytimePaintShopSolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AC2001SatSolver.class);
+
+    private static final PaintFinish[] FINISHES = PaintFinish.values();
+    private static final long BYTES_PER_OCCURRENCE = (long) FINISHES.length * Integer.BYTES; //a residue per finish
+    private static final long BYTES_PER_PAINT = Integer.BYTES + 1L; //the queue and the queued flags
+
+    private final CustomerTasteClauses clauses;
+    private final int nbPaints;
+
+    public AC2001SatSolver(int nbPaints, List<CustomerTaste> customerTastes) {
+        this(CustomerTasteClauses.compile(nbPaints, customerTastes));
+    }
+
+    /**
+     * @param clauses the customer tastes, already compiled
+     */
+    AC2001SatSolver(CustomerTasteClauses clauses) {
+        this.nbPaints = clauses.nbPaints();
+        this.clauses = clauses;
+    }
+
+    @Override
+    public List<String> solutions() {
+        return this.solve(SolverBudget.unlimited())
+                .paintBatches()
+                .map(paintBatches -> Collections.singletonList(paintBatches.finishesRepresentation()))
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public PaintShopSolution solve(SolverBudget budget) {
+        return this.solve(budget, null);
+    }
+
+    /**
+     * Runs AC-2001 and then a {@link BacktrackingSearch} on the reduced domains, within the budget.
+     *
+     * @param budget the budget of the run
+     * @param hint   the finish of each paint tried first by the search, or <code>null</code> for no hint
+     * @return the cheapest solution, or the cheapest found before the budget is exhausted
+     */
+    @Override
+    public PaintShopSolution solve(SolverBudget budget, PaintBatches hint) {
+        BudgetMeter meter = budget.start();
+        byte[] domains = new byte[nbPaints + 1];
+        Arrays.fill(domains, (byte) ((1 << FINISHES.length) - 1));
+        boolean res = this.ac2001(domains, meter);
+        LOGGER.debug("AC2001SatSolver - res: {}", res);
+        if (meter.exhausted()) {
+            return PaintShopSolution.unknown();
+        }
+        if (!res) {
+            return PaintShopSolution.unsatisfiable();
+        }
+        return new BacktrackingSearch(clauses, domains).hinted(hint).solve(meter);
+    }
+
+    /**
+     * AC-2001 algorithm implementation, with a queue of paints to revise.
+     *
+     * @param domains the domain of each paint, reduced in place
+     * @param meter   the budget, one node per revision of a paint
+     * @return <code>false</code> is unsatisfiable, else <code>true</code> (check the meter, the budget may be exhausted)
+     */
+    boolean ac2001(byte[] domains, BudgetMeter meter) {
+        return this.ac2001(domains, meter, null);
+    }
+
+    /**
+     * AC-2001, recording why each finish is removed: the customer taste left without support for it.
+     * <p>The reasons explain the conflict, see {@link MinimalConflict}: the customer tastes of a removal
+     * only have paint references removed before, so the explanations are acyclic.</p>
+     *
+     * @param domains the domain of each paint, reduced in place
+     * @param meter   the budget, one node per revision of a paint
+     * @param reasons <code>null</code>, or the clause removing each finish of each paint, at
+     *                <code>2 * paint + finish ordinal</code>. On a conflict, the paint left without finish
+     *                is recorded at index 0
+     * @return <code>false</code> is unsatisfiable, else <code>true</code> (check the meter, the budget may be exhausted)
+     */
+    boolean ac2001(byte[] domains, BudgetMeter meter, int[] reasons) {
+        //one residual support per (occurrence of a paint in a customer taste, finish)
+        int[] occurrenceOffsets = new int[nbPaints + 2];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            occurrenceOffsets[paint + 1] = occurrenceOffsets[paint] + clauses.occurrenceCount(paint);
+        }
+        if (meter.reserve(BYTES_PER_OCCURRENCE * occurrenceOffsets[nbPaints + 1] + BYTES_PER_PAINT * (nbPaints + 1))) {
+            return true;
+        }
+        int[] residues = new int[FINISHES.length * occurrenceOffsets[nbPaints + 1]];
+
+        int[] queue = new int[nbPaints + 1]; //circular, a paint is at most once in the queue
+        boolean[] queued = new boolean[nbPaints + 1];
+        int head = 0;
+        int size = 0;
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            queue[size++] = paint;
+            queued[paint] = true;
+        }
+
+        while (size > 0) {
+            if (meter.tick()) {
+                return true;
+            }
+            int paint = queue[head];
+            head = (head + 1) % queue.length;
+            size--;
+            queued[paint] = false;
+
+            if (this.revise(paint, domains, residues, occurrenceOffsets[paint], reasons)) {
+                if (domains[paint] == 0) {
+                    if (reasons != null) {
+                        reasons[0] = paint;
+                    }
+                    return false;
+                }
+                for (int position = 0; position < clauses.occurrenceCount(paint); position++) {
+                    int clause = clauses.occurrence(paint, position);
+                    for (int literal = 0; literal < clauses.length(clause); literal++) {
+                        int other = ClauseStore.paint(clauses.literal(clause, literal));
+                        if (!queued[other] && other != paint) {
+                            queue[(head + size) % queue.length] = other;
+                            size++;
+                            queued[other] = true;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes from the domain of the paint the finishes without support in one of its customer tastes.
+     *
+     * @return true if the domain has been reduced
+     */
+    private boolean revise(int paint, byte[] domains, int[] residues, int firstOccurrence, int[] reasons) {
+        boolean revised = false;
+        for (PaintFinish finish : FINISHES) {
+            int bit = 1 << finish.ordinal();
+            if ((domains[paint] & bit) == 0) {
+                continue;
+            }
+            for (int position = 0; position < clauses.occurrenceCount(paint); position++) {
+                int residue = FINISHES.length * (firstOccurrence + position) + finish.ordinal();
+                int clause = clauses.occurrence(paint, position);
+                if (!this.supported(paint, finish, clause, domains, residues, residue)) {
+                    domains[paint] &= ~bit;
+                    if (reasons != null) {
+                        reasons[FINISHES.length * paint + finish.ordinal()] = clause;
+                    }
+                    revised = true;
+                    break;
+                }
+            }
+        }
+        return revised;
+    }
+
+    /**
+     * A finish of a paint is supported by a customer taste if the customer likes this finish,
+     * or another paint reference still in its domain.
+     * The scan resumes from the last support found, kept in <code>residues</code>.
+     */
+    private boolean supported(int paint, PaintFinish finish, int clause,
+                              byte[] domains, int[] residues, int residue) {
+        for (int position = residues[residue]; position < clauses.length(clause); position++) {
+            int literal = clauses.literal(clause, position);
+            int other = ClauseStore.paint(literal);
+            PaintFinish otherFinish = ClauseStore.finish(literal);
+            boolean support = other == paint ?
+                    otherFinish == finish :
+                    (domains[other] & 1 << otherFinish.ordinal()) != 0;
+            if (support) {
+                residues[residue] = position;
+                return true;
+            }
+        }
+        residues[residue] = clauses.length(clause);
+        return false;
+    }
+}
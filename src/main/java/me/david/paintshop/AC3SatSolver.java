@@ -4,7 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toSet;
 import static me.david.paintshop.PaintFinish.M;
@@ -15,7 +14,7 @@ import static me.david.paintshop.PaintFinish.M;
  *
  * @see <a href="https://en.wikipedia.org/wiki/AC-3_algorithm">AC-3 algorithm</a>
  */
-public class AC3SatSolver implements PaintShopSolver {
+public class AC3SatSolver implements AnytimePaintShopSolver {
     private static final Logger LOGGER = LoggerFactory.getLogger(AC3SatSolver.class);
 
     private final int nbPaints;
@@ -30,11 +29,40 @@ public class AC3SatSolver implements PaintShopSolver {
 
     @Override
     public List<String> solutions() {
+        return this.solve(SolverBudget.unlimited())
+                .paintBatches()
+                .map(paintBatches -> Collections.singletonList(paintBatches.finishesRepresentation()))
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public PaintShopSolution solve(SolverBudget budget) {
+        return this.solve(budget, null);
+    }
+
+    /**
+     * Runs AC3 and then a {@link BacktrackingSearch} on the reduced domains, within the budget.
+     *
+     * @param budget the budget of the run
+     * @param hint   the finish of each paint tried first by the search, or <code>null</code> for no hint
+     * @return the cheapest solution, or the cheapest found before the budget is exhausted
+     */
+    @Override
+    public PaintShopSolution solve(SolverBudget budget, PaintBatches hint) {
+        BudgetMeter meter = budget.start();
         Map<Integer, EnumSet<PaintFinish>> domains = initialSearchSpace();
-        boolean res = ac3(domains);
+        boolean res = ac3(domains, meter);
         LOGGER.debug("AC3SatSolver - res: {}", res);
+        if (meter.exhausted()) {
+            return PaintShopSolution.unknown();
+        }
+        if (!res) {
+            return PaintShopSolution.unsatisfiable();
+        }
 
-        return combine(nbPaints, domains);
+        return new BacktrackingSearch(CustomerTasteClauses.compile(nbPaints, customerTastes), domains)
+                .hinted(hint)
+                .solve(meter);
     }
 
 
@@ -42,9 +70,10 @@ public class AC3SatSolver implements PaintShopSolver {
      * AC3 algorithm implementation
      *
      * @param domains <code>A set of domains D(x) for each variable x in X. D(x) contains vx0, vx1... vxn, the possible values of x</code>
-     * @return <code>false</code> is unsatisfiable, else <code>true</code>
+     * @param meter   the budget, one node per arc
+     * @return <code>false</code> is unsatisfiable, else <code>true</code> (check the meter, the budget may be exhausted)
      */
-    private boolean ac3(Map<Integer, EnumSet<PaintFinish>> domains) {
+    private boolean ac3(Map<Integer, EnumSet<PaintFinish>> domains, BudgetMeter meter) {
         //an arc will be an int[2]
 
         //go through customer tastes with only one taste and reduce immediately the csp
@@ -73,6 +102,9 @@ public class AC3SatSolver implements PaintShopSolver {
 
         Queue<int[]> allPaintIndicesArcs = arcsFromCustomerTastes();
         while (!allPaintIndicesArcs.isEmpty()) {
+            if (meter.tick()) {
+                return true;
+            }
             int[] arc = allPaintIndicesArcs.remove();
             int xi = arc[0];
             int xj = arc[1];
@@ -111,6 +143,7 @@ public class AC3SatSolver implements PaintShopSolver {
     private Queue<int[]> arcsFromCustomerTastes() {
         Queue<int[]> allPaintIndicesArcs = new LinkedList<>();
         for (int index = 1; index <= nbPaints; index++) {
+            Interruptions.checkInterrupted();
             Set<Integer> allOtherVariables = new HashSet<>(); //all other paints related to this paint index through customer tastes
             for (CustomerTaste customerTaste : customerTastes) {
                 Set<Integer> allPaintIndexesReferencesByCustomerTaste = customerTaste.paintReferences()
@@ -187,23 +220,4 @@ public class AC3SatSolver implements PaintShopSolver {
         return searchspace;
     }
 
-
-    private List<String> combine(int index, Map<Integer, EnumSet<PaintFinish>> csp) {
-        if (index == 0) {
-            return Collections.singletonList("");
-        } else {
-            List<String> recur = combine(index - 1, csp);
-            List<String> current = csp.get(index)
-                    .stream()
-                    .map(PaintFinish::name)
-                    .collect(Collectors.toList());
-            List<String> res = new LinkedList<>();
-            for (String c : current) {
-                for (String pf : recur) {
-                    res.add(pf + c);
-                }
-            }
-            return res;
-        }
-    }
 }
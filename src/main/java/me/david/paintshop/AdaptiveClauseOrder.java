@@ -0,0 +1,76 @@
+package me.david.paintshop;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks the customer tastes against combinations, the customer tastes rejecting the most combinations first.
+ * <p>Each customer taste has a score, incremented every time it rejects a combination. Every
+ * {@link #PERIOD} checks, the customer tastes are sorted by decreasing score, and the scores are halved
+ * so that the order follows the region of the search space being checked.
+ * Most combinations are then rejected by the first one or two customer tastes.</p>
+ * <p>Not thread-safe: one instance per run of a solver.</p>
+ */
+final class AdaptiveClauseOrder {
+
+    static final int PERIOD = 256;
+
+    private final CustomerTaste[] customerTastes;
+    private final double[] scores;
+    private long checks;
+
+    /**
+     * @param customerTastes the customer tastes, in their initial order
+     */
+    AdaptiveClauseOrder(List<CustomerTaste> customerTastes) {
+        this.customerTastes = customerTastes.toArray(new CustomerTaste[0]);
+        this.scores = new double[this.customerTastes.length];
+    }
+
+    /**
+     * @param combination string representation of the paints (e.g. GGGGM)
+     * @return true if all the customer tastes are satisfied by the combination
+     */
+    boolean allSatisfiedBy(String combination) {
+        boolean satisfied = true;
+        for (int i = 0; i < customerTastes.length; i++) {
+            if (!customerTastes[i].likes(combination)) {
+                scores[i]++;
+                satisfied = false;
+                break;
+            }
+        }
+        if (++checks % PERIOD == 0) {
+            this.reorder();
+        }
+        return satisfied;
+    }
+
+    /**
+     * @return the current order of the customer tastes
+     */
+    List<CustomerTaste> order() {
+        return Arrays.asList(customerTastes.clone());
+    }
+
+    /**
+     * Stable insertion sort by decreasing score: the order barely changes from one period to the next.
+     */
+    private void reorder() {
+        for (int i = 1; i < customerTastes.length; i++) {
+            CustomerTaste customerTaste = customerTastes[i];
+            double score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                customerTastes[j + 1] = customerTastes[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            customerTastes[j + 1] = customerTaste;
+            scores[j + 1] = score;
+        }
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] /= 2;
+        }
+    }
+}
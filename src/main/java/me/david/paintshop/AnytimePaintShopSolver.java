@@ -0,0 +1,26 @@
+package me.david.paintshop;
+
+/**
+ * A {@link PaintShopSolver} that can run within a {@link SolverBudget} and, when the budget
+ * is exhausted, still return the best solution found so far.
+ */
+public interface AnytimePaintShopSolver extends PaintShopSolver {
+
+    /**
+     * @param budget the budget of the run
+     * @return the best solution found, {@link PaintShopSolution.Status#OPTIMAL} if the solver completed
+     */
+    PaintShopSolution solve(SolverBudget budget);
+
+    /**
+     * Solves the problem starting from a hint, e.g. the solution of the previous version of the same order.
+     * The solvers that cannot use a hint ignore it.
+     *
+     * @param budget the budget of the run
+     * @param hint   the finish of each paint, the first paint first, or <code>null</code> for no hint
+     * @return the best solution found, {@link PaintShopSolution.Status#OPTIMAL} if the solver completed
+     */
+    default PaintShopSolution solve(SolverBudget budget, PaintBatches hint) {
+        return this.solve(budget);
+    }
+}
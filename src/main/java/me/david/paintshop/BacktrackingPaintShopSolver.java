@@ -0,0 +1,53 @@
+package me.david.paintshop;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of a <code>PaintShopSolver</code> running a {@link BacktrackingSearch} straight on the
+ * clauses, without reducing the domains first.
+ * <p>As it only reads the clauses through a {@link ClauseStore}, it is the solver of the problems too big
+ * for the heap, stored in an {@link OffHeapClauseStore}.</p>
+ */
+public class BacktrackingPaintShopSolver implements AnytimePaintShopSolver {
+
+    private final ClauseStore clauses;
+
+    /**
+     * Constructor.
+     *
+     * @param nbPaints       the number of paints as an int
+     * @param customerTastes the customer tastes
+     */
+    BacktrackingPaintShopSolver(int nbPaints, List<CustomerTaste> customerTastes) {
+        this(CustomerTasteClauses.compile(nbPaints, customerTastes));
+    }
+
+    /**
+     * @param clauses the compiled customer tastes, on or off the heap
+     */
+    BacktrackingPaintShopSolver(ClauseStore clauses) {
+        this.clauses = clauses;
+    }
+
+    /**
+     * @return The unique cheapest solution as a List, or an empty list if unsatisfiable
+     */
+    @Override
+    public List<String> solutions() {
+        return this.solve(SolverBudget.unlimited())
+                .paintBatches()
+                .map(paintBatches -> Collections.singletonList(paintBatches.finishesRepresentation()))
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public PaintShopSolution solve(SolverBudget budget) {
+        return this.solve(budget, null);
+    }
+
+    @Override
+    public PaintShopSolution solve(SolverBudget budget, PaintBatches hint) {
+        return new BacktrackingSearch(clauses).hinted(hint).solve(budget.start());
+    }
+}
@@ -0,0 +1,605 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_CHECKPOINT;
+
+/**
+ * Depth-first branch and bound search over the (reduced) domains of the paints.
+ * <p>Instead of generating all the combinations of the remaining domains, the search:</p>
+ * <ul>
+ * <li>decides the paints one after the other, trying the cheapest finish first,</li>
+ * <li>propagates each decision through the customer tastes (a customer taste with only one
+ * remaining option forces it),</li>
+ * <li>records every assignment on a trail, so that a backtrack only undoes what was done since the decision,</li>
+ * <li>prunes any branch that cannot be cheaper than the cheapest solution found so far.</li>
+ * </ul>
+ * <p>The costs of the finishes are given by a {@link PaintCostModel}, {@link PaintCostModel#DEFAULT} unless
+ * stated otherwise.</p>
+ * <p>The first solution found is a valid one, the search then carries on only to prove it is the cheapest,
+ * or to find a cheaper one. This makes the search an anytime one: when its {@link BudgetMeter} is exhausted,
+ * it stops and returns the cheapest solution found so far.</p>
+ * <p>With a {@link Checkpointer}, the frontier of the search and the cheapest solution are saved
+ * periodically, so that a long search can be resumed from its last {@link SearchCheckpoint}.</p>
+ * <p>With a hint, e.g. the solution of the previous version of the same order, the hinted finish of each
+ * paint is tried first among its finishes of the same cost, and a valid hint is the cheapest solution from
+ * the start: when nothing cheaper exists, the search is a verification pass.</p>
+ * <p>Before the search, the {@link PaintSymmetries} add a lex-leader constraint between the interchangeable
+ * paints, so that only one of the permuted copies of a solution is explored. The value ordering of a hint
+ * is not kept within a class of interchangeable paints: the solution found can be a permuted copy of the
+ * hinted one, of the same cost.</p>
+ */
+final class BacktrackingSearch {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BacktrackingSearch.class);
+
+    private static final PaintFinish[] FINISHES = PaintFinish.values();
+
+    private static final int SATISFIED = -1;
+    private static final int CONFLICT = 0;
+
+    /**
+     * Number of nodes between two checks of the checkpoint interval
+     */
+    private static final int CHECKPOINT_CHECK_NODES = 1 << 12;
+
+    private static final byte ALL_FINISHES = (byte) ((1 << PaintFinish.values().length) - 1);
+    //domain and assignment, then the trail and the 3 arrays of the search frames
+    private static final long BYTES_PER_PAINT = Byte.BYTES + BudgetMeter.REFERENCE_BYTES + 4L * Integer.BYTES;
+
+    private final ClauseStore customerTastes;
+    private ClauseStore clauses; //the customer tastes, plus the lex-leader constraints once the search started
+    private boolean breakSymmetries = true;
+    private PaintSymmetries symmetries; //null to find them before the search
+    private final int nbPaints;
+    private final byte[] domains; //1-based, one bit per finish ordinal
+    private final long[] costs; //per (paint, finish ordinal), minus the cheapest finish of the paint
+    private final PaintFinish[] cheapestFirst; //per (paint, rank)
+
+    private PaintFinish[] assignment; //1-based, null when not assigned
+    private int[] trail;
+    private int trailSize;
+    private int propagated;
+    private long cost;
+    private int lastOption;
+
+    private String cheapest;
+    private long cheapestCost;
+    private BudgetMeter meter;
+
+    private Checkpointer checkpointer;
+    private SearchCheckpoint resumed;
+    private long fingerprint;
+
+    private PaintFinish[] hint; //1-based, null when not hinted
+
+    /**
+     * Constructor.
+     *
+     * @param clauses the compiled customer tastes
+     * @param domains the domain of each paint, typically reduced by a solver before the search
+     */
+    BacktrackingSearch(ClauseStore clauses, Map<Integer, EnumSet<PaintFinish>> domains) {
+        this(clauses);
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            byte domain = 0;
+            for (PaintFinish finish : domains.get(paint)) {
+                domain |= 1 << finish.ordinal();
+            }
+            this.domains[paint] = domain;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param clauses the compiled customer tastes
+     * @param domains the domain of each paint (1-based), one bit per {@link PaintFinish#ordinal()}
+     */
+    BacktrackingSearch(ClauseStore clauses, byte[] domains) {
+        this(clauses, domains, PaintCostModel.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param clauses   the compiled customer tastes
+     * @param domains   the domain of each paint (1-based), one bit per {@link PaintFinish#ordinal()}
+     * @param costModel the costs of the finishes of each paint
+     */
+    BacktrackingSearch(ClauseStore clauses, byte[] domains, PaintCostModel costModel) {
+        this(clauses, domains, costs(clauses.nbPaints(), costModel));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param clauses the compiled customer tastes
+     * @param domains the domain of each paint (1-based), one bit per {@link PaintFinish#ordinal()}
+     * @param costs   the cost of each finish of each paint, at <code>2 * paint + finish ordinal</code>
+     */
+    BacktrackingSearch(ClauseStore clauses, byte[] domains, long[] costs) {
+        this.customerTastes = clauses;
+        this.clauses = clauses;
+        this.nbPaints = clauses.nbPaints();
+        this.domains = Arrays.copyOf(domains, nbPaints + 1);
+        this.costs = Arrays.copyOf(costs, FINISHES.length * (nbPaints + 1));
+        this.cheapestFirst = new PaintFinish[FINISHES.length * (nbPaints + 1)];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            int first = FINISHES.length * paint;
+            for (int rank = 0; rank < FINISHES.length; rank++) { //stable insertion sort by cost
+                PaintFinish finish = FINISHES[rank];
+                long cost = this.costs[first + finish.ordinal()];
+                int position = rank;
+                while (position > 0 && this.costs[first + cheapestFirst[first + position - 1].ordinal()] > cost) {
+                    cheapestFirst[first + position] = cheapestFirst[first + position - 1];
+                    position--;
+                }
+                cheapestFirst[first + position] = finish;
+            }
+            long cheapestCost = this.costs[first + cheapestFirst[first].ordinal()];
+            for (int ordinal = 0; ordinal < FINISHES.length; ordinal++) {
+                this.costs[first + ordinal] -= cheapestCost;
+            }
+        }
+    }
+
+    private static long[] costs(int nbPaints, PaintCostModel costModel) {
+        long[] costs = new long[FINISHES.length * (nbPaints + 1)];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            for (PaintFinish finish : FINISHES) {
+                costs[FINISHES.length * paint + finish.ordinal()] = costModel.cost(paint, finish);
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Constructor of a search where every finish is allowed for every paint.
+     *
+     * @param clauses the compiled customer tastes, possibly off-heap
+     */
+    BacktrackingSearch(ClauseStore clauses) {
+        this(clauses, allFinishes(clauses.nbPaints()));
+    }
+
+    static byte[] allFinishes(int nbPaints) {
+        byte[] domains = new byte[nbPaints + 1];
+        Arrays.fill(domains, ALL_FINISHES);
+        return domains;
+    }
+
+    /**
+     * Runs the search without any budget.
+     *
+     * @return the cheapest valid solution, e.g. 'GGM', or {@link Optional#empty()} if unsatisfiable
+     */
+    Optional<String> cheapestSolution() {
+        return this.solve(SolverBudget.unlimited().start())
+                .paintBatches()
+                .map(PaintBatches::finishesRepresentation);
+    }
+
+    /**
+     * Saves the frontier of the search periodically, and when the budget is exhausted.
+     *
+     * @param checkpointer the checkpointer, the checkpoint being deleted once the search is complete
+     * @param resumed      the checkpoint to resume the search from, or <code>null</code>. Its domains are
+     *                     expected to be the ones of this search
+     * @return this search
+     */
+    BacktrackingSearch checkpointed(Checkpointer checkpointer, SearchCheckpoint resumed) {
+        this.checkpointer = checkpointer;
+        this.resumed = resumed;
+        this.fingerprint = SearchCheckpoint.fingerprint(customerTastes);
+        return this;
+    }
+
+    /**
+     * Explores the permuted copies of the solutions too, for the callers that need every solution, not only
+     * one of each set of permuted ones, e.g. the enumeration of the k cheapest solutions.
+     *
+     * @return this search
+     */
+    BacktrackingSearch withoutSymmetryBreaking() {
+        this.breakSymmetries = false;
+        return this;
+    }
+
+    /**
+     * Uses the classes of interchangeable paints found beforehand, instead of finding them before the search.
+     *
+     * @param symmetries the classes of interchangeable paints of the clauses and domains of this search,
+     *                   e.g. found once for the searches of many cost models
+     * @return this search
+     */
+    BacktrackingSearch withSymmetries(PaintSymmetries symmetries) {
+        this.symmetries = symmetries;
+        return this;
+    }
+
+    /**
+     * Starts the search from a hint: the hinted finish of each paint is tried first among its finishes of the
+     * same cost, and, if the hint is a valid solution for all the paints, it is the cheapest solution so far.
+     * <p>With the symmetry breaking, the lex-leader constraints come first: within a class of interchangeable
+     * paints, the hinted finishes can be tried in another order.</p>
+     *
+     * @param hint the finish of each paint, the first paint first, e.g. the solution of a previous version of
+     *             the problem. The paints beyond the problem are ignored. <code>null</code> for no hint
+     * @return this search
+     */
+    BacktrackingSearch hinted(PaintBatches hint) {
+        if (hint == null) {
+            return this;
+        }
+        List<PaintFinish> finishes = hint.finishes();
+        this.hint = new PaintFinish[nbPaints + 1];
+        for (int paint = 1; paint <= Math.min(nbPaints, finishes.size()); paint++) {
+            PaintFinish finish = finishes.get(paint - 1);
+            this.hint[paint] = finish;
+            int first = FINISHES.length * paint;
+            int position = 0;
+            while (cheapestFirst[first + position] != finish) {
+                position++;
+            }
+            long cost = this.cost(paint, finish);
+            while (position > 0 && this.cost(paint, cheapestFirst[first + position - 1]) == cost) {
+                cheapestFirst[first + position] = cheapestFirst[first + position - 1];
+                position--;
+            }
+            cheapestFirst[first + position] = finish;
+        }
+        if (finishes.size() != nbPaints) {
+            LOGGER.debug("hint of {} paints for {} paints: used for the value ordering only", finishes.size(),
+                    nbPaints);
+        }
+        return this;
+    }
+
+    /**
+     * Runs the search within a budget.
+     *
+     * @param meter the budget of the search, possibly partially consumed already
+     * @return the cheapest solution, or the cheapest found before the budget is exhausted
+     */
+    PaintShopSolution solve(BudgetMeter meter) {
+        this.meter = meter;
+        if (meter.reserve(BYTES_PER_PAINT * (nbPaints + 1))) {
+            return PaintShopSolution.unknown();
+        }
+        this.assignment = new PaintFinish[nbPaints + 1];
+        this.trail = new int[nbPaints];
+        this.trailSize = 0;
+        this.propagated = 0;
+        this.cost = 0;
+        this.cheapest = null;
+        this.cheapestCost = Long.MAX_VALUE;
+        if (hint != null && this.valid(hint)) {
+            this.cheapest = representation(hint);
+            this.cheapestCost = this.cost(hint);
+            LOGGER.debug("valid hint: {} - cost: {}", this.cheapest, this.cheapestCost);
+        }
+        if (breakSymmetries && clauses == customerTastes) {
+            PaintSymmetries found = symmetries != null ?
+                    symmetries : PaintSymmetries.of(customerTastes, domains, meter);
+            if (found != null) {
+                this.clauses = found.breaking(customerTastes, costs, meter);
+            }
+        }
+
+        if (this.assignDomainsOfOneFinish() && this.propagateAllClauses() && this.propagate()) {
+            this.search();
+        }
+        if (checkpointer != null && !meter.exhausted()) {
+            checkpointer.completed();
+        }
+        LOGGER.debug("cheapest: {} - cost: {} - nodes: {}", this.cheapest, this.cheapestCost, meter.nodes());
+        return PaintShopSolution.of(this.cheapest, !meter.exhausted());
+    }
+
+    private void search() {
+        int[] framePaint = new int[nbPaints];
+        int[] frameNext = new int[nbPaints];
+        int[] frameMark = new int[nbPaints];
+        int depth = 0;
+
+        int first = nextUnassigned(1);
+        if (first > nbPaints) {
+            this.record();
+            return;
+        }
+        framePaint[depth] = first;
+        frameMark[depth] = trailSize;
+        depth++;
+        if (resumed != null) {
+            depth = this.resume(framePaint, frameNext, frameMark);
+        }
+
+        int sinceCheckpoint = 0;
+        while (depth > 0) {
+            if (meter.tick()) {
+                LOGGER.info("Budget exhausted after {} nodes", meter.nodes());
+                this.checkpoint(depth, framePaint, frameNext);
+                return;
+            }
+            if (checkpointer != null && ++sinceCheckpoint == CHECKPOINT_CHECK_NODES) {
+                sinceCheckpoint = 0;
+                if (checkpointer.due()) {
+                    this.checkpoint(depth, framePaint, frameNext);
+                }
+            }
+            int top = depth - 1;
+            this.undo(frameMark[top]);
+            if (frameNext[top] == FINISHES.length) {
+                frameNext[top] = 0;
+                depth--;
+                continue;
+            }
+            int paint = framePaint[top];
+            PaintFinish finish = cheapestFirst[FINISHES.length * paint + frameNext[top]++];
+            if (this.cost + this.cost(paint, finish) >= this.cheapestCost) {
+                frameNext[top] = FINISHES.length; //more expensive finishes won't do better
+                continue;
+            }
+            if (!this.allowed(paint, finish) || this.dominated(paint, finish, frameNext[top] - 1)) {
+                continue;
+            }
+
+            this.assign(paint, finish);
+            if (!this.propagate() || this.cost >= this.cheapestCost) {
+                continue;
+            }
+            int next = nextUnassigned(paint + 1);
+            if (next > nbPaints) {
+                this.record();
+                continue;
+            }
+            framePaint[depth] = next;
+            frameMark[depth] = trailSize;
+            depth++;
+        }
+    }
+
+    /**
+     * Replays the decisions of the checkpoint: each one is propagated again, as the search did.
+     *
+     * @return the depth of the checkpoint
+     * @throws PaintShopInputRuntimeException if the decisions are not valid for this search
+     */
+    private int resume(int[] framePaint, int[] frameNext, int[] frameMark) {
+        int depth = resumed.depth;
+        this.cheapest = resumed.cheapest;
+        this.cheapestCost = resumed.cheapestCost;
+        for (int frame = 0; frame < depth; frame++) {
+            int paint = resumed.framePaints[frame];
+            int next = resumed.frameNexts[frame];
+            boolean last = frame == depth - 1;
+            if (paint < 1 || paint > nbPaints || assignment[paint] != null
+                    || next < (last ? 0 : 1) || next > FINISHES.length) {
+                throw new PaintShopInputRuntimeException(INVALID_CHECKPOINT,
+                        String.format("Decision %d of the checkpoint is not valid.", frame));
+            }
+            framePaint[frame] = paint;
+            frameNext[frame] = next;
+            frameMark[frame] = trailSize;
+            if (!last) {
+                this.assign(paint, cheapestFirst[FINISHES.length * paint + next - 1]);
+                this.propagate();
+            }
+        }
+        LOGGER.info("Search resumed at depth {} - cheapest: {}", depth, cheapest);
+        return depth;
+    }
+
+    private void checkpoint(int depth, int[] framePaint, int[] frameNext) {
+        if (checkpointer == null) {
+            return;
+        }
+        byte[] nexts = new byte[depth];
+        for (int frame = 0; frame < depth; frame++) {
+            nexts[frame] = (byte) frameNext[frame];
+        }
+        checkpointer.save(new SearchCheckpoint(fingerprint, domains, depth, Arrays.copyOf(framePaint, depth), nexts,
+                cheapest, cheapestCost));
+    }
+
+    /**
+     * A finish that is not the cheapest one is dominated when it does not satisfy any customer taste
+     * that is not already satisfied: the same assignment with a cheaper finish is as valid and has been
+     * explored already.
+     */
+    private boolean dominated(int paint, PaintFinish finish, int rank) {
+        for (int cheaper = 0; cheaper < rank; cheaper++) {
+            if (!this.allowed(paint, cheapestFirst[FINISHES.length * paint + cheaper])) {
+                return false;
+            }
+        }
+        if (rank == 0) {
+            return false;
+        }
+        for (int position = 0; position < clauses.occurrenceCount(paint); position++) {
+            int clause = clauses.occurrence(paint, position);
+            if (contains(clause, paint, finish) && this.evaluate(clause) != SATISFIED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contains(int clause, int paint, PaintFinish finish) {
+        for (int position = 0; position < clauses.length(clause); position++) {
+            int literal = clauses.literal(clause, position);
+            if (ClauseStore.paint(literal) == paint && ClauseStore.finish(literal) == finish) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int nextUnassigned(int from) {
+        int paint = from;
+        while (paint <= nbPaints && assignment[paint] != null) {
+            paint++;
+        }
+        return paint;
+    }
+
+    private void record() {
+        StringBuilder solution = new StringBuilder(nbPaints);
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            solution.append(assignment[paint].name());
+        }
+        this.cheapest = solution.toString();
+        this.cheapestCost = this.cost;
+        LOGGER.debug("solution found: {} - cost: {}", this.cheapest, this.cheapestCost);
+    }
+
+    /**
+     * @return true if the finishes are allowed for every paint, and liked by every customer taste
+     */
+    private boolean valid(PaintFinish[] finishes) {
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            if (finishes[paint] == null || !this.allowed(paint, finishes[paint])) {
+                return false;
+            }
+        }
+        for (int clause = 0; clause < customerTastes.size(); clause++) {
+            boolean liked = false;
+            for (int position = 0; position < customerTastes.length(clause) && !liked; position++) {
+                int literal = customerTastes.literal(clause, position);
+                liked = finishes[ClauseStore.paint(literal)] == ClauseStore.finish(literal);
+            }
+            if (!liked) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long cost(PaintFinish[] finishes) {
+        long result = 0;
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            result += this.cost(paint, finishes[paint]);
+        }
+        return result;
+    }
+
+    private static String representation(PaintFinish[] finishes) {
+        StringBuilder representation = new StringBuilder(finishes.length - 1);
+        for (int paint = 1; paint < finishes.length; paint++) {
+            representation.append(finishes[paint].name());
+        }
+        return representation.toString();
+    }
+
+    private boolean assignDomainsOfOneFinish() {
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            int domain = domains[paint];
+            if (domain == 0) {
+                return false;
+            }
+            if (Integer.bitCount(domain) == 1) {
+                this.assign(paint, FINISHES[Integer.numberOfTrailingZeros(domain)]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks every clause once, to catch the customer tastes with a single paint reference.
+     */
+    private boolean propagateAllClauses() {
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            if (!this.propagate(clause)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Unit propagation of the assignments not yet propagated on the trail.
+     *
+     * @return false if a customer taste can no longer be satisfied
+     */
+    private boolean propagate() {
+        while (propagated < trailSize) {
+            int paint = trail[propagated++];
+            for (int position = 0; position < clauses.occurrenceCount(paint); position++) {
+                if (!this.propagate(clauses.occurrence(paint, position))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean propagate(int clause) {
+        int status = this.evaluate(clause);
+        if (status == SATISFIED) {
+            return true;
+        }
+        if (status == CONFLICT) {
+            return false;
+        }
+        int lastOption = this.lastOption;
+        if (status == 1) {
+            int paint = ClauseStore.paint(lastOption);
+            PaintFinish finish = ClauseStore.finish(lastOption);
+            if (!this.allowed(paint, finish)) {
+                return false;
+            }
+            this.assign(paint, finish);
+        }
+        return true;
+    }
+
+    /**
+     * @return {@link #SATISFIED}, or the number of paints of the clause still unassigned
+     * (the last one found is kept in {@link #lastOption})
+     */
+    private int evaluate(int clause) {
+        int unassigned = 0;
+        for (int position = 0; position < clauses.length(clause); position++) {
+            int literal = clauses.literal(clause, position);
+            PaintFinish value = assignment[ClauseStore.paint(literal)];
+            if (value == null) {
+                unassigned++;
+                this.lastOption = literal;
+            } else if (value == ClauseStore.finish(literal)) {
+                return SATISFIED;
+            }
+        }
+        return unassigned;
+    }
+
+    private boolean allowed(int paint, PaintFinish finish) {
+        return (domains[paint] & 1 << finish.ordinal()) != 0;
+    }
+
+    private void assign(int paint, PaintFinish finish) {
+        assignment[paint] = finish;
+        trail[trailSize++] = paint;
+        cost += this.cost(paint, finish);
+    }
+
+    private long cost(int paint, PaintFinish finish) {
+        return costs[FINISHES.length * paint + finish.ordinal()];
+    }
+
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            int paint = trail[--trailSize];
+            cost -= this.cost(paint, assignment[paint]);
+            assignment[paint] = null;
+        }
+        propagated = trailSize;
+    }
+}
@@ -0,0 +1,138 @@
+package me.david.paintshop;
+
+import java.util.List;
+
+/**
+ * Checks the customer tastes against 64 combinations of paints at once, one per bit of a <code>long</code>.
+ * <p>Each paint is a word, whose bit <code>j</code> is set when the paint is matte in the combination
+ * <code>j</code>. A customer taste is then checked on the 64 combinations by OR-ing the words of its
+ * paint references (the complement for gloss), and all the customer tastes by AND-ing the results.</p>
+ * <p>To walk the <code>2^n</code> combinations, they are split into blocks of 64: in a block, the last 6
+ * paints take all their values, while the first <code>n - 6</code> paints are fixed by the block number.
+ * Blocks and combinations are numbered in the lexicographic order of the combinations (GG..G first), so
+ * the number of mattes of a combination is <code>bitCount(block) + bitCount(j)</code>.</p>
+ */
+final class BitSlicedEvaluator {
+
+    /**
+     * Number of paints taking all their values in a block: 2^6 = 64 combinations
+     */
+    static final int LOW_PAINTS = 6;
+
+    /**
+     * The word of the paints taking all their values in a block, the last paint first
+     */
+    private static final long[] LOW_WORDS = {
+            0xAAAAAAAAAAAAAAAAL,
+            0xCCCCCCCCCCCCCCCCL,
+            0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L,
+            0xFFFF0000FFFF0000L,
+            0xFFFFFFFF00000000L
+    };
+
+    private final ClauseStore clauses;
+    private final int nbPaints;
+    private final int highPaints;
+    private final long[] mattes; //1-based
+
+    /**
+     * @param clauses the compiled customer tastes. The shortest first is faster, as an evaluation
+     *                stops as soon as no combination is left
+     */
+    BitSlicedEvaluator(ClauseStore clauses) {
+        this.clauses = clauses;
+        this.nbPaints = clauses.nbPaints();
+        this.highPaints = Math.max(0, nbPaints - LOW_PAINTS);
+        this.mattes = new long[nbPaints + 1];
+        for (int bit = 0; bit < nbPaints - highPaints; bit++) {
+            this.mattes[nbPaints - bit] = LOW_WORDS[bit];
+        }
+    }
+
+    /**
+     * @return the number of blocks of 64 combinations
+     */
+    long blocks() {
+        return highPaints >= Long.SIZE - 1 ? Long.MAX_VALUE : 1L << highPaints;
+    }
+
+    /**
+     * @return the number of mattes among the paints fixed by the block
+     */
+    static int nbMattes(long block) {
+        return Long.bitCount(block);
+    }
+
+    /**
+     * @param block the block number
+     * @return the combinations of the block satisfying all the customer tastes, as a bit mask
+     */
+    long satisfied(long block) {
+        for (int paint = 1; paint <= highPaints; paint++) {
+            mattes[paint] = (block >>> (highPaints - paint) & 1L) == 0 ? 0L : -1L;
+        }
+        return this.satisfied(mattes) & this.validCombinations();
+    }
+
+    /**
+     * Checks up to 64 arbitrary combinations, e.g. to verify the solutions of a solver.
+     *
+     * @param combinations the combinations, e.g. 'GGM'
+     * @return bit <code>j</code> is set if the combination <code>j</code> satisfies all the customer tastes
+     */
+    long satisfied(List<String> combinations) {
+        if (combinations.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " combinations: " + combinations.size());
+        }
+        long[] words = new long[nbPaints + 1];
+        for (int j = 0; j < combinations.size(); j++) {
+            String combination = combinations.get(j);
+            for (int paint = 1; paint <= nbPaints; paint++) {
+                if (PaintFinish.M.matches(combination.charAt(paint - 1))) {
+                    words[paint] |= 1L << j;
+                }
+            }
+        }
+        long valid = combinations.size() == Long.SIZE ? -1L : (1L << combinations.size()) - 1;
+        return this.satisfied(words) & valid;
+    }
+
+    /**
+     * @param block       the block number
+     * @param combination the index of the combination in the block
+     * @return the combination, e.g. 'GGM'
+     */
+    String representation(long block, int combination) {
+        StringBuilder representation = new StringBuilder(nbPaints);
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            boolean matte = paint <= highPaints ?
+                    (block >>> (highPaints - paint) & 1L) != 0 :
+                    (combination >>> (nbPaints - paint) & 1) != 0;
+            representation.append(matte ? PaintFinish.M.name() : PaintFinish.G.name());
+        }
+        return representation.toString();
+    }
+
+    private long satisfied(long[] words) {
+        long all = -1L;
+        for (int clause = 0; clause < clauses.size() && all != 0; clause++) {
+            long any = 0L;
+            for (int position = 0; position < clauses.length(clause); position++) {
+                int literal = clauses.literal(clause, position);
+                long word = words[ClauseStore.paint(literal)];
+                any |= ClauseStore.finish(literal) == PaintFinish.M ? word : ~word;
+            }
+            all &= any;
+        }
+        return all;
+    }
+
+    /**
+     * With less than 6 paints, a block has less than 64 combinations
+     */
+    private long validCombinations() {
+        int lowPaints = nbPaints - highPaints;
+        return lowPaints == LOW_PAINTS ? -1L : (1L << (1 << lowPaints)) - 1;
+    }
+}
@@ -0,0 +1,68 @@
+package me.david.paintshop;
+
+/**
+ * Tracks the consumption of a {@link SolverBudget} by one run of a solver.
+ * <p>Not thread-safe: each run has its own meter.</p>
+ */
+final class BudgetMeter {
+
+    /**
+     * The clock is only read every <code>CLOCK_PERIOD</code> nodes
+     */
+    private static final int CLOCK_PERIOD = 1 << 10;
+
+    /**
+     * Size of an object reference in the estimates of {@link #reserve}: 8 bytes, as without compressed oops
+     */
+    static final long REFERENCE_BYTES = 8L;
+
+    private final SolverBudget budget;
+    private final long start;
+    private long nodes;
+    private long candidateBytes;
+    private boolean exhausted;
+
+    BudgetMeter(SolverBudget budget) {
+        this.budget = budget;
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Counts one explored node. Checks the interruption flag of the thread as well.
+     *
+     * @return true if the budget is exhausted, i.e. the solver must stop
+     */
+    boolean tick() {
+        Interruptions.checkInterrupted();
+        nodes++;
+        if (nodes > budget.maxNodes()
+                || (nodes % CLOCK_PERIOD == 0 && System.nanoTime() - start > budget.timeLimitNanos())) {
+            exhausted = true;
+        }
+        return exhausted;
+    }
+
+    /**
+     * Reserves heap for candidate assignments or search structures, before allocating them.
+     * <p>The size is an estimate: the payload of the main arrays, from the size of their elements, without
+     * the object headers, the padding or the short-lived objects.</p>
+     *
+     * @param bytes estimated size of the allocation
+     * @return true if the budget is exhausted, i.e. the allocation must not be done
+     */
+    boolean reserve(long bytes) {
+        candidateBytes += bytes;
+        if (candidateBytes > budget.maxCandidateBytes()) {
+            exhausted = true;
+        }
+        return exhausted;
+    }
+
+    boolean exhausted() {
+        return exhausted;
+    }
+
+    long nodes() {
+        return nodes;
+    }
+}
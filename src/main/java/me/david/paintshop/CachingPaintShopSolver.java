@@ -0,0 +1,200 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of a <code>PaintShopSolver</code> reusing the solutions of the components already solved
+ * in other orders, kept in a {@link ComponentSolutionCache}.
+ * <p>The paints are split into {@link Components}, each one is put in its canonical form and looked up in
+ * the cache. Only the components not found are solved: together, as one problem renumbered from 1, by the
+ * solver of the given name. When that problem is solved to optimality, its solution is split back into
+ * the solutions of its components, which are stored in the cache.</p>
+ * <p>The solutions are the cheapest ones with {@link PaintCostModel#DEFAULT} costs, for which a paint
+ * renumbering does not change the costs.</p>
+ */
+class CachingPaintShopSolver implements AnytimePaintShopSolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingPaintShopSolver.class);
+
+    private static final Comparator<int[]> CLAUSE_ORDER = (first, second) -> {
+        if (first.length != second.length) {
+            return Integer.compare(first.length, second.length);
+        }
+        for (int position = 0; position < first.length; position++) {
+            if (first[position] != second[position]) {
+                return Integer.compare(first[position], second[position]);
+            }
+        }
+        return 0;
+    };
+
+    private final int nbPaints;
+    private final CustomerTasteClauses clauses;
+    private final ComponentSolutionCache cache;
+    private final String solverName;
+
+    /**
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @param cache          the solutions of the components already solved
+     * @param solverName     the solver of the components not found, in {@link PaintShopSolvers}
+     */
+    CachingPaintShopSolver(int nbPaints, List<CustomerTaste> customerTastes, ComponentSolutionCache cache,
+                           String solverName) {
+        this.nbPaints = nbPaints;
+        this.clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+        this.cache = cache;
+        this.solverName = solverName;
+    }
+
+    @Override
+    public List<String> solutions() {
+        return this.solve(SolverBudget.unlimited())
+                .paintBatches()
+                .map(paintBatches -> Collections.singletonList(paintBatches.finishesRepresentation()))
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * @param budget the budget of the solver of the components not found
+     * @return the cheapest solution, or the best one found within the budget
+     */
+    @Override
+    public PaintShopSolution solve(SolverBudget budget) {
+        Components components = Components.of(clauses);
+        int count = components.count();
+
+        //paints and clauses of each component, by prefix sums
+        int[] paintOffsets = new int[count + 1];
+        int[] clauseOffsets = new int[count + 1];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            paintOffsets[components.of(paint) + 1]++;
+        }
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            clauseOffsets[components.of(ClauseStore.paint(clauses.literal(clause, 0))) + 1]++;
+        }
+        for (int component = 1; component <= count; component++) {
+            paintOffsets[component] += paintOffsets[component - 1];
+            clauseOffsets[component] += clauseOffsets[component - 1];
+        }
+        int[] paints = new int[nbPaints];
+        int[] local = new int[nbPaints + 1]; //1-based index of a paint in its component
+        int[] fill = Arrays.copyOf(paintOffsets, count);
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            int component = components.of(paint);
+            local[paint] = fill[component] - paintOffsets[component] + 1;
+            paints[fill[component]++] = paint;
+        }
+        int[] componentClauses = new int[clauses.size()];
+        fill = Arrays.copyOf(clauseOffsets, count);
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            componentClauses[fill[components.of(ClauseStore.paint(clauses.literal(clause, 0)))]++] = clause;
+        }
+
+        char[] finishes = new char[nbPaints];
+        Arrays.fill(finishes, PaintFinish.G.name().charAt(0)); //the paints of no customer taste
+        List<Integer> missed = new ArrayList<>();
+        List<ComponentSolutionCache.Key> missedKeys = new ArrayList<>();
+        for (int component = 0; component < count; component++) {
+            if (clauseOffsets[component] == clauseOffsets[component + 1]) {
+                continue;
+            }
+            ComponentSolutionCache.Key key = this.canonical(paintOffsets[component + 1] - paintOffsets[component],
+                    componentClauses, clauseOffsets[component], clauseOffsets[component + 1], local);
+            String cached = cache.get(key);
+            if (cached == null) {
+                missed.add(component);
+                missedKeys.add(key);
+            } else {
+                for (int position = paintOffsets[component]; position < paintOffsets[component + 1]; position++) {
+                    finishes[paints[position] - 1] = cached.charAt(position - paintOffsets[component]);
+                }
+            }
+        }
+        LOGGER.debug("components: {} - not found: {}", count, missed.size());
+        if (missed.isEmpty()) {
+            return PaintShopSolution.optimal(new String(finishes));
+        }
+
+        //the components not found, as one problem: their paints in order, renumbered from 1
+        int nbMissedPaints = 0;
+        int[] missedFirst = new int[missed.size()];
+        List<CustomerTaste> customerTastes = new ArrayList<>();
+        int[] literals = new int[8];
+        for (int index = 0; index < missed.size(); index++) {
+            missedFirst[index] = nbMissedPaints;
+            nbMissedPaints += paintOffsets[missed.get(index) + 1] - paintOffsets[missed.get(index)];
+        }
+        for (int index = 0; index < missed.size(); index++) {
+            int component = missed.get(index);
+            for (int position = clauseOffsets[component]; position < clauseOffsets[component + 1]; position++) {
+                int clause = componentClauses[position];
+                if (clauses.length(clause) > literals.length) {
+                    literals = new int[clauses.length(clause)];
+                }
+                for (int option = 0; option < clauses.length(clause); option++) {
+                    int literal = clauses.literal(clause, option);
+                    literals[option] = ClauseStore.literal(missedFirst[index] + local[ClauseStore.paint(literal)],
+                            ClauseStore.finish(literal));
+                }
+                customerTastes.add(new CustomerTaste(nbMissedPaints, "", literals, clauses.length(clause)));
+            }
+        }
+        PaintShopSolution solution = PaintShopProblem.of(nbMissedPaints, customerTastes)
+                .withSolver(solverName)
+                .solve(budget);
+        if (!solution.paintBatches().isPresent()) {
+            return solution;
+        }
+
+        String missedFinishes = solution.paintBatches().get().finishesRepresentation();
+        for (int index = 0; index < missed.size(); index++) {
+            int component = missed.get(index);
+            int size = paintOffsets[component + 1] - paintOffsets[component];
+            String componentFinishes = missedFinishes.substring(missedFirst[index], missedFirst[index] + size);
+            for (int position = 0; position < size; position++) {
+                finishes[paints[paintOffsets[component] + position] - 1] = componentFinishes.charAt(position);
+            }
+            if (solution.isOptimal()) {
+                cache.put(missedKeys.get(index), componentFinishes);
+            }
+        }
+        return PaintShopSolution.of(new String(finishes), solution.isOptimal());
+    }
+
+    /**
+     * @return the component with its paints renumbered from 1 in increasing order, and its clauses sorted
+     */
+    private ComponentSolutionCache.Key canonical(int size, int[] componentClauses, int from, int to, int[] local) {
+        int[][] canonicalClauses = new int[to - from][];
+        int length = 2;
+        for (int position = from; position < to; position++) {
+            int clause = componentClauses[position];
+            int[] canonicalClause = new int[clauses.length(clause)];
+            for (int option = 0; option < canonicalClause.length; option++) {
+                int literal = clauses.literal(clause, option);
+                canonicalClause[option] = ClauseStore.literal(local[ClauseStore.paint(literal)],
+                        ClauseStore.finish(literal)); //still sorted by paint
+            }
+            canonicalClauses[position - from] = canonicalClause;
+            length += 1 + canonicalClause.length;
+        }
+        Arrays.sort(canonicalClauses, CLAUSE_ORDER);
+        int[] canonical = new int[length];
+        canonical[0] = size;
+        canonical[1] = canonicalClauses.length;
+        int position = 2;
+        for (int[] canonicalClause : canonicalClauses) {
+            canonical[position++] = canonicalClause.length;
+            System.arraycopy(canonicalClause, 0, canonical, position, canonicalClause.length);
+            position += canonicalClause.length;
+        }
+        return new ComponentSolutionCache.Key(canonical);
+    }
+}
@@ -0,0 +1,69 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_CHECKPOINT;
+
+/**
+ * A long search that survives restarts: the domains are reduced by arc consistency (see
+ * {@link AC2001SatSolver}), then a {@link BacktrackingSearch} saves a {@link SearchCheckpoint} periodically,
+ * and when its budget is exhausted.
+ * <p>If the checkpoint file exists, the search resumes from it instead: the reduced domains are read from
+ * the checkpoint, the decisions are replayed, and the search carries on with the cheapest solution found
+ * before. The checkpoint is deleted once the search is complete.</p>
+ */
+final class CheckpointedSearch {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckpointedSearch.class);
+
+    private final CustomerTasteClauses clauses;
+    private final Path file;
+    private final long intervalNanos;
+
+    /**
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @param file           the checkpoint file
+     * @param intervalNanos  the minimum time between two checkpoints
+     */
+    CheckpointedSearch(int nbPaints, List<CustomerTaste> customerTastes, Path file, long intervalNanos) {
+        this.clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+        this.file = file;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * @param budget the budget of this run
+     * @return the cheapest solution, or the cheapest found so far when the budget is exhausted
+     * @throws PaintShopInputRuntimeException if the checkpoint cannot be read, or is for another problem
+     */
+    PaintShopSolution solve(SolverBudget budget) {
+        BudgetMeter meter = budget.start();
+        SearchCheckpoint checkpoint = SearchCheckpoint.read(file, clauses.nbPaints());
+        byte[] domains;
+        if (checkpoint == null) {
+            domains = new byte[clauses.nbPaints() + 1];
+            Arrays.fill(domains, (byte) ((1 << PaintFinish.values().length) - 1));
+            if (!new AC2001SatSolver(clauses).ac2001(domains, meter)) {
+                return PaintShopSolution.unsatisfiable();
+            }
+            if (meter.exhausted()) {
+                return PaintShopSolution.unknown();
+            }
+        } else if (checkpoint.fingerprint != SearchCheckpoint.fingerprint(clauses)) {
+            throw new PaintShopInputRuntimeException(INVALID_CHECKPOINT,
+                    String.format("Checkpoint '%s' is for another problem.", file));
+        } else {
+            LOGGER.info("Resuming from checkpoint {}", file);
+            domains = checkpoint.domains;
+        }
+        return new BacktrackingSearch(clauses, domains)
+                .checkpointed(new Checkpointer(file, intervalNanos), checkpoint)
+                .solve(meter);
+    }
+}
@@ -0,0 +1,59 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Saves the {@link SearchCheckpoint}s of a {@link BacktrackingSearch} to a file, at most once per interval.
+ * <p>A checkpoint that cannot be written is logged, and the search carries on: losing a checkpoint only
+ * loses the progress since the previous one.</p>
+ */
+final class Checkpointer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Checkpointer.class);
+
+    private final Path file;
+    private final long intervalNanos;
+    private long lastSave;
+
+    /**
+     * @param file          the checkpoint file
+     * @param intervalNanos the minimum time between two checkpoints
+     */
+    Checkpointer(Path file, long intervalNanos) {
+        this.file = file;
+        this.intervalNanos = intervalNanos;
+        this.lastSave = System.nanoTime();
+    }
+
+    /**
+     * @return true if the interval has elapsed since the last checkpoint
+     */
+    boolean due() {
+        return System.nanoTime() - lastSave >= intervalNanos;
+    }
+
+    void save(SearchCheckpoint checkpoint) {
+        try {
+            checkpoint.write(file);
+            LOGGER.debug("Checkpoint saved to {} at depth {}", file, checkpoint.depth);
+        } catch (IOException exception) {
+            LOGGER.warn("Checkpoint {} not saved: {}", file, exception.getMessage());
+        }
+        lastSave = System.nanoTime();
+    }
+
+    /**
+     * Deletes the checkpoint: the search is complete, there is nothing left to resume.
+     */
+    void completed() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException exception) {
+            LOGGER.warn("Checkpoint {} not deleted: {}", file, exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package me.david.paintshop;
+
+/**
+ * Read access to the customer tastes compiled as clauses, for the propagation and search engines.
+ * <p>Following the notation of the README.md file, a paint reference is a signed literal:
+ * <code>+i</code> for paint <code>i</code> in Gloss and <code>-i</code> for paint <code>i</code> in Matte.</p>
+ * <p>Implementations:</p>
+ * <ul>
+ * <li>{@link CustomerTasteClauses}, on the heap,</li>
+ * <li>{@link OffHeapClauseStore}, in direct or memory-mapped buffers, for the problems too big for the heap.</li>
+ * </ul>
+ */
+interface ClauseStore {
+
+    /**
+     * @return the number of paints
+     */
+    int nbPaints();
+
+    /**
+     * @return the number of clauses
+     */
+    int size();
+
+    /**
+     * @param clause index of the clause
+     * @return the number of literals of the clause
+     */
+    int length(int clause);
+
+    /**
+     * @param clause   index of the clause
+     * @param position position of the literal in the clause
+     * @return the literal
+     */
+    int literal(int clause, int position);
+
+    /**
+     * @param paint 1-based paint index
+     * @return the number of clauses referencing the paint
+     */
+    int occurrenceCount(int paint);
+
+    /**
+     * @param paint    1-based paint index
+     * @param position position in the list of clauses referencing the paint
+     * @return the index of the clause
+     */
+    int occurrence(int paint, int position);
+
+    /**
+     * @param paintReference a paint reference, e.g. 3M
+     * @return the signed literal of the paint reference, e.g. -3
+     */
+    static int literal(PaintReference paintReference) {
+        return literal(paintReference.index(), paintReference.finish());
+    }
+
+    /**
+     * @param paint  1-based paint index
+     * @param finish the finish
+     * @return the signed literal, e.g. -3 for paint 3 in Matte
+     */
+    static int literal(int paint, PaintFinish finish) {
+        return finish == PaintFinish.G ? paint : -paint;
+    }
+
+    /**
+     * @param literal a signed literal
+     * @return the (1-based) paint index of the literal
+     */
+    static int paint(int literal) {
+        return literal < 0 ? -literal : literal;
+    }
+
+    /**
+     * @param literal a signed literal
+     * @return the paint finish of the literal
+     */
+    static PaintFinish finish(int literal) {
+        return literal < 0 ? PaintFinish.M : PaintFinish.G;
+    }
+}
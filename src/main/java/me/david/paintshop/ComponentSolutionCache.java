@@ -0,0 +1,219 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded LRU store of the cheapest solutions of components, shared by the orders built from the same
+ * recurring groups of customers and paints. See {@link PaintShopProblem#solve(ComponentSolutionCache,
+ * SolverBudget)}.
+ * <p>A component is stored in a canonical form: its paints are renumbered from 1 in increasing order, and
+ * its customer tastes are sorted. The same group of customers is found again whatever the paint indexes
+ * of the order (as long as their relative order is the same) and the order of its customers.</p>
+ * <p>The store can be saved to a file and loaded back, e.g. from one run of the program to the next.</p>
+ * <p>Thread-safe.</p>
+ */
+public final class ComponentSolutionCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentSolutionCache.class);
+
+    private static final int MAGIC = 0x5053_4343; //'PSCC'
+
+    private final int capacity;
+    private final LinkedHashMap<Key, String> solutions;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param capacity the maximum number of components kept, the least recently used being evicted first
+     */
+    public ComponentSolutionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity is expected to be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.solutions = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > ComponentSolutionCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * @param file     a file written by {@link #save(Path)}
+     * @param capacity the maximum number of components kept
+     * @return the store, empty if the file does not exist
+     * @throws IOException if the file cannot be read, e.g. a {@link StreamCorruptedException} if its counts are
+     *                     inconsistent
+     */
+    public static ComponentSolutionCache load(Path file, int capacity) throws IOException {
+        ComponentSolutionCache cache = new ComponentSolutionCache(capacity);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (input.readInt() != MAGIC) {
+                throw new StreamCorruptedException("Not a component solution store.");
+            }
+            int size = input.readInt();
+            if (size < 0) {
+                throw new StreamCorruptedException(String.format("%d components.", size));
+            }
+            for (int entry = 0; entry < size; entry++) {
+                int length = input.readInt();
+                if (length < 2) {
+                    throw new StreamCorruptedException(String.format("Component %d of length %d.", entry, length));
+                }
+                int[] canonical = new int[length];
+                for (int position = 0; position < canonical.length; position++) {
+                    canonical[position] = input.readInt();
+                }
+                int nbFinishes = input.readInt();
+                if (!isCanonical(canonical) || nbFinishes != canonical[0]) {
+                    throw new StreamCorruptedException(String.format("Component %d is not canonical.", entry));
+                }
+                byte[] finishes = new byte[nbFinishes];
+                input.readFully(finishes);
+                String solution = new String(finishes, StandardCharsets.US_ASCII);
+                if (!solution.matches("[GM]*")) {
+                    throw new StreamCorruptedException(
+                            String.format("Solution '%s' of component %d.", solution, entry));
+                }
+                cache.put(new Key(canonical), solution);
+            }
+        } catch (NoSuchFileException exception) {
+            LOGGER.info("No component solution store {}, starting empty", file);
+        }
+        return cache;
+    }
+
+    /**
+     * @return true if the counts of the component are consistent: a positive number of paints, then exactly
+     * the number of customer tastes announced, each of a positive length and with literals of these paints
+     */
+    private static boolean isCanonical(int[] canonical) {
+        int nbPaints = canonical[0];
+        int position = 2;
+        int clause = 0;
+        for (; clause < canonical[1] && position < canonical.length; clause++) {
+            int length = canonical[position++];
+            if (length < 1 || length > canonical.length - position) {
+                return false;
+            }
+            for (int end = position + length; position < end; position++) {
+                if (canonical[position] == 0 || Math.abs((long) canonical[position]) > nbPaints) {
+                    return false;
+                }
+            }
+        }
+        return nbPaints > 0 && clause == canonical[1] && position == canonical.length;
+    }
+
+    /**
+     * Saves the store, the least recently used components first. The file is replaced atomically.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+                output.writeInt(MAGIC);
+                output.writeInt(solutions.size());
+                for (Map.Entry<Key, String> entry : solutions.entrySet()) {
+                    output.writeInt(entry.getKey().canonical.length);
+                    for (int value : entry.getKey().canonical) {
+                        output.writeInt(value);
+                    }
+                    output.writeInt(entry.getValue().length());
+                    output.write(entry.getValue().getBytes(StandardCharsets.US_ASCII));
+                }
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @return the number of components stored
+     */
+    public synchronized int size() {
+        return solutions.size();
+    }
+
+    /**
+     * @return the number of components found in the store so far
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of components not found in the store so far, i.e. sent to a solver
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * @param key a canonical component
+     * @return the finish of each of its paints, e.g. 'GGM', or <code>null</code> if it is not stored
+     */
+    synchronized String get(Key key) {
+        String finishes = solutions.get(key);
+        if (finishes == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return finishes;
+    }
+
+    synchronized void put(Key key, String finishes) {
+        solutions.put(key, finishes);
+    }
+
+    /**
+     * A canonical component: its number of paints, its number of customer tastes, then the length and the
+     * literals of each customer taste, renumbered and sorted.
+     */
+    static final class Key {
+        private final int[] canonical;
+        private final int hash;
+
+        Key(int[] canonical) {
+            this.canonical = canonical;
+            this.hash = Arrays.hashCode(canonical);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && hash == ((Key) other).hash
+                    && Arrays.equals(canonical, ((Key) other).canonical);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
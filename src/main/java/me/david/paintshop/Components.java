@@ -0,0 +1,79 @@
+package me.david.paintshop;
+
+/**
+ * Connected components of the paints: two paints are connected when a customer taste references both.
+ * <p>The components are independent sub-problems: the cheapest solution of the problem is made of the
+ * cheapest solution of each component.</p>
+ * <p>Built with a union-find over the clauses, in <code>O(n + total clause length)</code>.</p>
+ */
+final class Components {
+
+    private final int[] component; //1-based paint -> component index
+    private final int count;
+
+    private Components(int[] component, int count) {
+        this.component = component;
+        this.count = count;
+    }
+
+    /**
+     * @param clauses the compiled customer tastes
+     * @return the components of the paints
+     */
+    static Components of(ClauseStore clauses) {
+        int nbPaints = clauses.nbPaints();
+        int[] parent = new int[nbPaints + 1];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            parent[paint] = paint;
+        }
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            int first = find(parent, ClauseStore.paint(clauses.literal(clause, 0)));
+            for (int position = 1; position < clauses.length(clause); position++) {
+                int other = find(parent, ClauseStore.paint(clauses.literal(clause, position)));
+                if (other != first) {
+                    parent[other] = first;
+                }
+            }
+        }
+
+        int[] component = new int[nbPaints + 1];
+        int[] index = new int[nbPaints + 1];
+        int count = 0;
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            int root = find(parent, paint);
+            if (index[root] == 0) {
+                index[root] = ++count;
+            }
+            component[paint] = index[root] - 1;
+        }
+        return new Components(component, count);
+    }
+
+    private static int find(int[] parent, int paint) {
+        int root = paint;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        for (int current = paint; parent[current] != root; ) { //path compression
+            int next = parent[current];
+            parent[current] = root;
+            current = next;
+        }
+        return root;
+    }
+
+    /**
+     * @return the number of components
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * @param paint 1-based paint index
+     * @return the index of the component of the paint, in <code>[0, count()[</code>, numbered by first paint
+     */
+    int of(int paint) {
+        return component[paint];
+    }
+}
@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -13,7 +14,7 @@ import static me.david.paintshop.exceptions.PaintShopError.INVALID_CUSTOMER_TAST
 
 /**
  * Represents a customer taste, e.g. "1 G 2 M 4G"
- * <p>A taste is invalid if the paint reference is &gt; the <code>numberOfPaints</code>
+ * <p>A taste is invalid if the paint reference is &lt; 1 or &gt; the <code>numberOfPaints</code>
  * parameter.</p>
  * <p>No customer will like more than one color in matte.</p>
  * <p>Tries to be as flexible as possible for the input. See unit test</p>
@@ -52,6 +53,24 @@ public class CustomerTaste {
         this.validate();
     }
 
+    /**
+     * Constructor of a customer taste already parsed and validated by a {@link CustomerTasteParser}:
+     * no exception is thrown.
+     *
+     * @param numberOfPaints the number of paints
+     * @param taste          the representation of the customer taste
+     * @param literals       the literals of the customer taste (see {@link ClauseStore})
+     * @param length         the number of literals
+     */
+    CustomerTaste(int numberOfPaints, String taste, int[] literals, int length) {
+        this.numberOfPaints = numberOfPaints;
+        this.representation = taste;
+        this.paintReferences = new HashSet<>(2 * length);
+        for (int i = 0; i < length; i++) {
+            this.paintReferences.add(new PaintReference(ClauseStore.paint(literals[i]), ClauseStore.finish(literals[i])));
+        }
+    }
+
     /**
      * Validates the customer taste:
      * <ul>
@@ -63,7 +82,7 @@ public class CustomerTaste {
     private final void validate() {
         int nbMattes = 0;
         for (PaintReference paintReference : this.paintReferences) {
-            if (paintReference.index() > numberOfPaints) {
+            if (paintReference.index() < 1 || paintReference.index() > numberOfPaints) {
                 throw new PaintShopInputRuntimeException(
                         INVALID_CUSTOMER_TASTE,
                         String.format("Customer taste '%s' is not valid. It references an unknown paint: '%s' (> %s).",
@@ -0,0 +1,116 @@
+package me.david.paintshop;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, read-only representation of the customer tastes as clauses, on the heap.
+ * <p>The literals of all the clauses are packed in a single array and indexed by an array of offsets.
+ * A paint -&gt; clauses index is built as well, so that a solver only visits the clauses
+ * related to a paint.</p>
+ */
+final class CustomerTasteClauses implements ClauseStore {
+
+    private final int nbPaints;
+    private final int[] offsets;
+    private final int[] literals;
+    private final int[] occurrenceOffsets;
+    private final int[] occurrences;
+
+    /**
+     * Constructor.
+     *
+     * @param nbPaints the number of paints
+     * @param offsets  start of each clause in <code>literals</code>, plus a last offset for the end of the last one
+     * @param literals the packed literals of all the clauses
+     */
+    CustomerTasteClauses(int nbPaints, int[] offsets, int[] literals) {
+        this.nbPaints = nbPaints;
+        this.offsets = offsets;
+        this.literals = literals;
+
+        //paint -> clauses index: count, prefix sum, then fill
+        this.occurrenceOffsets = new int[nbPaints + 2];
+        for (int literal : literals) {
+            this.occurrenceOffsets[ClauseStore.paint(literal) + 1]++;
+        }
+        for (int paint = 1; paint <= nbPaints + 1; paint++) {
+            this.occurrenceOffsets[paint] += this.occurrenceOffsets[paint - 1];
+        }
+        this.occurrences = new int[literals.length];
+        int[] fill = Arrays.copyOf(this.occurrenceOffsets, nbPaints + 1);
+        for (int clause = 0; clause < size(); clause++) {
+            for (int position = offsets[clause]; position < offsets[clause + 1]; position++) {
+                this.occurrences[fill[ClauseStore.paint(literals[position])]++] = clause;
+            }
+        }
+    }
+
+    /**
+     * Compiles the customer tastes into clauses. The literals of a clause are sorted by paint index.
+     *
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @return the compiled clauses, in the order of the given customer tastes
+     */
+    static CustomerTasteClauses compile(int nbPaints, List<CustomerTaste> customerTastes) {
+        int[] offsets = new int[customerTastes.size() + 1];
+        int total = 0;
+        for (int clause = 0; clause < customerTastes.size(); clause++) {
+            total += customerTastes.get(clause).count();
+            offsets[clause + 1] = total;
+        }
+
+        int[] literals = new int[total];
+        for (int clause = 0; clause < customerTastes.size(); clause++) {
+            int position = offsets[clause];
+            for (PaintReference paintReference : customerTastes.get(clause).paintReferences()) {
+                literals[position++] = ClauseStore.literal(paintReference);
+            }
+            sortByPaint(literals, offsets[clause], position);
+        }
+        return new CustomerTasteClauses(nbPaints, offsets, literals);
+    }
+
+    static void sortByPaint(int[] literals, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int current = literals[i];
+            int j = i - 1;
+            while (j >= from && ClauseStore.paint(literals[j]) > ClauseStore.paint(current)) {
+                literals[j + 1] = literals[j];
+                j--;
+            }
+            literals[j + 1] = current;
+        }
+    }
+
+    @Override
+    public int nbPaints() {
+        return nbPaints;
+    }
+
+    @Override
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int length(int clause) {
+        return offsets[clause + 1] - offsets[clause];
+    }
+
+    @Override
+    public int literal(int clause, int position) {
+        return literals[offsets[clause] + position];
+    }
+
+    @Override
+    public int occurrenceCount(int paint) {
+        return occurrenceOffsets[paint + 1] - occurrenceOffsets[paint];
+    }
+
+    @Override
+    public int occurrence(int paint, int position) {
+        return occurrences[occurrenceOffsets[paint] + position];
+    }
+}
@@ -0,0 +1,185 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+
+import java.util.Arrays;
+
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_CUSTOMER_TASTE;
+
+/**
+ * Parses a customer taste, e.g. "1 G 2 M 4G", straight into signed literals (see {@link ClauseStore}),
+ * without creating any {@link CustomerTaste} or {@link PaintReference} object.
+ * <p>It accepts exactly the representations accepted by {@link CustomerTaste}, e.g. "+1 G" or "01G", and
+ * applies the same validation: a line parsed from a file above the off-heap threshold, from standard input
+ * or leniently is accepted if and only if the same line is accepted by the {@link CustomerTaste}
+ * constructor. A literal given twice is only kept once.</p>
+ * <p>Not thread-safe: the literals are kept in a buffer reused from one line to the next.</p>
+ */
+final class CustomerTasteParser {
+
+    static final int VALID = 0;
+    static final int INVALID_FORMAT = 1;
+    static final int UNKNOWN_PAINT = 2;
+    static final int MORE_THAN_ONE_MATTE = 3;
+
+    private int[] literals = new int[16];
+    private int length;
+    private int unknownPaint;
+
+    /**
+     * Parses a customer taste. The literals are then available through {@link #literals()} and {@link #length()}.
+     *
+     * @param taste    the customer taste
+     * @param nbPaints the number of paints
+     * @return {@link #VALID}, or the reason why the taste is invalid
+     */
+    int parse(CharSequence taste, int nbPaints) {
+        this.length = 0;
+        boolean unknown = false;
+        int nbMattes = 0;
+        //one paint reference per piece ending with 'G', 'M' or '|', like the split of CustomerTaste
+        int position = 0;
+        do {
+            int end = position;
+            while (end < taste.length() && !isDelimiter(taste.charAt(end))) {
+                end++;
+            }
+            //a piece without finish, e.g. trailing blanks, or a '|' finish
+            if (end == taste.length() || taste.charAt(end) == '|') {
+                return INVALID_FORMAT;
+            }
+            PaintFinish finish = PaintFinish.G.matches(taste.charAt(end)) ? PaintFinish.G : PaintFinish.M;
+            int from = skipBlanks(taste, position, end);
+            long paint = index(taste, from, trimEnd(taste, from, end));
+            if (paint == Long.MIN_VALUE) {
+                return INVALID_FORMAT;
+            }
+            position = end + 1;
+
+            if (paint < 1 || paint > nbPaints) {
+                if (!unknown) {
+                    this.unknownPaint = (int) paint;
+                    unknown = true;
+                }
+                continue;
+            }
+            int literal = ClauseStore.literal((int) paint, finish);
+            if (!this.contains(literal)) {
+                nbMattes += finish == PaintFinish.M ? 1 : 0;
+                this.add(literal);
+            }
+        } while (position < taste.length());
+
+        if (unknown) {
+            return UNKNOWN_PAINT;
+        }
+        return nbMattes > 1 ? MORE_THAN_ONE_MATTE : VALID;
+    }
+
+    /**
+     * Parses a paint index the way {@link Integer#valueOf(String)} does: an optional sign then decimal digits.
+     *
+     * @return the index, or {@link Long#MIN_VALUE} if it is not a valid <code>int</code>
+     */
+    private static long index(CharSequence taste, int from, int to) {
+        int position = from;
+        boolean negative = position < to && taste.charAt(position) == '-';
+        if (position < to && (negative || taste.charAt(position) == '+')) {
+            position++;
+        }
+        if (position == to) {
+            return Long.MIN_VALUE;
+        }
+        long index = 0;
+        for (; position < to; position++) {
+            int digit = Character.digit(taste.charAt(position), 10);
+            index = index * 10 + digit;
+            if (digit < 0 || index > Integer.MAX_VALUE + (negative ? 1L : 0L)) {
+                return Long.MIN_VALUE;
+            }
+        }
+        return negative ? -index : index;
+    }
+
+    /**
+     * Same as {@link #parse}, but throws the same exceptions as the {@link CustomerTaste} constructor.
+     *
+     * @param taste    the customer taste
+     * @param nbPaints the number of paints
+     * @throws PaintShopInputRuntimeException if the customer taste is not valid
+     */
+    void parseOrThrow(CharSequence taste, int nbPaints) {
+        int status = this.parse(taste, nbPaints);
+        if (status != VALID) {
+            throw new PaintShopInputRuntimeException(INVALID_CUSTOMER_TASTE, this.advice(status, taste, nbPaints));
+        }
+    }
+
+    /**
+     * @return the message of the exception thrown by the {@link CustomerTaste} constructor for the same error
+     */
+    String advice(int status, CharSequence taste, int nbPaints) {
+        switch (status) {
+            case UNKNOWN_PAINT:
+                return String.format("Customer taste '%s' is not valid. It references an unknown paint: '%s' (> %s).",
+                        taste, this.unknownPaint, nbPaints);
+            case MORE_THAN_ONE_MATTE:
+                return String.format("Customer taste '%s' is not valid. More than one Matte finish detected.", taste);
+            default:
+                return String.format("Customer taste '%s' is not valid.", taste);
+        }
+    }
+
+    /**
+     * @return the buffer of literals. Only the first {@link #length()} ones are the literals of the last taste parsed
+     */
+    int[] literals() {
+        return literals;
+    }
+
+    int length() {
+        return length;
+    }
+
+    private boolean contains(int literal) {
+        for (int i = 0; i < length; i++) {
+            if (literals[i] == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(int literal) {
+        if (length == literals.length) {
+            literals = Arrays.copyOf(literals, 2 * length);
+        }
+        literals[length++] = literal;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == 'G' || c == 'M' || c == '|';
+    }
+
+    /**
+     * @return the position of the first character after <code>from</code> that is not blank for {@link String#trim()}
+     */
+    private static int skipBlanks(CharSequence taste, int from, int to) {
+        int position = from;
+        while (position < to && taste.charAt(position) <= ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * @return the position after the last character before <code>to</code> that is not blank for {@link String#trim()}
+     */
+    private static int trimEnd(CharSequence taste, int from, int to) {
+        int position = to;
+        while (position > from && taste.charAt(position - 1) <= ' ') {
+            position--;
+        }
+        return position;
+    }
+}
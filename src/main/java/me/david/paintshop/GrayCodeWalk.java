@@ -0,0 +1,119 @@
+package me.david.paintshop;
+
+import java.util.Arrays;
+
+/**
+ * Exhaustive walk of the <code>2^n</code> combinations of paints in Gray-code order: from one combination
+ * to the next, a single paint flips.
+ * <p>The walk keeps the number of true literals of each clause, and the finish of each occurrence of a paint,
+ * so a flip only updates the counts of the clauses referencing the flipped paint (through the
+ * paint -&gt; clauses index), without reading the clauses again. A step costs
+ * <code>O(average occurrences)</code> instead of <code>O(k * clause length)</code>.</p>
+ * <p>The paint <code>n</code> flips every other step and the paint <code>1</code> only once, like the
+ * lowest and highest bits of a counter.</p>
+ */
+final class GrayCodeWalk {
+
+    private static final long BYTES_PER_PAINT = 1L; //the matte flags
+    private static final long BYTES_PER_CLAUSE = Integer.BYTES; //the number of true literals
+    private static final long BYTES_PER_OCCURRENCE = 1L; //the gloss flags
+
+    private final ClauseStore clauses;
+    private final int nbPaints;
+
+    private boolean[] mattes; //1-based
+    private int[] occurrenceOffsets; //1-based paint -> its first occurrence in glossOccurrences
+    private boolean[] glossOccurrences; //per occurrence of a paint: true if the clause likes it gloss
+    private int[] trueLiterals;
+    private int unsatisfied;
+    private int nbMattes;
+
+    /**
+     * @param clauses the compiled customer tastes
+     */
+    GrayCodeWalk(ClauseStore clauses) {
+        this.clauses = clauses;
+        this.nbPaints = clauses.nbPaints();
+    }
+
+    /**
+     * Walks all the combinations, starting with the all-gloss one, and calls the visitor on each one
+     * satisfying all the customer tastes.
+     *
+     * @param meter   the budget of the walk. One node is one combination
+     * @param visitor the visitor of the valid combinations
+     * @return true if all the combinations have been walked, false if the budget was exhausted before
+     */
+    boolean walk(BudgetMeter meter, Visitor visitor) {
+        this.occurrenceOffsets = new int[nbPaints + 2];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            occurrenceOffsets[paint + 1] = occurrenceOffsets[paint] + clauses.occurrenceCount(paint);
+        }
+        if (meter.reserve(BYTES_PER_PAINT * (nbPaints + 1L) + BYTES_PER_CLAUSE * clauses.size()
+                + BYTES_PER_OCCURRENCE * occurrenceOffsets[nbPaints + 1])) {
+            return false;
+        }
+        this.mattes = new boolean[nbPaints + 1];
+        this.glossOccurrences = new boolean[occurrenceOffsets[nbPaints + 1]];
+        int[] fill = Arrays.copyOf(occurrenceOffsets, nbPaints + 1);
+        this.trueLiterals = new int[clauses.size()];
+        this.unsatisfied = 0;
+        this.nbMattes = 0;
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            for (int position = 0; position < clauses.length(clause); position++) {
+                int literal = clauses.literal(clause, position);
+                boolean gloss = ClauseStore.finish(literal) == PaintFinish.G;
+                glossOccurrences[fill[ClauseStore.paint(literal)]++] = gloss; //occurrences are in clause order
+                if (gloss) {
+                    trueLiterals[clause]++;
+                }
+            }
+            if (trueLiterals[clause] == 0) {
+                unsatisfied++;
+            }
+        }
+
+        long end = nbPaints >= Long.SIZE - 1 ? Long.MAX_VALUE : 1L << nbPaints;
+        for (long step = 1; ; step++) {
+            if (meter.tick()) {
+                return false;
+            }
+            if (unsatisfied == 0) {
+                visitor.visit(mattes, nbMattes);
+            }
+            if (step == end) {
+                return true;
+            }
+            this.flip(nbPaints - Long.numberOfTrailingZeros(step));
+        }
+    }
+
+    private void flip(int paint) {
+        mattes[paint] = !mattes[paint];
+        nbMattes += mattes[paint] ? 1 : -1;
+        int first = occurrenceOffsets[paint];
+        for (int position = 0; position < occurrenceOffsets[paint + 1] - first; position++) {
+            int clause = clauses.occurrence(paint, position);
+            int before = trueLiterals[clause];
+            trueLiterals[clause] += glossOccurrences[first + position] != mattes[paint] ? 1 : -1;
+            if (before == 0) {
+                unsatisfied--;
+            } else if (trueLiterals[clause] == 0) {
+                unsatisfied++;
+            }
+        }
+    }
+
+    /**
+     * Visitor of the combinations satisfying all the customer tastes.
+     */
+    interface Visitor {
+
+        /**
+         * @param mattes   the combination: <code>mattes[i]</code> is true when the paint <code>i</code> is matte.
+         *                 It is updated by the walk, so it must be copied to be kept
+         * @param nbMattes the number of mattes of the combination
+         */
+        void visit(boolean[] mattes, int nbMattes);
+    }
+}
@@ -0,0 +1,29 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+
+import static me.david.paintshop.exceptions.PaintShopError.SOLVER_INTERRUPTED;
+
+/**
+ * Cooperative cancellation of the solvers.
+ * <p>The solver loops call {@link #checkInterrupted()}, so that a solver running in
+ * an executor stops as soon as its task is cancelled (i.e. its thread interrupted).</p>
+ */
+final class Interruptions {
+
+    /**
+     * Private constructor to avoid instantiation
+     */
+    private Interruptions() {
+    }
+
+    /**
+     * @throws PaintShopSolverRuntimeException if the interruption flag of the current thread is set
+     */
+    static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new PaintShopSolverRuntimeException(SOLVER_INTERRUPTED,
+                    String.format("Thread '%s' interrupted.", Thread.currentThread().getName()));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_CUSTOMER_WEIGHT;
+
+/**
+ * Weighted partial MaxSAT over the customer tastes: the paint batches maximising the total weight of the
+ * satisfied customers, then minimising the cost of the finishes.
+ * <p>The problem is first searched as is: when it is satisfiable, no customer is dropped. Otherwise, each
+ * customer taste is relaxed with a paint of its own, whose matte finish drops the customer. A matte
+ * relaxation paint costs the weight of its customer, scaled so that dropping any weight costs more than
+ * the most expensive finishes of the real paints. The cheapest solution of the relaxed problem found by a
+ * {@link BacktrackingSearch} is then the optimum of both objectives, in that order (linear search
+ * SAT-UNSAT: each solution found bounds the next ones).</p>
+ * <p>As the search is anytime, the best solution found so far is returned when the budget is exhausted.</p>
+ */
+final class MaxSatSearch {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MaxSatSearch.class);
+
+    private static final PaintFinish[] FINISHES = PaintFinish.values();
+
+    private final int nbPaints;
+    private final List<CustomerTaste> customerTastes;
+    private final CustomerTasteClauses clauses;
+    private final int[] weights;
+    private final PaintCostModel costModel;
+
+    /**
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @param weights        the weight of each customer, e.g. the value of its order, in the same order
+     * @param costModel      the costs of the finishes, minimised once the satisfied weight is maximised
+     * @throws PaintShopInputRuntimeException if a weight is not positive, or there is not one per customer
+     */
+    MaxSatSearch(int nbPaints, List<CustomerTaste> customerTastes, int[] weights, PaintCostModel costModel) {
+        if (weights.length != customerTastes.size()) {
+            throw new PaintShopInputRuntimeException(INVALID_CUSTOMER_WEIGHT,
+                    String.format("%d weights given for %d customers.", weights.length, customerTastes.size()));
+        }
+        for (int customer = 0; customer < weights.length; customer++) {
+            if (weights[customer] <= 0) {
+                throw new PaintShopInputRuntimeException(INVALID_CUSTOMER_WEIGHT,
+                        String.format("Weight %d of customer %d is expected to be positive.",
+                                weights[customer], customer));
+            }
+        }
+        this.nbPaints = nbPaints;
+        this.customerTastes = customerTastes;
+        this.clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+        this.weights = weights.clone();
+        this.costModel = costModel;
+    }
+
+    /**
+     * @param budget the budget of both searches
+     * @return the best solution found within the budget
+     */
+    MaxSatSolution solve(SolverBudget budget) {
+        BudgetMeter meter = budget.start();
+        long totalWeight = Arrays.stream(weights).asLongStream().sum();
+        PaintShopSolution hard = new BacktrackingSearch(clauses, BacktrackingSearch.allFinishes(nbPaints), costModel)
+                .solve(meter);
+        if (hard.status() != PaintShopSolution.Status.UNSATISFIABLE) {
+            return new MaxSatSolution(hard, new int[0], hard.paintBatches().isPresent() ? totalWeight : 0, 0);
+        }
+        LOGGER.debug("Unsatisfiable, relaxing {} customer tastes", clauses.size());
+
+        PaintShopSolution relaxed = new BacktrackingSearch(this.relaxedClauses(),
+                BacktrackingSearch.allFinishes(nbPaints + clauses.size()), this.relaxedCosts(totalWeight))
+                .solve(meter);
+        if (!relaxed.paintBatches().isPresent()) {
+            return new MaxSatSolution(relaxed, new int[0], 0, 0);
+        }
+        String finishes = relaxed.paintBatches().get().finishesRepresentation().substring(0, nbPaints);
+        int[] dropped = new int[clauses.size()];
+        int nbDropped = 0;
+        long droppedWeight = 0;
+        for (int customer = 0; customer < clauses.size(); customer++) {
+            if (!customerTastes.get(customer).likes(finishes)) {
+                dropped[nbDropped++] = customer;
+                droppedWeight += weights[customer];
+            }
+        }
+        LOGGER.info("Dropped customers: {} - weight: {} of {}", nbDropped, droppedWeight, totalWeight);
+        return new MaxSatSolution(PaintShopSolution.of(finishes, relaxed.isOptimal()),
+                Arrays.copyOf(dropped, nbDropped), totalWeight - droppedWeight, droppedWeight);
+    }
+
+    /**
+     * @return the customer tastes, each one also liking its relaxation paint matte
+     */
+    private CustomerTasteClauses relaxedClauses() {
+        int nbClauses = clauses.size();
+        int[] offsets = new int[nbClauses + 1];
+        int[] literals = new int[this.nbLiterals() + nbClauses];
+        for (int clause = 0; clause < nbClauses; clause++) {
+            int position = offsets[clause];
+            for (int option = 0; option < clauses.length(clause); option++) {
+                literals[position++] = clauses.literal(clause, option);
+            }
+            literals[position++] = ClauseStore.literal(nbPaints + 1 + clause, PaintFinish.M);
+            offsets[clause + 1] = position;
+        }
+        return new CustomerTasteClauses(nbPaints + nbClauses, offsets, literals);
+    }
+
+    private int nbLiterals() {
+        int nbLiterals = 0;
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            nbLiterals += clauses.length(clause);
+        }
+        return nbLiterals;
+    }
+
+    /**
+     * The costs of the real paints, then of the relaxation paints: their weight times a scale greater than
+     * any difference of cost between two assignments of the real paints.
+     *
+     * @throws PaintShopInputRuntimeException if the scaled weights overflow
+     */
+    private long[] relaxedCosts(long totalWeight) {
+        long[] costs = new long[FINISHES.length * (nbPaints + clauses.size() + 1)];
+        long scale = 1;
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            long gloss = costModel.cost(paint, PaintFinish.G);
+            long matte = costModel.cost(paint, PaintFinish.M);
+            costs[FINISHES.length * paint + PaintFinish.G.ordinal()] = gloss;
+            costs[FINISHES.length * paint + PaintFinish.M.ordinal()] = matte;
+            scale += Math.abs(matte - gloss);
+        }
+        try {
+            Math.multiplyExact(totalWeight, scale);
+        } catch (ArithmeticException e) {
+            throw new PaintShopInputRuntimeException(INVALID_CUSTOMER_WEIGHT,
+                    String.format("Total weight %d is too large for the costs of the finishes.", totalWeight), e);
+        }
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            costs[FINISHES.length * (nbPaints + 1 + clause) + PaintFinish.M.ordinal()] = weights[clause] * scale;
+        }
+        return costs;
+    }
+}
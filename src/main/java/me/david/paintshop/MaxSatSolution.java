@@ -0,0 +1,63 @@
+package me.david.paintshop;
+
+import java.util.Arrays;
+
+/**
+ * Result of {@link PaintShopProblem#solveMaxSat}: the paint batches satisfying the heaviest customers,
+ * and the customers that had to be dropped to get them.
+ * <p>The status of the {@link #solution()} is {@link PaintShopSolution.Status#OPTIMAL} when no other paint
+ * batches satisfy a heavier set of customers, or as heavy a set more cheaply.</p>
+ */
+public final class MaxSatSolution {
+
+    private final PaintShopSolution solution;
+    private final int[] droppedCustomers;
+    private final long satisfiedWeight;
+    private final long droppedWeight;
+
+    MaxSatSolution(PaintShopSolution solution, int[] droppedCustomers, long satisfiedWeight, long droppedWeight) {
+        this.solution = solution;
+        this.droppedCustomers = droppedCustomers;
+        this.satisfiedWeight = satisfiedWeight;
+        this.droppedWeight = droppedWeight;
+    }
+
+    /**
+     * @return the paint batches, valid for every customer but the dropped ones
+     */
+    public PaintShopSolution solution() {
+        return solution;
+    }
+
+    /**
+     * @return the 0-based indexes of the customers not satisfied by the paint batches, in increasing order
+     */
+    public int[] droppedCustomers() {
+        return droppedCustomers.clone();
+    }
+
+    /**
+     * @return the total weight of the customers satisfied by the paint batches
+     */
+    public long satisfiedWeight() {
+        return satisfiedWeight;
+    }
+
+    /**
+     * @return the total weight of the dropped customers
+     */
+    public long droppedWeight() {
+        return droppedWeight;
+    }
+
+    /**
+     * @return the paint batches, followed by the dropped customers if any, e.g. "G G M - dropped: [2]"
+     */
+    @Override
+    public String toString() {
+        if (droppedCustomers.length == 0 || !solution.paintBatches().isPresent()) {
+            return solution.toString();
+        }
+        return solution + " - dropped: " + Arrays.toString(droppedCustomers);
+    }
+}
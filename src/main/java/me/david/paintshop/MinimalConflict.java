@@ -0,0 +1,127 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Extracts a minimal set of conflicting customers from an unsatisfiable problem: removing any of them
+ * makes the others satisfiable.
+ * <p>Arc consistency (see {@link AC2001SatSolver}) records the customer taste removing each finish. When a
+ * paint is left without finish, the conflict is explained by the customer tastes removing its finishes,
+ * then recursively by the ones removing the paint references of these customer tastes: a few customers,
+ * usually, out of the whole order.</p>
+ * <p>The explanation is then shrunk by deletion: each customer of the explanation is left out in turn, and
+ * arc consistency is run again on the others. If they are still in conflict, the customer is dropped, and
+ * the explanation is replaced by the (smaller) new one. As a customer likes at most one matte, the customer
+ * tastes are Horn clauses, and arc consistency detects every conflict: the result is minimal.</p>
+ */
+final class MinimalConflict {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MinimalConflict.class);
+
+    private static final PaintFinish[] FINISHES = PaintFinish.values();
+
+    private final int nbPaints;
+    private final CustomerTasteClauses clauses;
+
+    /**
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     */
+    MinimalConflict(int nbPaints, List<CustomerTaste> customerTastes) {
+        this.nbPaints = nbPaints;
+        this.clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+    }
+
+    /**
+     * @return the 0-based indexes of a minimal set of conflicting customers, in increasing order,
+     * or an empty array if the problem is satisfiable
+     */
+    int[] customers() {
+        int[] all = new int[clauses.size()];
+        Arrays.setAll(all, customer -> customer);
+        int[] conflict = this.explain(all);
+        if (conflict == null) {
+            return new int[0];
+        }
+        LOGGER.debug("Explanation: {} customers of {}", conflict.length, all.length);
+        int necessary = 0; //the first customers of the conflict, left out one by one without success
+        while (necessary < conflict.length) {
+            int[] candidate = new int[conflict.length - 1];
+            System.arraycopy(conflict, 0, candidate, 0, necessary);
+            System.arraycopy(conflict, necessary + 1, candidate, necessary, conflict.length - necessary - 1);
+            int[] smaller = this.explain(candidate);
+            if (smaller == null) {
+                necessary++;
+            } else {
+                conflict = smaller; //still starts with the necessary customers, in every conflict within
+            }
+        }
+        LOGGER.info("Minimal conflict: {} customers of {}", conflict.length, all.length);
+        Arrays.sort(conflict);
+        return conflict;
+    }
+
+    /**
+     * Runs arc consistency on some of the customer tastes.
+     *
+     * @param customers the 0-based indexes of the customers
+     * @return the customers explaining the conflict, in the same order, or <code>null</code> if there is none
+     */
+    private int[] explain(int[] customers) {
+        int[] offsets = new int[customers.length + 1];
+        for (int clause = 0; clause < customers.length; clause++) {
+            offsets[clause + 1] = offsets[clause] + clauses.length(customers[clause]);
+        }
+        int[] literals = new int[offsets[customers.length]];
+        for (int clause = 0; clause < customers.length; clause++) {
+            for (int position = 0; position < clauses.length(customers[clause]); position++) {
+                literals[offsets[clause] + position] = clauses.literal(customers[clause], position);
+            }
+        }
+        CustomerTasteClauses subset = new CustomerTasteClauses(nbPaints, offsets, literals);
+
+        byte[] domains = new byte[nbPaints + 1];
+        Arrays.fill(domains, (byte) ((1 << FINISHES.length) - 1));
+        int[] reasons = new int[FINISHES.length * (nbPaints + 1)];
+        if (new AC2001SatSolver(subset).ac2001(domains, SolverBudget.unlimited().start(), reasons)) {
+            return null;
+        }
+
+        boolean[] inConflict = new boolean[customers.length];
+        boolean[] explained = new boolean[FINISHES.length * (nbPaints + 1)];
+        Deque<Integer> removals = new ArrayDeque<>();
+        for (PaintFinish finish : FINISHES) {
+            removals.push(FINISHES.length * reasons[0] + finish.ordinal());
+        }
+        while (!removals.isEmpty()) {
+            int removal = removals.pop();
+            if (explained[removal]) {
+                continue;
+            }
+            explained[removal] = true;
+            int clause = reasons[removal];
+            inConflict[clause] = true;
+            int paint = removal / FINISHES.length;
+            for (int position = 0; position < subset.length(clause); position++) {
+                int literal = subset.literal(clause, position);
+                if (ClauseStore.paint(literal) != paint) {
+                    removals.push(FINISHES.length * ClauseStore.paint(literal) + ClauseStore.finish(literal).ordinal());
+                }
+            }
+        }
+
+        int size = 0;
+        int[] result = new int[customers.length];
+        for (int clause = 0; clause < customers.length; clause++) {
+            if (inConflict[clause]) {
+                result[size++] = customers[clause];
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
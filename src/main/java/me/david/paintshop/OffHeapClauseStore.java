@@ -0,0 +1,264 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.*;
+import static me.david.paintshop.exceptions.PaintShopError.CLAUSE_STORE_UNAVAILABLE;
+
+/**
+ * Same representation of the clauses as {@link CustomerTasteClauses}, but outside of the heap, so that the
+ * size of a problem is only bounded by the memory of the machine, or by the disk:
+ * <ul>
+ * <li>{@link #direct()} stores the clauses in direct {@link ByteBuffer}s,</li>
+ * <li>{@link #mapped(Path)} stores them in memory-mapped temporary files, paged in and out by the OS.</li>
+ * </ul>
+ * <p>The literals, the clause offsets and the paint -&gt; clauses index are packed in chunks of fixed size,
+ * so that the heap only holds a few objects per chunk, whatever the size of the problem: the GC has nothing
+ * to scan or to move.</p>
+ * <p>The store is filled once by its {@link Builder}, then read-only.</p>
+ */
+final class OffHeapClauseStore implements ClauseStore, Closeable {
+
+    /**
+     * Small direct chunks, so that a small problem does not take much native memory
+     */
+    static final int DIRECT_CHUNK_BYTES = 1 << 22;
+    /**
+     * Large mapped chunks, only paged in when used
+     */
+    static final int MAPPED_CHUNK_BYTES = 1 << 27;
+
+    private final int nbPaints;
+    private final int size;
+    private final Chunks offsets;
+    private final Chunks literals;
+    private final Chunks occurrenceOffsets;
+    private final Chunks occurrences;
+
+    private OffHeapClauseStore(int nbPaints, int size, Chunks offsets, Chunks literals,
+                               Chunks occurrenceOffsets, Chunks occurrences) {
+        this.nbPaints = nbPaints;
+        this.size = size;
+        this.offsets = offsets;
+        this.literals = literals;
+        this.occurrenceOffsets = occurrenceOffsets;
+        this.occurrences = occurrences;
+    }
+
+    /**
+     * @return a builder of a store in direct buffers
+     */
+    static Builder direct() {
+        return new Builder(null, DIRECT_CHUNK_BYTES);
+    }
+
+    /**
+     * @param directory the directory of the temporary files, deleted when the store is closed
+     * @return a builder of a store in memory-mapped files
+     */
+    static Builder mapped(Path directory) {
+        return new Builder(directory, MAPPED_CHUNK_BYTES);
+    }
+
+    @Override
+    public int nbPaints() {
+        return nbPaints;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int length(int clause) {
+        return (int) (offsets.getLong(clause + 1L) - offsets.getLong(clause));
+    }
+
+    @Override
+    public int literal(int clause, int position) {
+        return literals.getInt(offsets.getLong(clause) + position);
+    }
+
+    @Override
+    public int occurrenceCount(int paint) {
+        return (int) (occurrenceOffsets.getLong(paint + 1L) - occurrenceOffsets.getLong(paint));
+    }
+
+    @Override
+    public int occurrence(int paint, int position) {
+        return occurrences.getInt(occurrenceOffsets.getLong(paint) + position);
+    }
+
+    /**
+     * Closes the temporary files, if any. The buffers themselves are released by the GC.
+     */
+    @Override
+    public void close() throws IOException {
+        offsets.close();
+        literals.close();
+        occurrenceOffsets.close();
+        occurrences.close();
+    }
+
+    /**
+     * Appends the clauses one after the other, then builds the paint -&gt; clauses index.
+     * <p>Closing the builder closes the temporary files of the clauses added so far, e.g. on a parsing error.</p>
+     */
+    static final class Builder implements Closeable {
+        private final Path directory;
+        private final int chunkBytes;
+        private final Chunks offsets;
+        private final Chunks literals;
+        private int size;
+        private long nbLiterals;
+
+        Builder(Path directory, int chunkBytes) {
+            this.directory = directory;
+            this.chunkBytes = chunkBytes;
+            this.offsets = new Chunks(directory, chunkBytes);
+            this.literals = new Chunks(directory, chunkBytes);
+            this.offsets.putLong(0, 0L);
+        }
+
+        /**
+         * Appends a clause. The literals are sorted by paint index, as {@link CustomerTasteClauses#compile} does.
+         *
+         * @param clauseLiterals buffer of literals, e.g. from a {@link CustomerTasteParser}
+         * @param length         the number of literals of the clause in the buffer
+         * @return this builder
+         */
+        Builder add(int[] clauseLiterals, int length) {
+            if (size == Integer.MAX_VALUE - 1) {
+                throw new IllegalStateException("Too many clauses");
+            }
+            long start = nbLiterals;
+            for (int i = 0; i < length; i++) {
+                int literal = clauseLiterals[i];
+                long position = start + i;
+                while (position > start && ClauseStore.paint(literals.getInt(position - 1)) > ClauseStore.paint(literal)) {
+                    literals.putInt(position, literals.getInt(position - 1));
+                    position--;
+                }
+                literals.putInt(position, literal);
+            }
+            nbLiterals += length;
+            offsets.putLong(++size, nbLiterals);
+            return this;
+        }
+
+        /**
+         * @param nbPaints the number of paints
+         * @return the store of the clauses added so far
+         */
+        OffHeapClauseStore build(int nbPaints) {
+            //paint -> clauses index: count, prefix sum, then fill
+            Chunks occurrenceOffsets = new Chunks(directory, chunkBytes);
+            for (int paint = 0; paint <= nbPaints + 1; paint++) {
+                occurrenceOffsets.putLong(paint, 0L);
+            }
+            for (long position = 0; position < nbLiterals; position++) {
+                long index = ClauseStore.paint(literals.getInt(position)) + 1L;
+                occurrenceOffsets.putLong(index, occurrenceOffsets.getLong(index) + 1);
+            }
+            for (int paint = 1; paint <= nbPaints + 1; paint++) {
+                occurrenceOffsets.putLong(paint, occurrenceOffsets.getLong(paint) + occurrenceOffsets.getLong(paint - 1));
+            }
+            long[] fill = new long[nbPaints + 1];
+            for (int paint = 0; paint <= nbPaints; paint++) {
+                fill[paint] = occurrenceOffsets.getLong(paint);
+            }
+            Chunks occurrences = new Chunks(directory, chunkBytes);
+            for (int clause = 0; clause < size; clause++) {
+                for (long position = offsets.getLong(clause); position < offsets.getLong(clause + 1L); position++) {
+                    occurrences.putInt(fill[ClauseStore.paint(literals.getInt(position))]++, clause);
+                }
+            }
+            return new OffHeapClauseStore(nbPaints, size, offsets, literals, occurrenceOffsets, occurrences);
+        }
+
+        @Override
+        public void close() throws IOException {
+            offsets.close();
+            literals.close();
+        }
+    }
+
+    /**
+     * A growable array of ints or longs, in chunks of direct or memory-mapped buffers (in native byte order).
+     * A value never spans two chunks, as the chunk size is a multiple of 8.
+     */
+    private static final class Chunks implements Closeable {
+        private final Path directory;
+        private final int chunkBytes;
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private FileChannel channel;
+
+        Chunks(Path directory, int chunkBytes) {
+            this.directory = directory;
+            this.chunkBytes = chunkBytes;
+        }
+
+        int getInt(long index) {
+            long offset = index * Integer.BYTES;
+            return chunks.get((int) (offset / chunkBytes)).getInt((int) (offset % chunkBytes));
+        }
+
+        void putInt(long index, int value) {
+            long offset = index * Integer.BYTES;
+            this.chunk(offset).putInt((int) (offset % chunkBytes), value);
+        }
+
+        long getLong(long index) {
+            long offset = index * Long.BYTES;
+            return chunks.get((int) (offset / chunkBytes)).getLong((int) (offset % chunkBytes));
+        }
+
+        void putLong(long index, long value) {
+            long offset = index * Long.BYTES;
+            this.chunk(offset).putLong((int) (offset % chunkBytes), value);
+        }
+
+        private ByteBuffer chunk(long offset) {
+            int chunk = (int) (offset / chunkBytes);
+            while (chunks.size() <= chunk) {
+                chunks.add(this.allocate().order(ByteOrder.nativeOrder()));
+            }
+            return chunks.get(chunk);
+        }
+
+        private ByteBuffer allocate() {
+            if (directory == null) {
+                return ByteBuffer.allocateDirect(chunkBytes);
+            }
+            try {
+                if (channel == null) {
+                    Path file = Files.createTempFile(directory, "paintshop-clauses", ".bin");
+                    channel = FileChannel.open(file, READ, WRITE, DELETE_ON_CLOSE);
+                }
+                return channel.map(FileChannel.MapMode.READ_WRITE, (long) chunks.size() * chunkBytes, chunkBytes);
+            } catch (IOException exception) {
+                throw new PaintShopSolverRuntimeException(CLAUSE_STORE_UNAVAILABLE,
+                        String.format("Check that the directory '%s' is writable and has enough space.", directory),
+                        exception);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package me.david.paintshop;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class manages String representation of a paint batches solution.
@@ -17,27 +18,66 @@ public class PaintBatches {
         this.finishesRepresentation = finishesRepresentation;
     }
 
+    /**
+     * @return the short representation of the paint batches, e.g. 'GGM'
+     */
+    String finishesRepresentation() {
+        return finishesRepresentation;
+    }
+
+    /**
+     * @return the finish of each paint, the first paint first
+     */
+    public List<PaintFinish> finishes() {
+        List<PaintFinish> finishes = new ArrayList<>(this.finishesRepresentation.length());
+        for (char finish : this.finishesRepresentation.toCharArray()) {
+            if (finish != ' ') {
+                finishes.add(finish(finish));
+            }
+        }
+        return finishes;
+    }
+
     /**
      * @return a cost for the paint batches
      */
     public int cost() {
-        return Arrays
-                .stream(this.finishesRepresentation.split(""))
-                .filter(s -> !" ".equals(s))
-                .map(PaintFinish::valueOf)
-                .mapToInt(PaintFinish::cost)
-                .sum();
+        int cost = 0;
+        for (int i = 0; i < this.finishesRepresentation.length(); i++) {
+            char finish = this.finishesRepresentation.charAt(i);
+            if (finish != ' ') {
+                cost += finish(finish).cost();
+            }
+        }
+        return cost;
+    }
+
+    private static PaintFinish finish(char finish) {
+        for (PaintFinish value : PaintFinish.values()) {
+            if (value.matches(finish)) {
+                return value;
+            }
+        }
+        return PaintFinish.valueOf(String.valueOf(finish)); //throws the IllegalArgumentException
     }
 
     /**
      * Returns the paint combination formatted as expected.
      * <br>E.g. 'GGGGM' -&gt; 'G G G G M'
+     * <p>For a large number of paints, prefer a {@link PaintBatchesWriter}, which does not build the String.</p>
      *
      * @return the combination in the expected format
      */
     @Override
     public String toString() {
-        return String.join(" ",
-                this.finishesRepresentation.split(""));
+        int length = this.finishesRepresentation.length();
+        StringBuilder result = new StringBuilder(Math.max(2 * length - 1, 0));
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                result.append(' ');
+            }
+            result.append(this.finishesRepresentation.charAt(i));
+        }
+        return result.toString();
     }
 }
@@ -0,0 +1,158 @@
+package me.david.paintshop;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes solutions to a byte channel through a fixed size buffer, straight from the finishes of the
+ * {@link PaintBatches}: no formatted String is built, whatever the number of paints.
+ * <p>Several solutions can be written through the same writer, one per line with {@link #writeLine},
+ * e.g. for a batch of problems.</p>
+ * <p>Thread-safe: the solutions written by several threads are not interleaved.
+ * The channel is only closed by {@link #close()}.</p>
+ */
+public final class PaintBatchesWriter implements Flushable, Closeable {
+
+    /**
+     * The format of the paint batches
+     */
+    public enum Format {
+        /**
+         * The expected output, one space between two paints, e.g. 'G G M'. See {@link PaintBatches#toString()}
+         */
+        SPACED,
+        /**
+         * One character per paint, e.g. 'GGM'
+         */
+        COMPACT
+    }
+
+    private static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+    private static final byte SPACE = ' ';
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * @param channel the channel written to
+     */
+    public PaintBatchesWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * @param channel     the channel written to
+     * @param bufferBytes the size of the buffer
+     */
+    public PaintBatchesWriter(WritableByteChannel channel, int bufferBytes) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferBytes);
+    }
+
+    /**
+     * @param outputStream the stream written to, e.g. <code>System.out</code>
+     * @return a writer to the stream
+     */
+    public static PaintBatchesWriter of(OutputStream outputStream) {
+        return new PaintBatchesWriter(Channels.newChannel(outputStream));
+    }
+
+    /**
+     * Writes the paint batches of the solution, or the same message as {@link PaintShopSolution#toString()}.
+     *
+     * @param solution the solution
+     * @param format   the format of the paint batches
+     * @throws IOException if the channel cannot be written
+     */
+    public synchronized void write(PaintShopSolution solution, Format format) throws IOException {
+        if (solution.paintBatches().isPresent()) {
+            this.write(solution.paintBatches().get(), format);
+        } else {
+            this.put(solution.toString().getBytes(StandardCharsets.US_ASCII)); //a short message
+        }
+    }
+
+    /**
+     * @param paintBatches the paint batches
+     * @param format       the format of the paint batches
+     * @throws IOException if the channel cannot be written
+     */
+    public synchronized void write(PaintBatches paintBatches, Format format) throws IOException {
+        String finishes = paintBatches.finishesRepresentation();
+        for (int paint = 0; paint < finishes.length(); paint++) {
+            if (format == Format.SPACED && paint > 0) {
+                this.put(SPACE);
+            }
+            this.put((byte) finishes.charAt(paint));
+        }
+    }
+
+    /**
+     * Writes the solution followed by a line separator.
+     *
+     * @param solution the solution
+     * @param format   the format of the paint batches
+     * @throws IOException if the channel cannot be written
+     */
+    public synchronized void writeLine(PaintShopSolution solution, Format format) throws IOException {
+        this.write(solution, format);
+        this.put(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes an empty line, e.g. for a problem of a batch that could not be solved.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    public synchronized void writeLine() throws IOException {
+        this.put(LINE_SEPARATOR);
+    }
+
+    /**
+     * Writes the content of the buffer to the channel.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Flushes the buffer and closes the channel.
+     *
+     * @throws IOException if the channel cannot be written or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void put(byte value) throws IOException {
+        if (!buffer.hasRemaining()) {
+            this.flush();
+        }
+        buffer.put(value);
+    }
+
+    private void put(byte[] values) throws IOException {
+        for (byte value : values) {
+            this.put(value);
+        }
+    }
+}
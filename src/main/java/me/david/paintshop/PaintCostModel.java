@@ -0,0 +1,46 @@
+package me.david.paintshop;
+
+import java.util.List;
+
+/**
+ * Cost of a finish of a paint, e.g. for "what if matte costs X" pricing scenarios.
+ * <p>The costs may differ from one paint to another, and need not favour gloss. Only the differences
+ * between the finishes of a paint matter to the cheapest solution.</p>
+ */
+@FunctionalInterface
+public interface PaintCostModel {
+
+    /**
+     * The default costs: {@link PaintFinish#cost()}, gloss is cheaper than matte
+     */
+    PaintCostModel DEFAULT = (paint, finish) -> finish.cost();
+
+    /**
+     * @param paint  1-based paint index
+     * @param finish the finish of the paint
+     * @return the cost of the finish for the paint
+     */
+    int cost(int paint, PaintFinish finish);
+
+    /**
+     * @param glossCost cost of a gloss batch, whatever the paint
+     * @param matteCost cost of a matte batch, whatever the paint
+     * @return the cost model
+     */
+    static PaintCostModel of(int glossCost, int matteCost) {
+        return (paint, finish) -> finish == PaintFinish.G ? glossCost : matteCost;
+    }
+
+    /**
+     * @param paintBatches paint batches, e.g. of a solution
+     * @return the total cost of the paint batches
+     */
+    default long cost(PaintBatches paintBatches) {
+        List<PaintFinish> finishes = paintBatches.finishes();
+        long cost = 0;
+        for (int paint = 1; paint <= finishes.size(); paint++) {
+            cost += this.cost(paint, finishes.get(paint - 1));
+        }
+        return cost;
+    }
+}
@@ -37,7 +37,7 @@ public enum PaintFinish {
      * @return true if it matches, else false
      */
     public boolean matches(char c) {
-        return this.name().equals(String.valueOf(c));
+        return this.name().length() == 1 && this.name().charAt(0) == c;
     }
 
     public abstract PaintFinish opposite();
@@ -5,6 +5,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is the main class for the me.david.paintshop.PaintShop programming challenge solution.
@@ -22,30 +32,336 @@ public class PaintShop {
     }
 
 
+    /**
+     * Command line option used to choose the solver, e.g. <code>--solver=ac3</code>.
+     * Overrides the {@value PaintShopProblem#SOLVER_PROPERTY} system property.
+     */
+    static final String SOLVER_OPTION = "--solver=";
+
+    /**
+     * Command line option used to limit the solving time, in milliseconds, e.g. <code>--time-limit=500</code>.
+     * The best solution found within the time limit is printed, even if it is not proven to be the cheapest.
+     */
+    static final String TIME_LIMIT_OPTION = "--time-limit=";
+
+    /**
+     * Command line option used to skip the invalid customer tastes instead of failing,
+     * see {@link PaintShopProblem#lenient()}. The invalid lines are reported to standard error.
+     */
+    static final String LENIENT_OPTION = "--lenient";
+
+    /**
+     * Command line option used to print the paint batches without spaces, e.g. 'GGM' instead of 'G G M'.
+     */
+    static final String COMPACT_OPTION = "--compact";
+
+    /**
+     * Command line option used to report a minimal set of conflicting customers to standard error when there
+     * is no solution, see {@link PaintShopProblem#conflictingCustomers()}.
+     */
+    static final String EXPLAIN_OPTION = "--explain";
+
+    /**
+     * Command line option used to run a {@link PaintShopWorker} on a loopback port, e.g. <code>--worker=7001</code>,
+     * until the JVM is stopped. No file is expected.
+     */
+    static final String WORKER_OPTION = "--worker=";
+
+    /**
+     * Command line option used to solve the problems on workers, with a {@link PaintShopCoordinator},
+     * e.g. <code>--workers=localhost:7001,localhost:7002</code>.
+     */
+    static final String WORKERS_OPTION = "--workers=";
+
+    /**
+     * Command line option used to save the progress of the search to a file, and to resume from it,
+     * e.g. <code>--checkpoint=order.ckpt</code>. See {@link PaintShopProblem#solve(SolverBudget, Path)}.
+     */
+    static final String CHECKPOINT_OPTION = "--checkpoint=";
+
+    /**
+     * Command line option used to reuse the solutions of the components solved in previous runs, stored in a
+     * file updated at the end of the run, e.g. <code>--component-cache=components.bin</code>.
+     * See {@link ComponentSolutionCache}.
+     */
+    static final String COMPONENT_CACHE_OPTION = "--component-cache=";
+    private static final int COMPONENT_CACHE_CAPACITY = 100_000;
+
+    /**
+     * Command line option used to start the search from the solution of a previous run, e.g.
+     * <code>--hint=previous-out.txt</code>: the first line of the file, as printed by the program.
+     * See {@link PaintShopProblem#solve(SolverBudget, PaintBatches)}.
+     */
+    static final String HINT_OPTION = "--hint=";
+
+    /**
+     * File name used to read the problem definition from standard input, e.g. from a pipe, with a
+     * {@link StreamingPaintShopProblem}: the customer tastes are propagated as they arrive, and a conflict
+     * is reported without waiting for the end of the input.
+     */
+    static final String STANDARD_INPUT = "-";
+
+
     /**
      * This is the main method used to launch the program.
-     * <p>The program accepts an input file as a command line argument, and prints a result to standard out.</p>
-     * <p>Usage: <code>java -jar file-in.txt</code></p>
+     * <p>The program accepts an input file as a command line argument, and prints a result to standard out.
+     * Given several input files, it prints one result per line, in the order of the files (batch mode).</p>
+     * <p>Usage: <code>java -jar [--solver=&lt;name&gt;] [--time-limit=&lt;ms&gt;] [--lenient] [--compact]
+     * [--explain] [--workers=&lt;host:port,...&gt;] [--checkpoint=&lt;file&gt;] [--component-cache=&lt;file&gt;]
+     * [--hint=&lt;file&gt;] file-in.txt...</code>, with <code>-</code> as the file name to stream the problem
+     * definition from standard input, or <code>java -jar --worker=&lt;port&gt;</code> to run a worker.</p>
+     * <p>The options <code>--checkpoint</code>, <code>--workers</code>, <code>--component-cache</code> and
+     * <code>--hint</code> each select a different search: at most one of them is accepted. The checkpointed
+     * search replays its decisions in the order of its own solver, so <code>--checkpoint</code> is only
+     * accepted with the default solver. The standard input <code>-</code> is streamed to its own search:
+     * it only accepts <code>--time-limit</code> and <code>--compact</code>. Any other combination is rejected
+     * as invalid arguments, never silently ignored.</p>
      *
-     * @param args list of arguments. The program expect only one argument: a valid input file with number of paints
+     * @param args list of arguments. The program expects valid input files with number of paints
      *             and list of customer tastes (See definition of the problem in file README.md.
+     *             They can be preceded by the <code>--solver=&lt;name&gt;</code>,
+     *             <code>--time-limit=&lt;ms&gt;</code>, <code>--lenient</code>, <code>--compact</code>,
+     *             <code>--explain</code>, <code>--workers=&lt;host:port,...&gt;</code>,
+     *             <code>--checkpoint=&lt;file&gt;</code>, <code>--component-cache=&lt;file&gt;</code> and
+     *             <code>--hint=&lt;file&gt;</code> options.
      */
     public static void main(String[] args) {
-        if (args == null || args.length == 0 || args.length > 1) {
+        List<String> fileNames = new ArrayList<>();
+        Options options = new Options();
+        options.solverName = System.getProperty(PaintShopProblem.SOLVER_PROPERTY, PaintShopSolvers.AUTO);
+        Path componentCacheFile = null;
+        Path hintFile = null;
+        PaintBatchesWriter.Format format = PaintBatchesWriter.Format.SPACED;
+        for (String arg : args == null ? new String[0] : args) {
+            if (arg.startsWith(SOLVER_OPTION)) {
+                options.solverName = arg.substring(SOLVER_OPTION.length());
+            } else if (arg.startsWith(TIME_LIMIT_OPTION)) {
+                String timeLimit = arg.substring(TIME_LIMIT_OPTION.length());
+                if (!timeLimit.matches("\\d{1,18}")) {
+                    invalidArgs("Invalid time limit '" + timeLimit + "': expected a number of milliseconds.");
+                    return;
+                }
+                options.budget = options.budget.withTimeLimit(Long.parseLong(timeLimit), TimeUnit.MILLISECONDS);
+            } else if (LENIENT_OPTION.equals(arg)) {
+                options.lenient = true;
+            } else if (COMPACT_OPTION.equals(arg)) {
+                format = PaintBatchesWriter.Format.COMPACT;
+            } else if (EXPLAIN_OPTION.equals(arg)) {
+                options.explain = true;
+            } else if (arg.startsWith(WORKER_OPTION)) {
+                String port = arg.substring(WORKER_OPTION.length());
+                if (!isPort(port)) {
+                    invalidArgs("Invalid worker port '" + port + "': expected a number from 0 to 65535.");
+                    return;
+                }
+                runWorker(Integer.parseInt(port));
+                return;
+            } else if (arg.startsWith(WORKERS_OPTION)) {
+                List<InetSocketAddress> workers = workers(arg.substring(WORKERS_OPTION.length()));
+                if (workers == null) {
+                    invalidArgs("Invalid workers '" + arg.substring(WORKERS_OPTION.length())
+                            + "': expected host:port entries separated by commas, with a port from 1 to 65535.");
+                    return;
+                }
+                options.coordinator = new PaintShopCoordinator(workers);
+            } else if (arg.startsWith(CHECKPOINT_OPTION)) {
+                options.checkpoint = Paths.get(arg.substring(CHECKPOINT_OPTION.length()));
+            } else if (arg.startsWith(COMPONENT_CACHE_OPTION)) {
+                componentCacheFile = Paths.get(arg.substring(COMPONENT_CACHE_OPTION.length()));
+            } else if (arg.startsWith(HINT_OPTION)) {
+                hintFile = Paths.get(arg.substring(HINT_OPTION.length()));
+            } else {
+                fileNames.add(arg);
+            }
+        }
+        if (fileNames.isEmpty()) {
             PaintShopError error = PaintShopError.COMMAND_LINE_INVALID_ARGS;
             System.err.println(error.getDescription());
             return;
         }
+        if (!PaintShopSolvers.getInstance().isKnown(options.solverName)) {
+            PaintShopError error = PaintShopError.UNKNOWN_SOLVER;
+            System.err.println(error.getDescription() + " Available solvers: "
+                    + PaintShopSolvers.getInstance().names() + ".");
+            return;
+        }
+        String incompatibility = incompatibility(options, componentCacheFile, hintFile, fileNames);
+        if (incompatibility != null) {
+            invalidArgs(incompatibility);
+            return;
+        }
 
-        String fileName = args[0];
-        final String solution;
+        options.batch = fileNames.size() > 1;
+        PaintBatchesWriter writer = PaintBatchesWriter.of(System.out);
         try {
-            solution = new PaintShopProblem(fileName)
-                    .solution();
-            System.out.print(solution);
+            if (componentCacheFile != null) {
+                options.componentCache = ComponentSolutionCache.load(componentCacheFile, COMPONENT_CACHE_CAPACITY);
+            }
+            if (hintFile != null) {
+                options.hint = hint(hintFile);
+            }
+            for (String fileName : fileNames) {
+                PaintShopSolution solution = solve(fileName, options);
+                if (options.batch && solution == null) {
+                    writer.writeLine();
+                } else if (options.batch) {
+                    writer.writeLine(solution, format);
+                } else if (solution != null) {
+                    writer.write(solution, format);
+                }
+            }
+            writer.flush();
+            if (componentCacheFile != null) {
+                options.componentCache.save(componentCacheFile);
+            }
+        } catch (IOException exception) {
+            LOGGER.error("Error writing the solutions: {}", exception.getMessage());
+            System.err.print(exception.getMessage());
+        }
+    }
+
+    /**
+     * The options of the command line, shared by the problems of a batch
+     */
+    private static final class Options {
+        private String solverName;
+        private SolverBudget budget = SolverBudget.unlimited();
+        private boolean lenient;
+        private boolean explain;
+        private boolean batch;
+        private PaintShopCoordinator coordinator;
+        private Path checkpoint;
+        private ComponentSolutionCache componentCache;
+        private PaintBatches hint;
+    }
+
+    /**
+     * @param file a solution printed by the program, e.g. 'G G M' or 'GGM'
+     * @return the paint batches of its first line, or <code>null</code> if it is not a solution, e.g.
+     * 'No solution exists'
+     * @throws IOException if the file cannot be read
+     */
+    private static PaintBatches hint(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        PaintBatches hint = new PaintBatches(lines.isEmpty() ? "" : lines.get(0).trim());
+        try {
+            hint.finishes();
+            return hint;
+        } catch (IllegalArgumentException exception) {
+            LOGGER.warn("The hint '{}' is not a solution, ignored", lines.get(0));
+            return null;
+        }
+    }
+
+    /**
+     * @return why the options cannot be combined, or <code>null</code> if they can
+     */
+    private static String incompatibility(Options options, Path componentCacheFile, Path hintFile,
+                                          List<String> fileNames) {
+        int nbSearches = (options.checkpoint == null ? 0 : 1) + (options.coordinator == null ? 0 : 1)
+                + (componentCacheFile == null ? 0 : 1) + (hintFile == null ? 0 : 1);
+        if (nbSearches > 1) {
+            return "The options " + CHECKPOINT_OPTION + ", " + WORKERS_OPTION + ", " + COMPONENT_CACHE_OPTION
+                    + " and " + HINT_OPTION + " cannot be combined.";
+        }
+        if (options.checkpoint != null && !PaintShopSolvers.AUTO.equals(options.solverName)) {
+            return "The option " + CHECKPOINT_OPTION + " runs its own search: it cannot be combined with the solver '"
+                    + options.solverName + "'.";
+        }
+        boolean streamed = fileNames.contains(STANDARD_INPUT);
+        if (streamed && (nbSearches > 0 || options.lenient || options.explain
+                || !PaintShopSolvers.AUTO.equals(options.solverName))) {
+            return "The standard input '" + STANDARD_INPUT + "' is streamed to its own search: it cannot be combined"
+                    + " with the options " + SOLVER_OPTION + ", " + LENIENT_OPTION + ", " + EXPLAIN_OPTION + ", "
+                    + CHECKPOINT_OPTION + ", " + WORKERS_OPTION + ", " + COMPONENT_CACHE_OPTION + " and "
+                    + HINT_OPTION + ".";
+        }
+        return null;
+    }
+
+    /**
+     * Reports an invalid command line to standard error.
+     *
+     * @param advice what is wrong with the command line
+     */
+    private static void invalidArgs(String advice) {
+        PaintShopError error = PaintShopError.COMMAND_LINE_INVALID_ARGS;
+        System.err.println(error.getDescription() + " " + advice);
+    }
+
+    /**
+     * @return true if the value is a port number, from 0 to 65535
+     */
+    private static boolean isPort(String value) {
+        return value.matches("\\d{1,5}") && Integer.parseInt(value) <= 65535;
+    }
+
+    /**
+     * @param workers the addresses of the workers, e.g. "localhost:7001,localhost:7002"
+     * @return the addresses, or <code>null</code> if an address is not a host and a port from 1 to 65535
+     */
+    private static List<InetSocketAddress> workers(String workers) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String worker : workers.split(",", -1)) {
+            int colon = worker.lastIndexOf(':');
+            String host = colon < 0 ? "" : worker.substring(0, colon).trim();
+            String port = worker.substring(colon + 1).trim();
+            if (host.isEmpty() || !isPort(port) || Integer.parseInt(port) == 0) {
+                return null;
+            }
+            addresses.add(new InetSocketAddress(host, Integer.parseInt(port)));
+        }
+        return addresses;
+    }
+
+    private static void runWorker(int port) {
+        try (PaintShopWorker worker = PaintShopWorker.start(port)) {
+            System.err.println("Worker listening on port " + worker.port());
+            worker.join();
+        } catch (IOException exception) {
+            LOGGER.error("Error starting the worker: {}", exception.getMessage());
+            System.err.print(exception.getMessage());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the solution, or <code>null</code> if the file does not exist (reported to standard error)
+     */
+    private static PaintShopSolution solve(String fileName, Options options) {
+        if (STANDARD_INPUT.equals(fileName)) {
+            return StreamingPaintShopProblem.solve(new InputStreamReader(System.in, StandardCharsets.UTF_8),
+                    options.budget);
+        }
+        try {
+            PaintShopProblem problem = new PaintShopProblem(fileName, options.solverName);
+            if (options.lenient) {
+                problem = problem.lenient();
+                if (!problem.diagnostics().isEmpty()) {
+                    System.err.println(problem.diagnostics());
+                }
+            }
+            PaintShopSolution solution;
+            if (options.checkpoint != null) {
+                solution = problem.solve(options.budget, options.checkpoint);
+            } else if (options.coordinator != null) {
+                solution = problem.solve(options.coordinator, options.budget);
+            } else if (options.componentCache != null) {
+                solution = problem.solve(options.componentCache, options.budget);
+            } else {
+                solution = problem.solve(options.budget, options.hint);
+            }
+            if (solution.status() == PaintShopSolution.Status.FEASIBLE) {
+                LOGGER.warn("Time limit reached, the solution is not proven to be the cheapest");
+            } else if (options.explain && solution.status() == PaintShopSolution.Status.UNSATISFIABLE) {
+                System.err.println("Conflicting customers: " + problem.conflictingCustomers());
+            }
+            return solution;
         } catch (FileNotFoundException exception) {
             LOGGER.error("Error running the PaintShop program: ", exception.getMessage());
-            System.err.print(exception.getMessage());
+            System.err.print(options.batch ? exception.getMessage() + System.lineSeparator() : exception.getMessage());
+            return null;
         }
     }
 }
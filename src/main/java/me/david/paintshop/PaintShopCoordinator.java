@@ -0,0 +1,293 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static me.david.paintshop.exceptions.PaintShopError.SOLVER_INTERRUPTED;
+import static me.david.paintshop.exceptions.PaintShopError.WORKER_UNAVAILABLE;
+
+/**
+ * Solves a problem too big for one JVM on several {@link PaintShopWorker}s, over sockets.
+ * <p>The paints are split into {@link Components}, which are grouped into a few shards per worker, balanced
+ * by number of paint references. Each shard is renumbered from 1 and sent to a worker (see
+ * {@link ShardProtocol}), solved there by any {@link PaintShopSolver}, and the solutions of the shards are
+ * merged: as the components are independent, the cheapest solution is made of the cheapest solution of
+ * each shard. The paints referenced by no customer are gloss, they are not sent.</p>
+ * <p>Each worker has a connection of its own, and takes the next pending shard as soon as it has answered.
+ * When a worker dies, its shard goes back to the pending ones, to be solved by another worker, up to
+ * {@value #MAX_ATTEMPTS} times. When a worker answers with an error instead, e.g. an unknown solver, the
+ * error is thrown again by the coordinator: another worker would fail the same way.</p>
+ * <p>Thread-safe: each solve uses connections of its own.</p>
+ */
+public final class PaintShopCoordinator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaintShopCoordinator.class);
+
+    static final int SHARDS_PER_WORKER = 4;
+    static final int MAX_ATTEMPTS = 3;
+    private static final long POLL_MS = 50L;
+
+    private final List<InetSocketAddress> workers;
+
+    /**
+     * @param workers the addresses of the workers, e.g. <code>localhost:7001</code>
+     */
+    public PaintShopCoordinator(List<InetSocketAddress> workers) {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("At least one worker is expected.");
+        }
+        this.workers = new ArrayList<>(workers);
+    }
+
+    /**
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @param solverName     the solver of the workers, in {@link PaintShopSolvers}
+     * @param budget         the budget of each shard
+     * @return the merged solution, {@link PaintShopSolution.Status#UNSATISFIABLE} if a shard is unsatisfiable
+     * @throws PaintShopSolverRuntimeException if a shard could not be solved by any worker, or if a worker
+     *                                         failed on a shard with a solver error
+     * @throws PaintShopInputRuntimeException  if a worker failed on a shard with an input error
+     */
+    PaintShopSolution solve(int nbPaints, List<CustomerTaste> customerTastes, String solverName,
+                            SolverBudget budget) {
+        CustomerTasteClauses clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+        Components components = Components.of(clauses);
+
+        //shard of each component with customers, the lightest shard first
+        long[] weights = new long[components.count()];
+        boolean[] referenced = new boolean[components.count()];
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            int component = components.of(ClauseStore.paint(clauses.literal(clause, 0)));
+            weights[component] += clauses.length(clause);
+            referenced[component] = true;
+        }
+        int nbReferenced = 0;
+        for (boolean isReferenced : referenced) {
+            nbReferenced += isReferenced ? 1 : 0;
+        }
+        int nbShards = Math.min(nbReferenced, SHARDS_PER_WORKER * workers.size());
+        int[] shardOf = new int[components.count()];
+        long[] loads = new long[nbShards];
+        for (int component = 0; component < components.count(); component++) {
+            if (!referenced[component]) {
+                shardOf[component] = -1;
+                continue;
+            }
+            int lightest = 0;
+            for (int shard = 1; shard < nbShards; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            shardOf[component] = lightest;
+            loads[lightest] += Math.max(1, weights[component]);
+        }
+
+        //paints of each shard, renumbered from 1
+        int[] local = new int[nbPaints + 1];
+        int[] shardSizes = new int[nbShards];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            int shard = shardOf[components.of(paint)];
+            if (shard >= 0) {
+                local[paint] = ++shardSizes[shard];
+            }
+        }
+        int[][] paints = new int[nbShards][];
+        for (int shard = 0; shard < nbShards; shard++) {
+            paints[shard] = new int[shardSizes[shard] + 1];
+        }
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            int shard = shardOf[components.of(paint)];
+            if (shard >= 0) {
+                paints[shard][local[paint]] = paint;
+            }
+        }
+        CustomerTasteClauses[] shards = this.shardClauses(clauses, components, shardOf, local, shardSizes);
+        LOGGER.info("nbPaints: {} - components: {} - shards: {} - workers: {}",
+                nbPaints, components.count(), nbShards, workers.size());
+
+        PaintShopSolution[] solutions = this.dispatch(shards, solverName == null ? PaintShopSolvers.AUTO : solverName,
+                budget);
+        return merge(nbPaints, paints, solutions);
+    }
+
+    /**
+     * Merges the solutions of the shards into the solution of the problem.
+     *
+     * @param nbPaints  the number of paints of the problem
+     * @param paints    the paints of each shard, by their 1-based index in the shard
+     * @param solutions the solution of each shard
+     * @return unsatisfiable if any shard is, else the first shard solution without paint batches, else the
+     * finishes of the shards, optimal if all of them are
+     */
+    static PaintShopSolution merge(int nbPaints, int[][] paints, PaintShopSolution[] solutions) {
+        //a single unsatisfiable shard makes the problem unsatisfiable, whatever the other shards answered
+        for (PaintShopSolution solution : solutions) {
+            if (solution.status() == PaintShopSolution.Status.UNSATISFIABLE) {
+                return solution;
+            }
+        }
+        char[] finishes = new char[nbPaints];
+        Arrays.fill(finishes, PaintFinish.G.name().charAt(0));
+        boolean completed = true;
+        for (int shard = 0; shard < solutions.length; shard++) {
+            if (!solutions[shard].paintBatches().isPresent()) {
+                return solutions[shard];
+            }
+            completed &= solutions[shard].isOptimal();
+            String shardFinishes = solutions[shard].paintBatches().get().finishesRepresentation();
+            for (int paint = 1; paint < paints[shard].length; paint++) {
+                finishes[paints[shard][paint] - 1] = shardFinishes.charAt(paint - 1);
+            }
+        }
+        return PaintShopSolution.of(new String(finishes), completed);
+    }
+
+    private CustomerTasteClauses[] shardClauses(CustomerTasteClauses clauses, Components components,
+                                                int[] shardOf, int[] local, int[] shardSizes) {
+        int nbShards = shardSizes.length;
+        int[] nbClauses = new int[nbShards];
+        int[] nbLiterals = new int[nbShards];
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            int shard = shardOf[components.of(ClauseStore.paint(clauses.literal(clause, 0)))];
+            nbClauses[shard]++;
+            nbLiterals[shard] += clauses.length(clause);
+        }
+        int[][] offsets = new int[nbShards][];
+        int[][] literals = new int[nbShards][];
+        for (int shard = 0; shard < nbShards; shard++) {
+            offsets[shard] = new int[nbClauses[shard] + 1];
+            literals[shard] = new int[nbLiterals[shard]];
+            nbClauses[shard] = 0;
+            nbLiterals[shard] = 0;
+        }
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            int shard = shardOf[components.of(ClauseStore.paint(clauses.literal(clause, 0)))];
+            for (int position = 0; position < clauses.length(clause); position++) {
+                int literal = clauses.literal(clause, position);
+                literals[shard][nbLiterals[shard]++] =
+                        ClauseStore.literal(local[ClauseStore.paint(literal)], ClauseStore.finish(literal));
+            }
+            offsets[shard][++nbClauses[shard]] = nbLiterals[shard];
+        }
+        CustomerTasteClauses[] shards = new CustomerTasteClauses[nbShards];
+        for (int shard = 0; shard < nbShards; shard++) {
+            shards[shard] = new CustomerTasteClauses(shardSizes[shard], offsets[shard], literals[shard]);
+        }
+        return shards;
+    }
+
+    /**
+     * Sends the shards to the workers, one thread and one connection per worker.
+     *
+     * @return the solution of each shard
+     */
+    private PaintShopSolution[] dispatch(CustomerTasteClauses[] shards, String solverName, SolverBudget budget) {
+        PaintShopSolution[] solutions = new PaintShopSolution[shards.length];
+        if (shards.length == 0) {
+            return solutions;
+        }
+        LinkedBlockingQueue<Integer> pending = new LinkedBlockingQueue<>();
+        for (int shard = 0; shard < shards.length; shard++) {
+            pending.add(shard);
+        }
+        AtomicInteger[] attempts = new AtomicInteger[shards.length];
+        Arrays.setAll(attempts, shard -> new AtomicInteger());
+        CountDownLatch solved = new CountDownLatch(shards.length);
+        AtomicInteger alive = new AtomicInteger(workers.size());
+        AtomicInteger failed = new AtomicInteger(-1); //a shard that failed too many times
+        AtomicReference<RuntimeException> error = new AtomicReference<>(); //the first error of a worker
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size(), runnable -> {
+            Thread thread = new Thread(runnable, "paintshop-coordinator-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (InetSocketAddress worker : workers) {
+                executor.execute(() -> {
+                    this.feed(worker, shards, solverName, budget, pending, solutions, attempts, solved, failed, error);
+                    alive.decrementAndGet();
+                });
+            }
+            while (!solved.await(POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (error.get() != null) {
+                    throw error.get();
+                }
+                if (failed.get() >= 0 || alive.get() == 0) {
+                    throw new PaintShopSolverRuntimeException(WORKER_UNAVAILABLE,
+                            String.format("%d shards of %d not solved, after %d attempts at most.",
+                                    solved.getCount(), shards.length, MAX_ATTEMPTS));
+                }
+            }
+            return solutions;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new PaintShopSolverRuntimeException(SOLVER_INTERRUPTED,
+                    String.format("Thread '%s' interrupted.", Thread.currentThread().getName()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sends the pending shards to the worker until they are all solved, the worker dies, or a worker fails
+     * on a shard.
+     */
+    private void feed(InetSocketAddress worker, CustomerTasteClauses[] shards, String solverName,
+                      SolverBudget budget, LinkedBlockingQueue<Integer> pending, PaintShopSolution[] solutions,
+                      AtomicInteger[] attempts, CountDownLatch solved, AtomicInteger failed,
+                      AtomicReference<RuntimeException> error) {
+        Integer shard = null;
+        try (Socket socket = new Socket(worker.getAddress(), worker.getPort())) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            while (solved.getCount() > 0 && failed.get() < 0 && error.get() == null) {
+                shard = pending.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (shard == null) {
+                    continue; //a shard may come back from a dead worker
+                }
+                attempts[shard].incrementAndGet();
+                ShardProtocol.writeShard(output, solverName, budget, shards[shard]);
+                solutions[shard] = ShardProtocol.readSolution(input);
+                shard = null;
+                solved.countDown();
+            }
+        } catch (IOException exception) {
+            LOGGER.warn("Worker {} lost: {}", worker, exception.getMessage());
+            if (shard != null) {
+                if (attempts[shard].get() < MAX_ATTEMPTS) {
+                    pending.add(shard);
+                } else {
+                    failed.compareAndSet(-1, shard);
+                }
+            }
+        } catch (PaintShopInputRuntimeException | PaintShopSolverRuntimeException exception) {
+            LOGGER.warn("Worker {} failed: {}", worker, exception.getMessage());
+            error.compareAndSet(null, exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static me.david.paintshop.exceptions.PaintShopError.SOLVER_REJECTED;
+
+/**
+ * Asynchronous facade over {@link PaintShopProblem} and {@link AnytimePaintShopSolver}: each problem is
+ * solved on a bounded pool of threads, and its solution is returned as a {@link CompletableFuture}, so that
+ * the callers can compose the results of many orders without blocking their own threads.
+ * <p>The pool has a fixed number of threads and a bounded queue of pending problems. When the queue is full,
+ * the {@link RejectionPolicy} applies.</p>
+ * <p>Cancelling a returned future with {@link CompletableFuture#cancel(boolean)} removes the problem from
+ * the queue, or interrupts the thread solving it: the solver loops stop on their next interruption check
+ * (see {@link Interruptions}).</p>
+ * <p>Thread-safe.</p>
+ */
+public class PaintShopExecutor implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaintShopExecutor.class);
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    /**
+     * What to do with a problem submitted while all the threads are busy and the queue is full
+     */
+    public enum RejectionPolicy {
+        /**
+         * The returned future fails with a {@link PaintShopSolverRuntimeException}
+         */
+        ABORT,
+        /**
+         * The problem is solved by the submitting thread, which slows the submissions down
+         */
+        CALLER_RUNS,
+        /**
+         * The oldest pending problem is cancelled to make room for the new one
+         */
+        DISCARD_OLDEST
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructor, rejecting the problems submitted when the queue is full.
+     *
+     * @param nbThreads     the number of threads solving problems
+     * @param queueCapacity the maximum number of problems waiting for a thread
+     */
+    public PaintShopExecutor(int nbThreads, int queueCapacity) {
+        this(nbThreads, queueCapacity, RejectionPolicy.ABORT);
+    }
+
+    /**
+     * @param nbThreads       the number of threads solving problems
+     * @param queueCapacity   the maximum number of problems waiting for a thread
+     * @param rejectionPolicy what to do when the queue is full
+     */
+    public PaintShopExecutor(int nbThreads, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        int poolNumber = POOL_NUMBER.incrementAndGet();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable,
+                    "paintshop-" + poolNumber + "-solver-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(nbThreads, nbThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, rejectionHandler(rejectionPolicy));
+    }
+
+    /**
+     * Solves the problem without budget.
+     *
+     * @param problem the problem to solve
+     * @return the future solution
+     */
+    public CompletableFuture<PaintShopSolution> submit(PaintShopProblem problem) {
+        return this.submit(problem, SolverBudget.unlimited());
+    }
+
+    /**
+     * Parses and solves the problem within the budget, on one of the threads of the pool.
+     *
+     * @param problem the problem to solve
+     * @param budget  the budget of the run, measured from the start of the run, not from the submission
+     * @return the future solution. It fails with the exception thrown while parsing or solving, if any
+     */
+    public CompletableFuture<PaintShopSolution> submit(PaintShopProblem problem, SolverBudget budget) {
+        return this.submit(() -> problem.solve(budget));
+    }
+
+    /**
+     * Solves the problem within the budget, on one of the threads of the pool.
+     *
+     * @param solver the solver, already built for a problem
+     * @param budget the budget of the run, measured from the start of the run, not from the submission
+     * @return the future solution
+     */
+    public CompletableFuture<PaintShopSolution> submit(AnytimePaintShopSolver solver, SolverBudget budget) {
+        return this.submit(() -> solver.solve(budget));
+    }
+
+    CompletableFuture<PaintShopSolution> submit(Callable<PaintShopSolution> solve) {
+        SolveTask task = new SolveTask(solve);
+        executor.execute(task);
+        return task.result;
+    }
+
+    /**
+     * @return the number of problems waiting for a thread
+     */
+    public int pending() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting problems, cancels the pending ones and interrupts the running ones.
+     */
+    @Override
+    public void close() {
+        List<Runnable> pending = executor.shutdownNow();
+        pending.forEach(task -> ((SolveTask) task).cancel(false));
+        LOGGER.debug("closed - {} pending problems cancelled", pending.size());
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(RejectionPolicy rejectionPolicy) {
+        return (runnable, executor) -> {
+            SolveTask task = (SolveTask) runnable;
+            if (executor.isShutdown()) {
+                task.reject("The executor is closed.");
+                return;
+            }
+            switch (rejectionPolicy) {
+                case CALLER_RUNS:
+                    task.run();
+                    break;
+                case DISCARD_OLDEST:
+                    Runnable oldest = executor.getQueue().poll();
+                    if (oldest != null) {
+                        ((SolveTask) oldest).cancel(false);
+                    }
+                    executor.execute(task);
+                    break;
+                default:
+                    task.reject(String.format("%d problems pending.", executor.getQueue().size()));
+            }
+        };
+    }
+
+    /**
+     * The task run by the pool, bound to the future returned to the caller: the completion of the task
+     * completes the future, and the cancellation of the future cancels the task.
+     */
+    private final class SolveTask extends FutureTask<PaintShopSolution> {
+        private final CompletableFuture<PaintShopSolution> result = new CompletableFuture<>();
+
+        SolveTask(Callable<PaintShopSolution> solve) {
+            super(solve);
+            result.whenComplete((solution, exception) -> {
+                if (result.isCancelled() && this.cancel(true)) {
+                    executor.remove(this);
+                }
+            });
+        }
+
+        void reject(String message) {
+            result.completeExceptionally(new PaintShopSolverRuntimeException(SOLVER_REJECTED, message));
+            this.cancel(false);
+        }
+
+        @Override
+        protected void done() {
+            if (this.isCancelled()) {
+                result.cancel(false);
+                return;
+            }
+            try {
+                result.complete(this.get());
+            } catch (ExecutionException exception) {
+                result.completeExceptionally(exception.getCause());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt(); //cannot happen: the task is done
+            }
+        }
+    }
+}
@@ -2,17 +2,18 @@ package me.david.paintshop;
 
 import me.david.paintshop.exceptions.PaintShopError;
 import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
+import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static me.david.paintshop.exceptions.PaintShopError.INVALID_INPUT_FILE_NUMBER_OF_PAINTS;
@@ -21,27 +22,211 @@ import static me.david.paintshop.exceptions.PaintShopError.INVALID_INPUT_FILE_NU
 /**
  * Class used for the me.david.paintshop.PaintShop CSP to solve.
  * It accepts an paint order/problem filename as a parameter
+ * It is built from a problem definition file, or in memory with {@link #fromReader}, {@link #fromInputStream},
+ * {@link #fromBytes}, {@link #fromString} or {@link #of}.
  * Call method {@link #solution()} ()} to retrieve the (cheapest) solution
- * to the problem or the default {@link #NO_SOLUTION_FOUND} message.
- * <p>Internally, it uses a solver.</p>
+ * to the problem or the default {@link PaintShopSolution#NO_SOLUTION_FOUND} message.
+ * <p>Call method {@link #solve()} to get a structured {@link PaintShopSolution} instead, or
+ * {@link #solve(SolverBudget)} to solve it within a time, node or memory budget.</p>
+ * <p>Internally, it uses a solver: the one given by name, else the one given by the
+ * {@value #SOLVER_PROPERTY} system property, else the one picked by the {@link PaintShopSolverSelector}.
+ * See {@link PaintShopSolvers}.</p>
  */
 public class PaintShopProblem {
     private static final Logger LOGGER = LoggerFactory.getLogger(PaintShopProblem.class);
 
-    private static final String NO_SOLUTION_FOUND = "No solution exists";
-
     private static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
 
+    /**
+     * System property used to override the automatic selection of the solver, e.g. <code>-Dpaintshop.solver=ac3</code>
+     */
+    public static final String SOLVER_PROPERTY = "paintshop.solver";
+    /**
+     * System property: size (in bytes) from which an input file is parsed into an {@link OffHeapClauseStore}
+     * instead of {@link CustomerTaste} objects, e.g. <code>-Dpaintshop.offheap.threshold=1073741824</code>
+     */
+    public static final String OFFHEAP_THRESHOLD_PROPERTY = "paintshop.offheap.threshold";
+    /**
+     * System property: directory of the memory-mapped files of the {@link OffHeapClauseStore},
+     * <code>java.io.tmpdir</code> by default. The store is not made of direct buffers: they are capped by
+     * <code>-XX:MaxDirectMemorySize</code>, the maximum heap size by default, and the problem would not fit.
+     */
+    public static final String OFFHEAP_DIRECTORY_PROPERTY = "paintshop.offheap.dir";
+    private static final long OFFHEAP_DEFAULT_THRESHOLD = 256L * 1024 * 1024;
+    /**
+     * System property: minimum time (in ms) between two checkpoints of {@link #solve(SolverBudget, Path)},
+     * e.g. <code>-Dpaintshop.checkpoint.interval.ms=300000</code>
+     */
+    public static final String CHECKPOINT_INTERVAL_PROPERTY = "paintshop.checkpoint.interval.ms";
+    private static final long CHECKPOINT_DEFAULT_INTERVAL_MS = 60_000L;
 
-    private final File input;
+
+    private final File input; //null for an in-memory problem
+    private final List<String> lines; //in-memory problem definition, null otherwise
+    private final int nbPaints;
+    private final List<CustomerTaste> customerTastes; //already parsed problem, null otherwise
+    private final String solverName;
+    private final ParseDiagnostics diagnostics;
 
     PaintShopProblem(String filename) throws FileNotFoundException {
-        this.input = new File(filename);
+        this(filename, System.getProperty(SOLVER_PROPERTY, PaintShopSolvers.AUTO));
+    }
+
+    /**
+     * @param filename   the problem definition file
+     * @param solverName name of the solver in {@link PaintShopSolvers}, or {@link PaintShopSolvers#AUTO}
+     * @throws FileNotFoundException if the file does not exist
+     */
+    PaintShopProblem(String filename, String solverName) throws FileNotFoundException {
+        this(new File(filename), null, 0, null, solverName, new ParseDiagnostics(0));
         if (!input.exists() || !input.isFile()) {
             throw new FileNotFoundException("Not found given Filename '" + filename + "'.");
         }
     }
 
+    private PaintShopProblem(File input, List<String> lines, int nbPaints, List<CustomerTaste> customerTastes,
+                             String solverName, ParseDiagnostics diagnostics) {
+        this.input = input;
+        this.lines = lines;
+        this.nbPaints = nbPaints;
+        this.customerTastes = customerTastes;
+        this.solverName = solverName;
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * Reads a problem definition (the number of paints, then one customer taste per line) from a reader.
+     * The reader is read fully, but not closed.
+     *
+     * @param reader the problem definition
+     * @return the problem, solved with the solver of the {@value #SOLVER_PROPERTY} system property, if set
+     * @throws PaintShopInputRuntimeException if the reader cannot be read
+     */
+    public static PaintShopProblem fromReader(Reader reader) {
+        BufferedReader bufferedReader = reader instanceof BufferedReader ?
+                (BufferedReader) reader : new BufferedReader(reader);
+        try {
+            List<String> lines = new ArrayList<>();
+            for (String line = bufferedReader.readLine(); line != null; line = bufferedReader.readLine()) {
+                lines.add(line);
+            }
+            return new PaintShopProblem(null, Collections.unmodifiableList(lines), 0, null,
+                    System.getProperty(SOLVER_PROPERTY, PaintShopSolvers.AUTO), new ParseDiagnostics(0));
+
+        } catch (IOException e) {
+            throw new PaintShopInputRuntimeException(
+                    PaintShopError.INVALID_INPUT_FILE,
+                    "Check that the problem definition can be read.", e);
+        }
+    }
+
+    /**
+     * Same as {@link #fromReader(Reader)}, for a problem definition encoded in UTF-8.
+     *
+     * @param inputStream the problem definition. It is read fully, but not closed
+     * @return the problem
+     */
+    public static PaintShopProblem fromInputStream(InputStream inputStream) {
+        return fromReader(new InputStreamReader(inputStream, DEFAULT_CHARSET));
+    }
+
+    /**
+     * Same as {@link #fromReader(Reader)}, for a problem definition encoded in UTF-8.
+     *
+     * @param definition the problem definition
+     * @return the problem
+     */
+    public static PaintShopProblem fromBytes(byte[] definition) {
+        return fromInputStream(new ByteArrayInputStream(definition));
+    }
+
+    /**
+     * Same as {@link #fromReader(Reader)}, e.g. <code>fromString("2\n1 M\n1 G 2 M")</code>.
+     *
+     * @param definition the problem definition
+     * @return the problem
+     */
+    public static PaintShopProblem fromString(CharSequence definition) {
+        return fromReader(new StringReader(definition.toString()));
+    }
+
+    /**
+     * A problem already parsed, e.g. built by an order service.
+     *
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes, each built with the same number of paints
+     * @return the problem
+     */
+    public static PaintShopProblem of(int nbPaints, List<CustomerTaste> customerTastes) {
+        return new PaintShopProblem(null, null, nbPaints,
+                Collections.unmodifiableList(new ArrayList<>(customerTastes)),
+                System.getProperty(SOLVER_PROPERTY, PaintShopSolvers.AUTO), new ParseDiagnostics(nbPaints));
+    }
+
+    /**
+     * @param solverName name of the solver in {@link PaintShopSolvers}, or {@link PaintShopSolvers#AUTO}
+     * @return the same problem, solved with the given solver
+     */
+    public PaintShopProblem withSolver(String solverName) {
+        return new PaintShopProblem(input, lines, nbPaints, customerTastes, solverName, diagnostics);
+    }
+
+    /**
+     * Parses the problem now, leniently: the invalid customer tastes are skipped instead of throwing
+     * an exception, and recorded in the {@link #diagnostics()} of the returned problem, with their line number.
+     * A line is skipped if and only if the strict parsing rejects it, e.g. '+1 G' is kept.
+     * <p>An invalid number of paints is recorded as well, and leaves an empty problem: the customer tastes
+     * cannot be validated without it.</p>
+     * <p>No exception is created for an invalid line, and nothing is logged but a summary:
+     * this is the parsing to use for feeds with a share of bad lines.</p>
+     *
+     * @return the problem, with the valid customer tastes only
+     * @throws PaintShopInputRuntimeException if the problem definition cannot be read
+     */
+    public PaintShopProblem lenient() {
+        Deque<String> problemDefinition = this.problemDefinition();
+        String firstLine = problemDefinition.isEmpty() ? "" : problemDefinition.removeFirst();
+        int nbPaints = parseNbPaintsLeniently(firstLine);
+        ParseDiagnostics diagnostics = new ParseDiagnostics(Math.max(nbPaints, 0));
+        List<CustomerTaste> customerTastes = new ArrayList<>(problemDefinition.size());
+        if (nbPaints < 0) {
+            diagnostics.addInvalidNbPaints(firstLine);
+            nbPaints = 0;
+        } else {
+            CustomerTasteParser parser = new CustomerTasteParser();
+            int lineNumber = 1;
+            for (String line : problemDefinition) {
+                lineNumber++;
+                int status = parser.parse(line, nbPaints);
+                if (status == CustomerTasteParser.VALID) {
+                    customerTastes.add(new CustomerTaste(nbPaints, line, parser.literals(), parser.length()));
+                } else {
+                    diagnostics.addInvalidCustomerTaste(lineNumber, status, line);
+                }
+            }
+        }
+        LOGGER.info("Lenient parsing - valid customer tastes: {} - invalid lines: {}",
+                customerTastes.size(), diagnostics.size());
+        return new PaintShopProblem(input, lines, nbPaints, Collections.unmodifiableList(customerTastes),
+                solverName, diagnostics);
+    }
+
+    /**
+     * @return the invalid lines skipped by {@link #lenient()}, empty unless the problem was parsed leniently
+     */
+    public ParseDiagnostics diagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Solves the problem without budget.
+     *
+     * @return the solution: its status, and the cheapest paint batches if any
+     */
+    public PaintShopSolution solve() {
+        return this.solve(SolverBudget.unlimited());
+    }
+
     /**
      * @return the (cheapest) solution to the paint shop problem as a {@link String}
      * representation of the <code>n</code> paints
@@ -51,44 +236,272 @@ public class PaintShopProblem {
     }
 
     /**
-     * Get the list of solution from a {@link PaintShopSolver} and return the one of the cheapest found. Cost is
-     * based on {@link PaintBatches#cost}.
-     * <p>Uses an instance of {@link SearchPaintShopSolver}</p>
+     * Solves the problem with the solver created by {@link PaintShopSolvers}, within a budget.
+     * <p>When the budget is exhausted, the best paint batches found so far are returned, flagged as
+     * {@link PaintShopSolution.Status#FEASIBLE} instead of {@link PaintShopSolution.Status#OPTIMAL}.
+     * Solvers that are not an {@link AnytimePaintShopSolver} run without budget.</p>
      *
-     * @return the cheapest solution to the paint shop problem as a {@link String}
-     * representation of the <code>n</code> paints
+     * @param budget the budget of the solver
+     * @return the solution
      */
-    private String cheapestSolution() {
+    public PaintShopSolution solve(SolverBudget budget) {
+        return this.solve(budget, (PaintBatches) null);
+    }
+
+    /**
+     * Same as {@link #solve(SolverBudget)}, starting from a hint, typically the solution of the previous
+     * version of the same order. The search based solvers try the hinted finish of each paint first among
+     * the finishes of the same cost, and when the hint is still a valid solution, only have to prove that
+     * there is no cheaper one, the search being then little more than a verification pass. The
+     * {@link PaintShopSolvers#WALKSAT} solver starts from the hint. The other solvers ignore it.
+     *
+     * @param budget the budget of the solver
+     * @param hint   the finish of each paint, the first paint first. The paints beyond the problem are ignored,
+     *               the missing ones have no hint
+     * @return the solution
+     */
+    public PaintShopSolution solve(SolverBudget budget, PaintBatches hint) {
+        if (this.offHeap()) {
+            return this.solveOffHeap(budget, hint);
+        }
         long startTime = System.nanoTime();
 
-        Deque<String> problemDefinition = this.problemDefinition();
-        int nbPaints = this.parseNbPaints(problemDefinition.removeFirst());
+        PaintShopProblem parsed = this.parsed();
+        int nbPaints = parsed.nbPaints;
         LOGGER.debug("nbPaints: {}", nbPaints);
 
-        List<CustomerTaste> unsortedCustomerTastes = problemDefinition.stream()
-                .map(repr -> new CustomerTaste(nbPaints, repr))
-                .collect(Collectors.toList());
-
-//        PaintShopSolver solver = new SearchPaintShopSolver(nbPaints, unsortedCustomerTastes);
-//        PaintShopSolver solver = new SearchSpaceReducerPaintShopSolver(nbPaints, unsortedCustomerTastes);
-        PaintShopSolver solver = new AC3SatSolver(nbPaints, unsortedCustomerTastes);
-        List<String> solutions = solver.solutions();
-        final String solution = this.cheapestSolution(solutions)
-                .map(PaintBatches::toString)
-                .orElse(NO_SOLUTION_FOUND);
+        PaintShopSolver solver = PaintShopSolvers.getInstance()
+                .create(this.solverName, nbPaints, parsed.customerTastes);
+        final PaintShopSolution solution = this.solve(solver, budget, hint);
         long endTime = System.nanoTime();
         long durationNs = endTime - startTime;//ns = nanoseconds (/1_000_000 to get ms)
-        LOGGER.info("{\"elapsed_ns\": {},\"nbpaints\":{},\"solution\":\"{}\"}",
-                durationNs, nbPaints, solution);
+        LOGGER.info("{\"elapsed_ns\": {},\"nbpaints\":{},\"solver\":\"{}\",\"status\":\"{}\",\"solution\":\"{}\"}",
+                durationNs, nbPaints, solver.getClass().getSimpleName(), solution.status(), solution);
 
         return solution;
     }
 
+    /**
+     * Solves the problem on the workers of a coordinator, with the solver of this problem.
+     *
+     * @param coordinator the coordinator, sending the independent parts of the problem to its workers
+     * @param budget      the budget of each part
+     * @return the solution merged from the solutions of the parts
+     * @throws PaintShopInputRuntimeException  if the problem definition is invalid
+     * @throws PaintShopSolverRuntimeException if a part could not be solved by any worker
+     */
+    public PaintShopSolution solve(PaintShopCoordinator coordinator, SolverBudget budget) {
+        PaintShopProblem parsed = this.parsed();
+        return coordinator.solve(parsed.nbPaints, parsed.customerTastes, solverName, budget);
+    }
+
+    /**
+     * Solves the problem, reusing the solutions of the components found in the cache: only the other
+     * components reach the solver of this problem, and their solutions are added to the cache.
+     * See {@link CachingPaintShopSolver}.
+     *
+     * @param cache  the solutions of the components of the orders solved before
+     * @param budget the budget of the solver
+     * @return the solution
+     * @throws PaintShopInputRuntimeException if the problem definition is invalid
+     */
+    public PaintShopSolution solve(ComponentSolutionCache cache, SolverBudget budget) {
+        PaintShopProblem parsed = this.parsed();
+        return new CachingPaintShopSolver(parsed.nbPaints, parsed.customerTastes, cache, solverName).solve(budget);
+    }
+
+    /**
+     * Solves the problem with a branch and bound search that can be resumed: the frontier of the search, its
+     * cheapest solution so far and the reduced domains are saved to the checkpoint file periodically (see
+     * {@value #CHECKPOINT_INTERVAL_PROPERTY}), and when the budget is exhausted. If the checkpoint file
+     * exists, the search resumes from it. It is deleted once the search is complete.
+     * <p>The solver of this problem is not used: the search is the one of the {@link AC2001SatSolver}.</p>
+     *
+     * @param budget     the budget of this run
+     * @param checkpoint the checkpoint file
+     * @return the solution, {@link PaintShopSolution.Status#FEASIBLE} if the budget is exhausted: the next run
+     * carries on from the checkpoint
+     * @throws PaintShopInputRuntimeException if the problem definition or the checkpoint is invalid
+     */
+    public PaintShopSolution solve(SolverBudget budget, Path checkpoint) {
+        PaintShopProblem parsed = this.parsed();
+        long interval = Long.getLong(CHECKPOINT_INTERVAL_PROPERTY, CHECKPOINT_DEFAULT_INTERVAL_MS);
+        return new CheckpointedSearch(parsed.nbPaints, parsed.customerTastes, checkpoint,
+                TimeUnit.MILLISECONDS.toNanos(interval)).solve(budget);
+    }
+
+    /**
+     * Parses the problem once, and prepares it to be solved many times, e.g. with different costs.
+     *
+     * @return the prepared problem, immutable and thread-safe
+     * @throws PaintShopInputRuntimeException if the problem definition is invalid
+     */
+    public PreparedPaintShopProblem prepare() {
+        PaintShopProblem parsed = this.parsed();
+        return PreparedPaintShopProblem.prepare(parsed.nbPaints, parsed.customerTastes);
+    }
+
+    /**
+     * @return an enumerator of the valid solutions, by non-decreasing {@link PaintBatches#cost()}
+     * @throws PaintShopInputRuntimeException if the problem definition is invalid
+     */
+    public SolutionEnumerator enumerate() {
+        return this.enumerate(PaintCostModel.DEFAULT);
+    }
+
+    /**
+     * Parses the problem and returns a lazy enumerator of its valid solutions, the cheapest first,
+     * e.g. <code>enumerate(costModel).next(3)</code> for the 3 cheapest alternatives.
+     *
+     * @param costModel the costs of the finishes
+     * @return an enumerator of the valid solutions, by non-decreasing cost
+     * @throws PaintShopInputRuntimeException if the problem definition is invalid
+     */
+    public SolutionEnumerator enumerate(PaintCostModel costModel) {
+        PaintShopProblem parsed = this.parsed();
+        return new SolutionEnumerator(parsed.nbPaints, parsed.customerTastes, costModel);
+    }
+
+    /**
+     * Solves the problem as a weighted MaxSAT, without budget: see {@link #solveMaxSat(int[], PaintCostModel,
+     * SolverBudget)}.
+     *
+     * @param weights the weight of each customer, in the order of the customer tastes
+     * @return the paint batches satisfying the heaviest customers, and the customers dropped
+     * @throws PaintShopInputRuntimeException if the problem definition or a weight is invalid
+     */
+    public MaxSatSolution solveMaxSat(int[] weights) {
+        return this.solveMaxSat(weights, PaintCostModel.DEFAULT, SolverBudget.unlimited());
+    }
+
+    /**
+     * Solves the problem even if it is unsatisfiable: the paint batches maximise the total weight of the
+     * satisfied customers, e.g. the value of their orders, then minimise the cost of the finishes.
+     * When the problem is satisfiable, no customer is dropped and the paint batches are the cheapest ones.
+     *
+     * @param weights   the weight of each customer, positive, in the order of the customer tastes
+     * @param costModel the costs of the finishes
+     * @param budget    the budget of the search
+     * @return the paint batches satisfying the heaviest customers, and the customers dropped
+     * @throws PaintShopInputRuntimeException if the problem definition or a weight is invalid
+     */
+    public MaxSatSolution solveMaxSat(int[] weights, PaintCostModel costModel, SolverBudget budget) {
+        PaintShopProblem parsed = this.parsed();
+        return new MaxSatSearch(parsed.nbPaints, parsed.customerTastes, weights, costModel).solve(budget);
+    }
+
+    /**
+     * Explains why the problem is unsatisfiable: a minimal set of customers in conflict, i.e. with no
+     * solution for them alone, but a solution as soon as any of them is left out. See {@link MinimalConflict}.
+     *
+     * @return the conflicting customer tastes, in the order of the problem definition, or an empty list if
+     * the problem is satisfiable
+     * @throws PaintShopInputRuntimeException if the problem definition is invalid
+     */
+    public List<CustomerTaste> conflictingCustomers() {
+        PaintShopProblem parsed = this.parsed();
+        List<CustomerTaste> conflicting = new ArrayList<>();
+        for (int customer : new MinimalConflict(parsed.nbPaints, parsed.customerTastes).customers()) {
+            conflicting.add(parsed.customerTastes.get(customer));
+        }
+        return conflicting;
+    }
+
+    /**
+     * @return this problem, with its customer tastes parsed
+     */
+    private PaintShopProblem parsed() {
+        if (this.customerTastes != null) {
+            return this;
+        }
+        Deque<String> problemDefinition = this.problemDefinition();
+        int nbPaints = this.parseNbPaints(problemDefinition.isEmpty() ? "" : problemDefinition.removeFirst());
+        List<CustomerTaste> customerTastes = problemDefinition.stream()
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+        return new PaintShopProblem(input, lines, nbPaints, customerTastes, solverName, diagnostics);
+    }
+
+    /**
+     * Get the cheapest solution from a {@link PaintShopSolver}. Cost is based on {@link PaintBatches#cost}.
+     * <p>Uses the solver created by {@link PaintShopSolvers}, without budget.</p>
+     *
+     * @return the cheapest solution to the paint shop problem as a {@link String}
+     * representation of the <code>n</code> paints
+     */
+    private String cheapestSolution() {
+        return this.solve(SolverBudget.unlimited()).toString();
+    }
+
+    private PaintShopSolution solve(PaintShopSolver solver, SolverBudget budget, PaintBatches hint) {
+        if (solver instanceof AnytimePaintShopSolver) {
+            return ((AnytimePaintShopSolver) solver).solve(budget, hint);
+        }
+        return this.cheapestSolution(solver.solutions())
+                .map(paintBatches -> PaintShopSolution.optimal(paintBatches.finishesRepresentation()))
+                .orElseGet(PaintShopSolution::unsatisfiable);
+    }
+
+
+    /**
+     * The off-heap path applies to the input files above the {@value #OFFHEAP_THRESHOLD_PROPERTY} size,
+     * unless another solver than the {@link BacktrackingPaintShopSolver} is asked for, or the customer tastes
+     * are already parsed, e.g. by {@link #lenient()}: the off-heap path would parse the file again, strictly.
+     */
+    boolean offHeap() {
+        if (this.input == null || this.customerTastes != null) {
+            return false;
+        }
+        boolean anySolver = PaintShopSolvers.AUTO.equals(this.solverName)
+                || PaintShopSolvers.BACKTRACKING.equals(this.solverName);
+        return anySolver && this.input.length() >= Long.getLong(OFFHEAP_THRESHOLD_PROPERTY, OFFHEAP_DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Parses the input file line by line straight into an {@link OffHeapClauseStore}, then solves it with a
+     * {@link BacktrackingPaintShopSolver}: the heap only holds the current line and the search state.
+     */
+    private PaintShopSolution solveOffHeap(SolverBudget budget, PaintBatches hint) {
+        long startTime = System.nanoTime();
+        String directory = System.getProperty(OFFHEAP_DIRECTORY_PROPERTY, System.getProperty("java.io.tmpdir"));
+        try (BufferedReader reader = Files.newBufferedReader(this.input.toPath(), DEFAULT_CHARSET);
+             OffHeapClauseStore.Builder builder = OffHeapClauseStore.mapped(Paths.get(directory))) {
+            int nbPaints = this.parseNbPaints(reader.readLine());
+            LOGGER.debug("nbPaints: {} - off-heap", nbPaints);
+
+            CustomerTasteParser parser = new CustomerTasteParser();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                parser.parseOrThrow(line, nbPaints);
+                builder.add(parser.literals(), parser.length());
+            }
+            try (OffHeapClauseStore clauses = builder.build(nbPaints)) {
+                final PaintShopSolution solution = new BacktrackingPaintShopSolver(clauses).solve(budget, hint);
+                LOGGER.info("{\"elapsed_ns\": {},\"nbpaints\":{},\"solver\":\"{}\",\"status\":\"{}\",\"solution\":\"{}\"}",
+                        System.nanoTime() - startTime, nbPaints, OffHeapClauseStore.class.getSimpleName(),
+                        solution.status(), solution);
+                return solution;
+            }
+        } catch (IOException e) {
+            throw new PaintShopInputRuntimeException(
+                    PaintShopError.INVALID_INPUT_FILE,
+                    "Check that you can read the input file as " + DEFAULT_CHARSET, e);
+        }
+    }
 
     /**
-     * @return the problem definition from the given file
+     * @return the problem definition from the given file, or from memory
      */
     Deque<String> problemDefinition() {
+        if (this.lines != null) {
+            return new LinkedList<>(this.lines);
+        }
+        if (this.customerTastes != null) {
+            Deque<String> result = this.customerTastes.stream()
+                    .map(CustomerTaste::toString)
+                    .collect(Collectors.toCollection(LinkedList::new));
+            result.addFirst(String.valueOf(this.nbPaints));
+            return result;
+        }
         try (BufferedReader reader = Files.newBufferedReader(this.input.toPath(), DEFAULT_CHARSET)) {
             Deque<String> result = new LinkedList<>();
             for (; ; ) {
@@ -123,6 +536,28 @@ public class PaintShopProblem {
         }
     }
 
+    /**
+     * Same as {@link #parseNbPaints(String)}, without exception.
+     *
+     * @param number string value of the number of paints
+     * @return the int value, or -1 if it is not a non-negative integer
+     */
+    static int parseNbPaintsLeniently(String number) {
+        String trimmed = number.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 10) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value > Integer.MAX_VALUE ? -1 : (int) value;
+    }
+
     /**
      * Returns the cheapest of the given solutions. It instantiate each String solution into a {@link PaintBatches}
      * instance and uses the {@link PaintBatches#cost()} method for sorting.
@@ -0,0 +1,109 @@
+package me.david.paintshop;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Result of a solver: the best paint batches found, if any, and how good they are.
+ * <p>An {@link AnytimePaintShopSolver} running out of budget still returns the best valid
+ * paint batches found so far, with the status {@link Status#FEASIBLE}.</p>
+ */
+public final class PaintShopSolution {
+
+    static final String NO_SOLUTION_FOUND = "No solution exists";
+    static final String NO_SOLUTION_WITHIN_BUDGET = "No solution found within the budget";
+
+    /**
+     * How far the solver went
+     */
+    public enum Status {
+        /**
+         * The paint batches are proven to be the cheapest
+         */
+        OPTIMAL,
+        /**
+         * The paint batches are valid, but the solver stopped before proving they are the cheapest
+         */
+        FEASIBLE,
+        /**
+         * There is no solution
+         */
+        UNSATISFIABLE,
+        /**
+         * The solver stopped before finding any solution
+         */
+        UNKNOWN
+    }
+
+    private final Status status;
+    private final PaintBatches paintBatches;
+
+    private PaintShopSolution(Status status, PaintBatches paintBatches) {
+        this.status = status;
+        this.paintBatches = paintBatches;
+    }
+
+    static PaintShopSolution optimal(String finishes) {
+        return new PaintShopSolution(Status.OPTIMAL, new PaintBatches(finishes));
+    }
+
+    static PaintShopSolution feasible(String finishes) {
+        return new PaintShopSolution(Status.FEASIBLE, new PaintBatches(finishes));
+    }
+
+    static PaintShopSolution unsatisfiable() {
+        return new PaintShopSolution(Status.UNSATISFIABLE, null);
+    }
+
+    static PaintShopSolution unknown() {
+        return new PaintShopSolution(Status.UNKNOWN, null);
+    }
+
+    /**
+     * @param finishes  the best solution found, e.g. 'GGM', or <code>null</code>
+     * @param completed true if the solver completed its search, false if it ran out of budget
+     * @return the solution
+     */
+    static PaintShopSolution of(String finishes, boolean completed) {
+        if (finishes == null) {
+            return completed ? unsatisfiable() : unknown();
+        }
+        return completed ? optimal(finishes) : feasible(finishes);
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    /**
+     * @return true if the paint batches are proven to be the cheapest
+     */
+    public boolean isOptimal() {
+        return status == Status.OPTIMAL;
+    }
+
+    /**
+     * @return the best paint batches found, if any
+     */
+    public Optional<PaintBatches> paintBatches() {
+        return Optional.ofNullable(paintBatches);
+    }
+
+    /**
+     * @return the cost of the best paint batches found, if any. See {@link PaintBatches#cost()}
+     */
+    public OptionalInt cost() {
+        return paintBatches == null ? OptionalInt.empty() : OptionalInt.of(paintBatches.cost());
+    }
+
+    /**
+     * @return the expected output: the paint batches, e.g. 'G G M', or a 'no solution' message
+     */
+    @Override
+    public String toString() {
+        if (paintBatches != null) {
+            return paintBatches.toString();
+        }
+        return status == Status.UNSATISFIABLE ? NO_SOLUTION_FOUND : NO_SOLUTION_WITHIN_BUDGET;
+    }
+}
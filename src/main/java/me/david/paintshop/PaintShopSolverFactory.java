@@ -0,0 +1,49 @@
+package me.david.paintshop;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Factory of a flavor of {@link PaintShopSolver}, registered by name in {@link PaintShopSolvers}.
+ * <p>Implementations with a public no-arg constructor listed in
+ * <code>META-INF/services/me.david.paintshop.PaintShopSolverFactory</code> are discovered through
+ * the {@link java.util.ServiceLoader}, so a solver can be added without rebuilding the jar.</p>
+ */
+public interface PaintShopSolverFactory {
+
+    /**
+     * @return the name of the solver, e.g. 'ac3'. Used for the <code>--solver</code> command line option
+     */
+    String name();
+
+    /**
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @return a new solver for the problem
+     */
+    PaintShopSolver create(int nbPaints, List<CustomerTaste> customerTastes);
+
+    /**
+     * @param name    the name of the solver
+     * @param factory usually the constructor of the solver, e.g. <code>AC3SatSolver::new</code>
+     * @return a named factory
+     */
+    static PaintShopSolverFactory of(String name, BiFunction<Integer, List<CustomerTaste>, PaintShopSolver> factory) {
+        return new PaintShopSolverFactory() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public PaintShopSolver create(int nbPaints, List<CustomerTaste> customerTastes) {
+                return factory.apply(nbPaints, customerTastes);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
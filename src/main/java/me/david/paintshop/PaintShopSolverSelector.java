@@ -0,0 +1,48 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Picks the name of the solver to use, based on the {@link ProblemFeatures} of a problem.
+ * <ul>
+ * <li>Tiny problems: the brute-force search has no set-up cost, 'search'.</li>
+ * <li>Every customer likes at most two paint references: linear time 2-SAT, '2sat'.</li>
+ * <li>Most customers like one paint only, or the customers like few paint references on average: the
+ * propagation of the customer tastes does most of the work, 'reducer'.</li>
+ * <li>Otherwise, the stronger (but more costly) arc consistency, 'ac3'.</li>
+ * </ul>
+ * <p>Every customer likes at most one matte, in every valid problem: it is not a feature to select on.</p>
+ */
+public class PaintShopSolverSelector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaintShopSolverSelector.class);
+
+    /**
+     * Maximum number of (combination, customer taste) checks for the brute-force search
+     */
+    private static final long BRUTE_FORCE_MAX_CHECKS = 1L << 14;
+    private static final int BRUTE_FORCE_MAX_PAINTS = 12;
+    private static final double PROPAGATION_MIN_UNIT_CLAUSE_RATIO = 0.5;
+    private static final double PROPAGATION_MAX_MEAN_CLAUSE_LENGTH = 3.0;
+
+    /**
+     * @param features the features of the problem
+     * @return the name of the solver, registered in {@link PaintShopSolvers}
+     */
+    public String select(ProblemFeatures features) {
+        final String name;
+        if (features.nbPaints() <= BRUTE_FORCE_MAX_PAINTS
+                && (1L << features.nbPaints()) * Math.max(1, features.nbCustomers()) <= BRUTE_FORCE_MAX_CHECKS) {
+            name = PaintShopSolvers.SEARCH;
+        } else if (features.maxClauseLength() <= 2) {
+            name = PaintShopSolvers.TWO_SAT;
+        } else if (features.unitClauseRatio() >= PROPAGATION_MIN_UNIT_CLAUSE_RATIO
+                || features.meanClauseLength() <= PROPAGATION_MAX_MEAN_CLAUSE_LENGTH) {
+            name = PaintShopSolvers.REDUCER;
+        } else {
+            name = PaintShopSolvers.AC3;
+        }
+        LOGGER.debug("features: {} - solver: {}", features, name);
+        return name;
+    }
+}
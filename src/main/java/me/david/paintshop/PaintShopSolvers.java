@@ -0,0 +1,152 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static me.david.paintshop.exceptions.PaintShopError.UNKNOWN_SOLVER;
+
+/**
+ * Registry of the {@link PaintShopSolverFactory}, by name.
+ * <p>It contains the solvers of this project, plus the factories found by the {@link ServiceLoader}.
+ * The solver is chosen by name, or automatically with {@link #AUTO} (the default) by a
+ * {@link PaintShopSolverSelector}.</p>
+ */
+public final class PaintShopSolvers {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaintShopSolvers.class);
+
+    public static final String AUTO = "auto";
+    public static final String SEARCH = "search";
+    public static final String GRAY_CODE = "gray";
+    public static final String BIT_SLICED = "bitsliced";
+    public static final String REDUCER = "reducer";
+    public static final String AC3 = "ac3";
+    public static final String AC2001 = "ac2001";
+    public static final String TWO_SAT = "2sat";
+    public static final String BACKTRACKING = "backtracking";
+    /**
+     * The only solver of the project that is not exact: a fast valid solution, without proof
+     */
+    public static final String WALKSAT = "walksat";
+    public static final String PORTFOLIO = "portfolio";
+
+    /**
+     * Timeout (in ms) of each strategy of the {@link #PORTFOLIO} solver
+     */
+    static final String PORTFOLIO_TIMEOUT_PROPERTY = "paintshop.portfolio.timeout.ms";
+    private static final long PORTFOLIO_DEFAULT_TIMEOUT_MS = 60_000L;
+    private static final int PORTFOLIO_SEARCH_MAX_PAINTS = 20;
+
+    private static final PaintShopSolvers INSTANCE = new PaintShopSolvers(new PaintShopSolverSelector());
+
+    private final Map<String, PaintShopSolverFactory> factories = new ConcurrentHashMap<>();
+    private final PaintShopSolverSelector selector;
+    private ExecutorService portfolioExecutor;
+
+    PaintShopSolvers(PaintShopSolverSelector selector) {
+        this.selector = selector;
+        this.register(PaintShopSolverFactory.of(SEARCH, SearchPaintShopSolver::new));
+        this.register(PaintShopSolverFactory.of(GRAY_CODE, (nbPaints, customerTastes) ->
+                new SearchPaintShopSolver(nbPaints, customerTastes, SearchPaintShopSolver.Enumeration.GRAY_CODE)));
+        this.register(PaintShopSolverFactory.of(BIT_SLICED, (nbPaints, customerTastes) ->
+                new SearchPaintShopSolver(nbPaints, customerTastes, SearchPaintShopSolver.Enumeration.BIT_SLICED)));
+        this.register(PaintShopSolverFactory.of(REDUCER, SearchSpaceReducerPaintShopSolver::new));
+        this.register(PaintShopSolverFactory.of(AC3, AC3SatSolver::new));
+        this.register(PaintShopSolverFactory.of(AC2001, AC2001SatSolver::new));
+        this.register(PaintShopSolverFactory.of(TWO_SAT, TwoSatPaintShopSolver::new));
+        this.register(PaintShopSolverFactory.of(BACKTRACKING, BacktrackingPaintShopSolver::new));
+        this.register(PaintShopSolverFactory.of(WALKSAT, WalkSatPaintShopSolver::new));
+        this.register(PaintShopSolverFactory.of(PORTFOLIO, this::portfolio));
+        for (PaintShopSolverFactory factory : ServiceLoader.load(PaintShopSolverFactory.class)) {
+            LOGGER.info("Solver '{}' loaded: {}", factory.name(), factory.getClass().getName());
+            this.register(factory);
+        }
+    }
+
+    /**
+     * @return the registry shared by the program
+     */
+    public static PaintShopSolvers getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a factory, replacing any factory with the same name.
+     *
+     * @param factory the factory
+     */
+    public void register(PaintShopSolverFactory factory) {
+        this.factories.put(factory.name(), factory);
+    }
+
+    /**
+     * @return the (sorted) names of the registered solvers, {@link #AUTO} excluded
+     */
+    public SortedSet<String> names() {
+        return new TreeSet<>(this.factories.keySet());
+    }
+
+    /**
+     * @param name the name of a solver, or {@link #AUTO}
+     * @return true if the name can be used with {@link #create}
+     */
+    public boolean isKnown(String name) {
+        return AUTO.equals(name) || this.factories.containsKey(name);
+    }
+
+    /**
+     * Creates the solver of the given name.
+     *
+     * @param name           the name of the solver. <code>null</code> or {@link #AUTO} lets the
+     *                       {@link PaintShopSolverSelector} pick one
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @return a new solver for the problem
+     * @throws PaintShopSolverRuntimeException if the name is unknown
+     */
+    public PaintShopSolver create(String name, int nbPaints, List<CustomerTaste> customerTastes) {
+        String solverName = name == null || AUTO.equals(name) ?
+                this.selector.select(ProblemFeatures.of(nbPaints, customerTastes)) :
+                name;
+        PaintShopSolverFactory factory = this.factories.get(solverName);
+        if (factory == null) {
+            throw new PaintShopSolverRuntimeException(UNKNOWN_SOLVER,
+                    String.format("Solver '%s' is not one of %s.", solverName, this.names()));
+        }
+        LOGGER.debug("solver: {}", solverName);
+        return factory.create(nbPaints, customerTastes);
+    }
+
+    /**
+     * The portfolio races the other solvers of this project on an executor of daemon threads.
+     * The brute-force search is only part of the race for small problems.
+     */
+    private PaintShopSolver portfolio(int nbPaints, List<CustomerTaste> customerTastes) {
+        long timeout = Long.getLong(PORTFOLIO_TIMEOUT_PROPERTY, PORTFOLIO_DEFAULT_TIMEOUT_MS);
+        List<PortfolioPaintShopSolver.Strategy> strategies = new ArrayList<>();
+        for (String name : Arrays.asList(SEARCH, REDUCER, AC3)) {
+            if (!SEARCH.equals(name) || nbPaints <= PORTFOLIO_SEARCH_MAX_PAINTS) {
+                strategies.add(new PortfolioPaintShopSolver.Strategy(name,
+                        this.create(name, nbPaints, customerTastes), timeout, TimeUnit.MILLISECONDS));
+            }
+        }
+        return new PortfolioPaintShopSolver(this.portfolioExecutor(), strategies);
+    }
+
+    private synchronized ExecutorService portfolioExecutor() {
+        if (this.portfolioExecutor == null) {
+            this.portfolioExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "paintshop-portfolio");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.portfolioExecutor;
+    }
+}
@@ -0,0 +1,158 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A worker of a {@link PaintShopCoordinator}: it listens on a loopback port, and solves the shards sent by
+ * the coordinator, one after the other on each connection, with the solver named in the shard.
+ * When the solver throws, the error goes back to the coordinator, and the worker waits for the next shard.
+ * <p>A worker is usually a JVM of its own, started with <code>PaintShop --worker=&lt;port&gt;</code>,
+ * but several workers can run in the same JVM, e.g. for tests.</p>
+ */
+public final class PaintShopWorker implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaintShopWorker.class);
+
+    private static final AtomicInteger WORKER_NUMBER = new AtomicInteger();
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    private PaintShopWorker(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        this.acceptor = new Thread(this::accept, "paintshop-worker-" + WORKER_NUMBER.incrementAndGet());
+        this.acceptor.setDaemon(true);
+    }
+
+    /**
+     * Starts a worker listening on the loopback address.
+     *
+     * @param port the port, 0 for any free port
+     * @return the worker, accepting connections
+     * @throws IOException if the port cannot be bound
+     */
+    public static PaintShopWorker start(int port) throws IOException {
+        PaintShopWorker worker = new PaintShopWorker(new ServerSocket(port, 50, InetAddress.getLoopbackAddress()));
+        worker.acceptor.start();
+        LOGGER.info("Worker listening on port {}", worker.port());
+        return worker;
+    }
+
+    /**
+     * @return the port the worker listens on
+     */
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Waits until the worker is closed.
+     *
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void join() throws InterruptedException {
+        acceptor.join();
+    }
+
+    /**
+     * Stops listening, and closes the connections: the shards being solved are lost, the coordinator sends
+     * them to another worker.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException exception) {
+            LOGGER.warn("Error closing the worker: {}", exception.getMessage());
+        }
+        for (Socket connection : new ArrayList<>(connections)) {
+            closeQuietly(connection);
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket connection = serverSocket.accept();
+                connections.add(connection);
+                Thread thread = new Thread(() -> this.serve(connection), acceptor.getName() + "-connection");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException exception) {
+                if (!serverSocket.isClosed()) {
+                    LOGGER.warn("Error accepting a connection: {}", exception.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            while (true) {
+                ShardProtocol.Shard shard = ShardProtocol.readShard(input);
+                LOGGER.debug("Shard: {} paints, {} customer tastes", shard.clauses.nbPaints(), shard.clauses.size());
+                final PaintShopSolution solution;
+                try {
+                    solution = solve(shard);
+                } catch (RuntimeException exception) {
+                    LOGGER.warn("Shard failed: {}", exception.getMessage());
+                    ShardProtocol.writeError(output, exception);
+                    continue;
+                }
+                ShardProtocol.writeSolution(output, solution);
+            }
+        } catch (EOFException exception) {
+            LOGGER.debug("Connection closed by the coordinator");
+        } catch (IOException exception) {
+            LOGGER.warn("Connection lost: {}", exception.getMessage());
+        } finally {
+            connections.remove(connection);
+            closeQuietly(connection);
+        }
+    }
+
+    private static PaintShopSolution solve(ShardProtocol.Shard shard) {
+        CustomerTasteClauses clauses = shard.clauses;
+        List<CustomerTaste> customerTastes = new ArrayList<>(clauses.size());
+        int[] literals = new int[8];
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            if (clauses.length(clause) > literals.length) {
+                literals = new int[clauses.length(clause)];
+            }
+            for (int position = 0; position < clauses.length(clause); position++) {
+                literals[position] = clauses.literal(clause, position);
+            }
+            customerTastes.add(new CustomerTaste(clauses.nbPaints(), "", literals, clauses.length(clause)));
+        }
+        return PaintShopProblem.of(clauses.nbPaints(), customerTastes)
+                .withSolver(shard.solverName)
+                .solve(shard.budget);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException exception) {
+            LOGGER.debug("Error closing a connection: {}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Classes of interchangeable paints: the paints referenced by exactly the same customer tastes with the same
+ * finishes, and with the same domain, e.g. identical colour variants.
+ * <p>Swapping two paints of a class, when the matte finish costs as much more than the gloss one for both,
+ * maps every solution to a valid solution of the same cost: the search only needs, out of each set of
+ * permuted solutions, the one where the cheapest finish comes first, by paint index (the lex-leader). This is
+ * the order in which the search tries the finishes.</p>
+ * <p>The lex-leader constraints are customer tastes of two paint references, one per pair of consecutive
+ * paints <code>a &lt; b</code> of a class with the same costs: e.g. <code>a G b M</code> when gloss is the
+ * cheapest finish, i.e. not <code>a</code> matte with <code>b</code> gloss. Like the customer tastes, they
+ * have at most one matte. They are appended to the clauses by {@link #breaking}, without copying them.</p>
+ * <p>The classes only depend on the clauses and the domains: they are found once, e.g. by a
+ * {@link PreparedPaintShopProblem}, and the costs are only taken into account by {@link #breaking}.</p>
+ * <p>The paints referenced by no customer taste, or with a single finish left, are not searched: they are
+ * left out of the classes.</p>
+ */
+final class PaintSymmetries {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaintSymmetries.class);
+
+    private static final long MULTIPLIER = 0x9E37_79B9_7F4A_7C15L; //golden ratio, 64 bits
+
+    private final int[] next; //1-based paint -> next paint of its class, 0 if none
+    private final int[] firsts; //the first paint of each class
+    private final int nbPaints;
+
+    private PaintSymmetries(int[] next, int[] firsts, int nbPaints) {
+        this.next = next;
+        this.firsts = firsts;
+        this.nbPaints = nbPaints;
+    }
+
+    /**
+     * Groups the paints by occurrences, in one pass over the clauses: each paint gets a rolling hash of the
+     * clauses and finishes it is referenced with, and only the paints of equal hashes are compared, through
+     * the clause store. The clauses are not copied, they can be off-heap.
+     *
+     * @param clauses the compiled customer tastes
+     * @param domains the domain of each paint (1-based), one bit per {@link PaintFinish#ordinal()}
+     * @param meter   the budget the hashes and the classes are reserved from
+     * @return the classes of interchangeable paints, or <code>null</code> if the budget is exhausted
+     */
+    static PaintSymmetries of(ClauseStore clauses, byte[] domains, BudgetMeter meter) {
+        int nbPaints = clauses.nbPaints();
+        //hashes, sort keys, then next paints, first paints of the classes and candidates
+        if (meter.reserve(Long.BYTES * (2L * nbPaints + 1) + Integer.BYTES * (3L * nbPaints + 1))) {
+            return null;
+        }
+        long[] hashes = new long[nbPaints + 1];
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            for (int position = 0; position < clauses.length(clause); position++) {
+                int literal = clauses.literal(clause, position);
+                int paint = ClauseStore.paint(literal);
+                hashes[paint] = (hashes[paint] ^ (2L * clause + ClauseStore.finish(literal).ordinal())) * MULTIPLIER;
+            }
+        }
+
+        //searched paints, sorted by hash then by paint
+        long[] keys = new long[nbPaints];
+        int nbKeys = 0;
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            if (clauses.occurrenceCount(paint) > 0 && Integer.bitCount(domains[paint]) > 1) {
+                long hash = (hashes[paint] ^ domains[paint]) * MULTIPLIER;
+                keys[nbKeys++] = (hash ^ (hash >>> 32)) << 32 | paint;
+            }
+        }
+        Arrays.sort(keys, 0, nbKeys);
+
+        int[] next = new int[nbPaints + 1];
+        int[] firsts = new int[nbKeys / 2];
+        int nbClasses = 0;
+        int[] candidates = new int[nbKeys]; //positions in the keys
+        long[] finishes = hashes; //no more needed: the finishes of the paints in the current clause
+        Arrays.fill(finishes, 0L);
+        for (int from = 0, to; from < nbKeys; from = to) {
+            to = from + 1;
+            while (to < nbKeys && keys[to] >>> 32 == keys[from] >>> 32) {
+                to++;
+            }
+            //the paints of equal hashes: a class per paint not grouped yet, with the equivalent next ones
+            for (int first = from; first < to; first++) {
+                int paint = (int) keys[first];
+                if (paint == 0) {
+                    continue; //grouped with a previous paint already
+                }
+                int nbCandidates = 0;
+                for (int other = first + 1; other < to; other++) {
+                    if ((int) keys[other] != 0 && sameClauses(clauses, domains, paint, (int) keys[other])) {
+                        candidates[nbCandidates++] = other;
+                    }
+                }
+                //one scan of each clause for all the candidates, even when a clause references them all
+                for (int position = 0; position < clauses.occurrenceCount(paint) && nbCandidates > 0; position++) {
+                    int clause = clauses.occurrence(paint, position);
+                    setFinishes(clauses, clause, finishes, true);
+                    int kept = 0;
+                    for (int candidate = 0; candidate < nbCandidates; candidate++) {
+                        if (finishes[(int) keys[candidates[candidate]]] == finishes[paint]) {
+                            candidates[kept++] = candidates[candidate];
+                        }
+                    }
+                    nbCandidates = kept;
+                    setFinishes(clauses, clause, finishes, false);
+                }
+                int last = paint;
+                for (int candidate = 0; candidate < nbCandidates; candidate++) {
+                    next[last] = (int) keys[candidates[candidate]];
+                    last = next[last];
+                    keys[candidates[candidate]] &= ~0xFFFF_FFFFL; //grouped
+                }
+                if (last != paint) {
+                    firsts[nbClasses++] = paint;
+                }
+            }
+        }
+        LOGGER.debug("nbPaints: {} - classes of interchangeable paints: {}", nbPaints, nbClasses);
+        return new PaintSymmetries(next, Arrays.copyOf(firsts, nbClasses), nbPaints);
+    }
+
+    /**
+     * @return true if the paints have the same domain, and are referenced by the same clauses
+     */
+    private static boolean sameClauses(ClauseStore clauses, byte[] domains, int paint, int other) {
+        int count = clauses.occurrenceCount(paint);
+        if (domains[paint] != domains[other] || clauses.occurrenceCount(other) != count) {
+            return false;
+        }
+        for (int position = 0; position < count; position++) {
+            if (clauses.occurrence(paint, position) != clauses.occurrence(other, position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the finishes of each paint of the clause, one bit per {@link PaintFinish#ordinal()}, or clears them.
+     */
+    private static void setFinishes(ClauseStore clauses, int clause, long[] finishes, boolean set) {
+        for (int position = 0; position < clauses.length(clause); position++) {
+            int literal = clauses.literal(clause, position);
+            int paint = ClauseStore.paint(literal);
+            finishes[paint] = set ? finishes[paint] | 1L << ClauseStore.finish(literal).ordinal() : 0L;
+        }
+    }
+
+    /**
+     * @return the number of classes of at least two interchangeable paints
+     */
+    int nbClasses() {
+        return firsts.length;
+    }
+
+    /**
+     * @param paint 1-based paint index
+     * @return the next paint of the class of the paint, or 0 if it is the last one, or not in a class
+     */
+    int next(int paint) {
+        return next[paint];
+    }
+
+    /**
+     * Appends the lex-leader constraints of the paints with the same costs in each class, oriented by their
+     * cheapest finish.
+     *
+     * @param clauses the clauses the symmetries were found in
+     * @param costs   the cost of each finish of each paint, at <code>2 * paint + finish ordinal</code>
+     * @param meter   the budget the constraints are reserved from
+     * @return the clauses followed by the lex-leader constraints, or the same clauses if there is no class,
+     * or if the budget is exhausted
+     */
+    ClauseStore breaking(ClauseStore clauses, long[] costs, BudgetMeter meter) {
+        if (firsts.length == 0 || meter.reserve(Integer.BYTES * (4L * nbPaints + 3) + 8L * (nbPaints + 1))) {
+            return clauses;
+        }
+        int[] pairNext = new int[nbPaints + 1];
+        int[] previous = new int[nbPaints + 1];
+        int[] pair = new int[nbPaints + 1];
+        int[] pairFirst = new int[nbPaints];
+        PaintFinish[] cheapest = new PaintFinish[nbPaints + 1];
+        int nbPairs = 0;
+        Map<Long, Integer> lastOfCost = new HashMap<>();
+        for (int first : firsts) {
+            boolean sameCosts = true;
+            for (int paint = next[first]; paint != 0 && sameCosts; paint = next[paint]) {
+                sameCosts = difference(costs, paint) == difference(costs, first);
+            }
+            lastOfCost.clear();
+            int last = 0;
+            for (int paint = first; paint != 0; paint = next[paint]) {
+                //the previous paint of the class with the same costs, the previous one of the class mostly
+                int pairedWith = last;
+                if (!sameCosts) {
+                    Integer lastOfSameCost = lastOfCost.put(difference(costs, paint), paint);
+                    pairedWith = lastOfSameCost == null ? 0 : lastOfSameCost;
+                }
+                last = paint;
+                if (pairedWith == 0) {
+                    continue;
+                }
+                cheapest[pairedWith] = difference(costs, paint) < 0 ? PaintFinish.M : PaintFinish.G;
+                cheapest[paint] = cheapest[pairedWith];
+                pairNext[pairedWith] = paint;
+                previous[paint] = pairedWith;
+                pairFirst[nbPairs] = pairedWith;
+                pair[pairedWith] = nbPairs++;
+            }
+        }
+        LOGGER.debug("lex-leader clauses: {}", nbPairs);
+        return nbPairs == 0 ? clauses :
+                new LexLeaderClauses(clauses, pairNext, previous, pair, Arrays.copyOf(pairFirst, nbPairs), cheapest);
+    }
+
+    /**
+     * @return how much more the matte finish of the paint costs than the gloss one
+     */
+    private static long difference(long[] costs, int paint) {
+        return costs[2 * paint + PaintFinish.M.ordinal()] - costs[2 * paint + PaintFinish.G.ordinal()];
+    }
+
+    /**
+     * The clauses, then one lex-leader clause per pair of consecutive paints of the same costs in a class,
+     * numbered by their second paint: the occurrences of each paint stay sorted by clause.
+     */
+    private static final class LexLeaderClauses implements ClauseStore {
+        private final ClauseStore clauses;
+        private final int size;
+        private final int[] next; //1-based paint -> next paint of its pair, 0 if none
+        private final int[] previous; //1-based paint -> previous paint of its pair, 0 if none
+        private final int[] pair; //1-based paint -> index of the lex-leader clause with its next paint
+        private final int[] pairFirst; //index of a lex-leader clause -> its first paint
+        private final PaintFinish[] cheapest; //1-based paint -> its cheapest finish, gloss on a tie
+
+        private LexLeaderClauses(ClauseStore clauses, int[] next, int[] previous, int[] pair, int[] pairFirst,
+                                 PaintFinish[] cheapest) {
+            this.clauses = clauses;
+            this.size = clauses.size();
+            this.next = next;
+            this.previous = previous;
+            this.pair = pair;
+            this.pairFirst = pairFirst;
+            this.cheapest = cheapest;
+        }
+
+        @Override
+        public int nbPaints() {
+            return clauses.nbPaints();
+        }
+
+        @Override
+        public int size() {
+            return size + pairFirst.length;
+        }
+
+        @Override
+        public int length(int clause) {
+            return clause < size ? clauses.length(clause) : 2;
+        }
+
+        @Override
+        public int literal(int clause, int position) {
+            if (clause < size) {
+                return clauses.literal(clause, position);
+            }
+            int first = pairFirst[clause - size];
+            return position == 0 ?
+                    ClauseStore.literal(first, cheapest[first]) :
+                    ClauseStore.literal(next[first], cheapest[first].opposite());
+        }
+
+        @Override
+        public int occurrenceCount(int paint) {
+            return clauses.occurrenceCount(paint) + (previous[paint] == 0 ? 0 : 1) + (next[paint] == 0 ? 0 : 1);
+        }
+
+        @Override
+        public int occurrence(int paint, int position) {
+            int count = clauses.occurrenceCount(paint);
+            if (position < count) {
+                return clauses.occurrence(paint, position);
+            }
+            if (position == count && previous[paint] != 0) {
+                return size + pair[previous[paint]];
+            }
+            return size + pair[paint];
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopError;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_CUSTOMER_TASTE;
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_INPUT_FILE_NUMBER_OF_PAINTS;
+
+/**
+ * The invalid lines of a problem definition parsed leniently (see {@link PaintShopProblem#lenient()}):
+ * for each of them, its line number, its {@link PaintShopError} and the line itself, quarantined.
+ * <p>The diagnostics are compact: the reason of each invalid line is a code, the messages are only built
+ * on demand, by {@link #message(int)}.</p>
+ */
+public final class ParseDiagnostics {
+
+    private static final int NB_PAINTS_REASON = -1;
+
+    private final int nbPaints;
+    private int size;
+    private int[] lineNumbers = new int[8];
+    private byte[] reasons = new byte[8]; //a CustomerTasteParser status, or NB_PAINTS_REASON
+    private final List<String> lines = new ArrayList<>();
+
+    /**
+     * @param nbPaints the number of paints the customer tastes are validated against
+     */
+    ParseDiagnostics(int nbPaints) {
+        this.nbPaints = nbPaints;
+    }
+
+    void addInvalidNbPaints(String line) {
+        this.add(1, NB_PAINTS_REASON, line);
+    }
+
+    /**
+     * @param lineNumber 1-based line number
+     * @param status     the status returned by {@link CustomerTasteParser#parse}
+     * @param line       the invalid customer taste
+     */
+    void addInvalidCustomerTaste(int lineNumber, int status, String line) {
+        this.add(lineNumber, status, line);
+    }
+
+    private void add(int lineNumber, int reason, String line) {
+        if (size == lineNumbers.length) {
+            lineNumbers = Arrays.copyOf(lineNumbers, 2 * size);
+            reasons = Arrays.copyOf(reasons, 2 * size);
+        }
+        lineNumbers[size] = lineNumber;
+        reasons[size] = (byte) reason;
+        lines.add(line);
+        size++;
+    }
+
+    /**
+     * @return the number of invalid lines
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index index of the diagnostic, in <code>[0, size()[</code>
+     * @return the 1-based number of the invalid line, the number of paints being on line 1
+     */
+    public int lineNumber(int index) {
+        return lineNumbers[this.checked(index)];
+    }
+
+    /**
+     * @param index index of the diagnostic, in <code>[0, size()[</code>
+     * @return the error, as the strict parsing would have thrown it
+     */
+    public PaintShopError error(int index) {
+        return reasons[this.checked(index)] == NB_PAINTS_REASON ?
+                INVALID_INPUT_FILE_NUMBER_OF_PAINTS : INVALID_CUSTOMER_TASTE;
+    }
+
+    /**
+     * @param index index of the diagnostic, in <code>[0, size()[</code>
+     * @return the invalid line, skipped by the parsing
+     */
+    public String line(int index) {
+        return lines.get(this.checked(index));
+    }
+
+    /**
+     * @param index index of the diagnostic, in <code>[0, size()[</code>
+     * @return the message of the exception the strict parsing would have thrown
+     */
+    public String message(int index) {
+        String line = this.line(index);
+        if (reasons[index] == NB_PAINTS_REASON) {
+            return String.format("First line '%s' is expected to be an integer.", line);
+        }
+        CustomerTasteParser parser = new CustomerTasteParser();
+        return parser.advice(parser.parse(line, nbPaints), line, nbPaints);
+    }
+
+    private int checked(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Diagnostic %d of %d.", index, size));
+        }
+        return index;
+    }
+
+    /**
+     * @return one line per diagnostic, e.g. "line 3 - 4:Invalid color set customer taste. - Customer taste..."
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int index = 0; index < size; index++) {
+            if (index > 0) {
+                result.append(System.lineSeparator());
+            }
+            result.append("line ").append(lineNumbers[index])
+                    .append(" - ").append(this.error(index))
+                    .append(" - ").append(this.message(index));
+        }
+        return result.toString();
+    }
+}
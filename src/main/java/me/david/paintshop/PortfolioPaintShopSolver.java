@@ -0,0 +1,159 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static me.david.paintshop.exceptions.PaintShopError.SOLVER_INTERRUPTED;
+import static me.david.paintshop.exceptions.PaintShopError.SOLVER_TIMEOUT;
+
+/**
+ * Implementation of a <code>PaintShopSolver</code> racing several solvers, a.k.a. strategies,
+ * on a shared executor.
+ * <p>All the solvers are exact: the first one to complete gives a proven answer (the cheapest of its
+ * solutions, or unsatisfiable). Its solutions are returned and the other strategies are cancelled:
+ * their thread is interrupted and the solver loops stop on the next interruption check.</p>
+ * <p>Each strategy has its own timeout, measured from the submission of the strategy to the executor.
+ * A strategy that times out is cancelled, the others keep running. A strategy that fails, e.g. crashes,
+ * is dropped from the race as well: the race is only reported as a timeout if a strategy timed out,
+ * otherwise the failure of the first strategy is rethrown.</p>
+ */
+public class PortfolioPaintShopSolver implements PaintShopSolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PortfolioPaintShopSolver.class);
+
+    private final ExecutorService executor;
+    private final List<Strategy> strategies;
+
+    /**
+     * Constructor.
+     *
+     * @param executor   the executor running the strategies. It is shared, so it is not shut down by the solver
+     * @param strategies the strategies to race
+     */
+    public PortfolioPaintShopSolver(ExecutorService executor, List<Strategy> strategies) {
+        this.executor = executor;
+        this.strategies = strategies;
+    }
+
+    /**
+     * Races the strategies and returns the solutions of the first one to complete.
+     *
+     * @return the list of solutions of the winning strategy
+     * @throws PaintShopSolverRuntimeException if no strategy completed and at least one timed out, with the
+     *                                         failures of the others suppressed, or if the calling thread is
+     *                                         interrupted
+     * @throws RuntimeException                the failure of the first strategy, with the failures of the others
+     *                                         suppressed, if every strategy failed without timing out
+     */
+    @Override
+    public List<String> solutions() {
+        CompletionService<List<String>> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<List<String>>, Strategy> running = new HashMap<>();
+        Map<Future<List<String>>, Long> deadlines = new HashMap<>();
+        for (Strategy strategy : strategies) {
+            Future<List<String>> future = completionService.submit(strategy.solver()::solutions);
+            running.put(future, strategy);
+            deadlines.put(future, System.nanoTime() + strategy.timeoutNanos());
+        }
+
+        boolean timedOut = false;
+        Throwable failure = null;
+        try {
+            while (!running.isEmpty()) {
+                long now = System.nanoTime();
+                Iterator<Map.Entry<Future<List<String>>, Strategy>> iterator = running.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Future<List<String>>, Strategy> entry = iterator.next();
+                    if (deadlines.get(entry.getKey()) - now <= 0) {
+                        LOGGER.info("Strategy '{}' timed out", entry.getValue().name());
+                        entry.getKey().cancel(true);
+                        iterator.remove();
+                        timedOut = true;
+                    }
+                }
+                if (running.isEmpty()) {
+                    break;
+                }
+
+                long wait = running.keySet().stream()
+                        .mapToLong(deadlines::get)
+                        .min()
+                        .getAsLong() - now;
+                Future<List<String>> done = completionService.poll(wait, TimeUnit.NANOSECONDS);
+                Strategy strategy = done == null ? null : running.remove(done);
+                if (strategy == null) {
+                    continue; //nothing completed, or a strategy already cancelled
+                }
+                try {
+                    List<String> solutions = done.get();
+                    LOGGER.info("Strategy '{}' won the race", strategy.name());
+                    return solutions;
+                } catch (ExecutionException exception) {
+                    LOGGER.warn("Strategy '{}' failed", strategy.name(), exception.getCause());
+                    if (failure == null) {
+                        failure = exception.getCause();
+                    } else {
+                        failure.addSuppressed(exception.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new PaintShopSolverRuntimeException(SOLVER_INTERRUPTED,
+                    "Interrupted while waiting for the strategies.", exception);
+        } finally {
+            running.keySet().forEach(future -> future.cancel(true));
+        }
+
+        if (failure != null && !timedOut) {
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw (RuntimeException) failure; //a solver only throws unchecked exceptions
+        }
+        PaintShopSolverRuntimeException timeout = new PaintShopSolverRuntimeException(SOLVER_TIMEOUT,
+                String.format("Strategies: %s.", strategies.stream()
+                        .map(Strategy::name)
+                        .collect(Collectors.toList())));
+        if (failure != null) {
+            timeout.addSuppressed(failure);
+        }
+        throw timeout;
+    }
+
+    /**
+     * A named solver with its timeout.
+     */
+    public static final class Strategy {
+        private final String name;
+        private final PaintShopSolver solver;
+        private final long timeoutNanos;
+
+        public Strategy(String name, PaintShopSolver solver, long timeout, TimeUnit unit) {
+            this.name = name;
+            this.solver = solver;
+            this.timeoutNanos = unit.toNanos(timeout);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public PaintShopSolver solver() {
+            return solver;
+        }
+
+        long timeoutNanos() {
+            return timeoutNanos;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
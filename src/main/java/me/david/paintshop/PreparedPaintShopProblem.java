@@ -0,0 +1,230 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A problem parsed and analysed once, to be solved many times, e.g. for pricing scenarios with different
+ * {@link PaintCostModel}s.
+ * <p>The preparation does all the work that does not depend on the costs:</p>
+ * <ul>
+ * <li>the customer tastes are compiled into {@link CustomerTasteClauses},</li>
+ * <li>the domains of the paints are reduced by unit propagation (the {@link AC2001SatSolver}
+ * arc consistency, which is unit propagation on clauses): an unsatisfiable problem is detected once,</li>
+ * <li>the paints are split into {@link Components}, and the clauses of each component are renumbered
+ * into a clause store of their own,</li>
+ * <li>the {@link PaintSymmetries} of each component are found, only their lex-leader constraints depend on
+ * the costs.</li>
+ * </ul>
+ * <p>Each {@link #solve(PaintCostModel, SolverBudget)} then runs a {@link BacktrackingSearch} per component
+ * with more than one paint; the other paints take their cheapest allowed finish.</p>
+ * <p>Immutable and thread-safe: the searches only read the prepared structures, so concurrent solves do
+ * not need any synchronization.</p>
+ */
+public final class PreparedPaintShopProblem {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreparedPaintShopProblem.class);
+
+    private static final PaintFinish[] FINISHES = PaintFinish.values();
+
+    private final int nbPaints;
+    private final byte[] domains; //1-based, null if unsatisfiable
+    private final Components components;
+    private final int[] paintOffsets; //start of each component in paints, plus the end of the last one
+    private final int[] paints; //the paints of each component, in increasing order
+    private final CustomerTasteClauses[] componentClauses; //renumbered from 1, null for a single paint
+    private final PaintSymmetries[] componentSymmetries; //null for a single paint, or if unsatisfiable
+
+    private PreparedPaintShopProblem(int nbPaints, byte[] domains, Components components,
+                                     int[] paintOffsets, int[] paints, CustomerTasteClauses[] componentClauses,
+                                     PaintSymmetries[] componentSymmetries) {
+        this.nbPaints = nbPaints;
+        this.domains = domains;
+        this.components = components;
+        this.paintOffsets = paintOffsets;
+        this.paints = paints;
+        this.componentClauses = componentClauses;
+        this.componentSymmetries = componentSymmetries;
+    }
+
+    /**
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @return the prepared problem
+     */
+    static PreparedPaintShopProblem prepare(int nbPaints, List<CustomerTaste> customerTastes) {
+        CustomerTasteClauses clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+
+        byte[] domains = new byte[nbPaints + 1];
+        Arrays.fill(domains, (byte) ((1 << FINISHES.length) - 1));
+        if (!new AC2001SatSolver(clauses).ac2001(domains, SolverBudget.unlimited().start())) {
+            LOGGER.debug("unsatisfiable after unit propagation");
+            domains = null;
+        }
+
+        Components components = Components.of(clauses);
+        int count = components.count();
+
+        //paints of each component: count, prefix sum, then fill
+        int[] paintOffsets = new int[count + 1];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            paintOffsets[components.of(paint) + 1]++;
+        }
+        for (int component = 1; component <= count; component++) {
+            paintOffsets[component] += paintOffsets[component - 1];
+        }
+        int[] paints = new int[nbPaints];
+        int[] local = new int[nbPaints + 1]; //1-based index of a paint in its component
+        int[] fill = Arrays.copyOf(paintOffsets, count);
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            int component = components.of(paint);
+            local[paint] = fill[component] - paintOffsets[component] + 1;
+            paints[fill[component]++] = paint;
+        }
+
+        CustomerTasteClauses[] componentClauses = new CustomerTasteClauses[count];
+        int[] nbClauses = new int[count];
+        int[] nbLiterals = new int[count];
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            int component = components.of(ClauseStore.paint(clauses.literal(clause, 0)));
+            nbClauses[component]++;
+            nbLiterals[component] += clauses.length(clause);
+        }
+        int[][] offsets = new int[count][];
+        int[][] literals = new int[count][];
+        for (int component = 0; component < count; component++) {
+            if (paintOffsets[component + 1] - paintOffsets[component] > 1) {
+                offsets[component] = new int[nbClauses[component] + 1];
+                literals[component] = new int[nbLiterals[component]];
+                nbClauses[component] = 0;
+                nbLiterals[component] = 0;
+            }
+        }
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            int component = components.of(ClauseStore.paint(clauses.literal(clause, 0)));
+            if (offsets[component] == null) {
+                continue; //single paint: its clauses are taken into account by the domains
+            }
+            for (int position = 0; position < clauses.length(clause); position++) {
+                int literal = clauses.literal(clause, position);
+                literals[component][nbLiterals[component]++] =
+                        ClauseStore.literal(local[ClauseStore.paint(literal)], ClauseStore.finish(literal));
+            }
+            offsets[component][++nbClauses[component]] = nbLiterals[component];
+        }
+        PaintSymmetries[] componentSymmetries = new PaintSymmetries[count];
+        for (int component = 0; component < count; component++) {
+            if (offsets[component] != null) {
+                componentClauses[component] = new CustomerTasteClauses(
+                        paintOffsets[component + 1] - paintOffsets[component],
+                        offsets[component], literals[component]);
+                if (domains != null) {
+                    componentSymmetries[component] = PaintSymmetries.of(componentClauses[component],
+                            localDomains(domains, paints, paintOffsets, component),
+                            SolverBudget.unlimited().start());
+                }
+            }
+        }
+        LOGGER.debug("nbPaints: {} - components: {}", nbPaints, count);
+        return new PreparedPaintShopProblem(nbPaints, domains, components, paintOffsets, paints, componentClauses,
+                componentSymmetries);
+    }
+
+    /**
+     * @return the domains of the paints of the component, renumbered from 1
+     */
+    private static byte[] localDomains(byte[] domains, int[] paints, int[] paintOffsets, int component) {
+        int from = paintOffsets[component];
+        byte[] localDomains = new byte[paintOffsets[component + 1] - from + 1];
+        for (int local = 1; local < localDomains.length; local++) {
+            localDomains[local] = domains[paints[from + local - 1]];
+        }
+        return localDomains;
+    }
+
+    /**
+     * @return the number of paints
+     */
+    public int nbPaints() {
+        return nbPaints;
+    }
+
+    /**
+     * Solves the problem without budget.
+     *
+     * @param costModel the costs of the finishes
+     * @return the cheapest solution for these costs
+     */
+    public PaintShopSolution solve(PaintCostModel costModel) {
+        return this.solve(costModel, SolverBudget.unlimited());
+    }
+
+    /**
+     * Solves the problem within a budget, shared by the searches of all the components.
+     *
+     * @param costModel the costs of the finishes
+     * @param budget    the budget of the run
+     * @return the cheapest solution for these costs, {@link PaintShopSolution.Status#FEASIBLE} if the budget
+     * ran out after a solution of each component was found, or {@link PaintShopSolution.Status#UNKNOWN}
+     */
+    public PaintShopSolution solve(PaintCostModel costModel, SolverBudget budget) {
+        if (domains == null) {
+            return PaintShopSolution.unsatisfiable();
+        }
+        BudgetMeter meter = budget.start();
+        char[] finishes = new char[nbPaints];
+        boolean completed = true;
+        for (int component = 0; component < components.count(); component++) {
+            int from = paintOffsets[component];
+            if (componentClauses[component] == null) {
+                int paint = paints[from];
+                finishes[paint - 1] = this.cheapestAllowed(paint, costModel).name().charAt(0);
+                continue;
+            }
+
+            byte[] localDomains = localDomains(domains, paints, paintOffsets, component);
+            PaintShopSolution solution = new BacktrackingSearch(componentClauses[component], localDomains,
+                    (local, finish) -> costModel.cost(paints[from + local - 1], finish))
+                    .withSymmetries(componentSymmetries[component])
+                    .solve(meter);
+            if (!solution.paintBatches().isPresent()) {
+                return solution;
+            }
+            completed &= solution.isOptimal();
+            String componentFinishes = solution.paintBatches().get().finishesRepresentation();
+            for (int local = 1; local < localDomains.length; local++) {
+                finishes[paints[from + local - 1] - 1] = componentFinishes.charAt(local - 1);
+            }
+        }
+        return PaintShopSolution.of(new String(finishes), completed);
+    }
+
+    private PaintFinish cheapestAllowed(int paint, PaintCostModel costModel) {
+        PaintFinish cheapest = null;
+        for (PaintFinish finish : FINISHES) {
+            if ((domains[paint] & 1 << finish.ordinal()) != 0
+                    && (cheapest == null || costModel.cost(paint, finish) < costModel.cost(paint, cheapest))) {
+                cheapest = finish;
+            }
+        }
+        return cheapest;
+    }
+
+    /**
+     * @param paint 1-based paint index
+     * @return the finishes of the paint left by unit propagation, one bit per {@link PaintFinish#ordinal()},
+     * or 0 if the problem is unsatisfiable
+     */
+    byte domain(int paint) {
+        return domains == null ? 0 : domains[paint];
+    }
+
+    /**
+     * @return the number of independent components
+     */
+    int nbComponents() {
+        return components.count();
+    }
+}
@@ -0,0 +1,79 @@
+package me.david.paintshop;
+
+import java.util.List;
+
+/**
+ * Cheap features of a paint shop problem, computed in one pass over the customer tastes.
+ * <p>Used by {@link PaintShopSolverSelector} to pick a solver for the shape of the problem.</p>
+ */
+public final class ProblemFeatures {
+
+    private final int nbPaints;
+    private final int nbCustomers;
+    private final double meanClauseLength;
+    private final int maxClauseLength;
+    private final double unitClauseRatio;
+
+    ProblemFeatures(int nbPaints, int nbCustomers, double meanClauseLength, int maxClauseLength,
+                    double unitClauseRatio) {
+        this.nbPaints = nbPaints;
+        this.nbCustomers = nbCustomers;
+        this.meanClauseLength = meanClauseLength;
+        this.maxClauseLength = maxClauseLength;
+        this.unitClauseRatio = unitClauseRatio;
+    }
+
+    /**
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @return the features of the problem
+     */
+    public static ProblemFeatures of(int nbPaints, List<CustomerTaste> customerTastes) {
+        long totalLength = 0;
+        int maxLength = 0;
+        int nbUnits = 0;
+        for (CustomerTaste customerTaste : customerTastes) {
+            int length = customerTaste.count();
+            totalLength += length;
+            maxLength = Math.max(maxLength, length);
+            if (length == 1) {
+                nbUnits++;
+            }
+        }
+        int nbCustomers = customerTastes.size();
+        return new ProblemFeatures(nbPaints, nbCustomers,
+                nbCustomers == 0 ? 0 : (double) totalLength / nbCustomers,
+                maxLength,
+                nbCustomers == 0 ? 0 : (double) nbUnits / nbCustomers);
+    }
+
+    public int nbPaints() {
+        return nbPaints;
+    }
+
+    public int nbCustomers() {
+        return nbCustomers;
+    }
+
+    public double meanClauseLength() {
+        return meanClauseLength;
+    }
+
+    public int maxClauseLength() {
+        return maxClauseLength;
+    }
+
+    /**
+     * @return the ratio of customers liking only one paint
+     */
+    public double unitClauseRatio() {
+        return unitClauseRatio;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{\"nbpaints\":%d,\"nbcustomers\":%d,\"meanclauselength\":%.2f,\"maxclauselength\":%d," +
+                        "\"unitclauseratio\":%.2f}",
+                nbPaints, nbCustomers, meanClauseLength, maxClauseLength, unitClauseRatio);
+    }
+}
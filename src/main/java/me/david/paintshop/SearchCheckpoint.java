@@ -0,0 +1,163 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_CHECKPOINT;
+
+/**
+ * The state of a {@link BacktrackingSearch}, enough to resume it where it stopped:
+ * <ul>
+ * <li>the domains the search started from, e.g. reduced by arc consistency,</li>
+ * <li>the frontier: the paint decided at each depth and the rank of its next finish to try, the decisions
+ * being the finishes before,</li>
+ * <li>the cheapest solution found so far, and its cost.</li>
+ * </ul>
+ * <p>The propagated assignments are not saved: replaying the decisions propagates them again. The file is
+ * gzipped, and written to a temporary file first, then moved: a crash while writing leaves the previous
+ * checkpoint intact.</p>
+ */
+final class SearchCheckpoint {
+
+    private static final int MAGIC = 0x5053_4331; //'PSC1'
+    private static final byte ALL_FINISHES = (byte) ((1 << PaintFinish.values().length) - 1);
+
+    final long fingerprint;
+    final byte[] domains; //1-based
+    final int depth;
+    final int[] framePaints;
+    final byte[] frameNexts;
+    final String cheapest; //null if no solution found yet
+    final long cheapestCost;
+
+    SearchCheckpoint(long fingerprint, byte[] domains, int depth, int[] framePaints, byte[] frameNexts,
+                     String cheapest, long cheapestCost) {
+        this.fingerprint = fingerprint;
+        this.domains = domains;
+        this.depth = depth;
+        this.framePaints = framePaints;
+        this.frameNexts = frameNexts;
+        this.cheapest = cheapest;
+        this.cheapestCost = cheapestCost;
+    }
+
+    /**
+     * @param clauses the customer tastes searched
+     * @return a hash of the clauses, to check that a checkpoint is resumed on the same problem
+     */
+    static long fingerprint(ClauseStore clauses) {
+        long hash = 0xcbf2_9ce4_8422_2325L; //FNV-1a
+        hash = (hash ^ clauses.nbPaints()) * 0x100_0000_01b3L;
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            hash = (hash ^ clauses.length(clause)) * 0x100_0000_01b3L;
+            for (int position = 0; position < clauses.length(clause); position++) {
+                hash = (hash ^ clauses.literal(clause, position)) * 0x100_0000_01b3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @param file the checkpoint file, replaced atomically
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+                output.writeInt(MAGIC);
+                output.writeLong(fingerprint);
+                output.writeInt(domains.length);
+                output.write(domains);
+                output.writeInt(depth);
+                for (int frame = 0; frame < depth; frame++) {
+                    output.writeInt(framePaints[frame]);
+                    output.writeByte(frameNexts[frame]);
+                }
+                output.writeBoolean(cheapest != null);
+                if (cheapest != null) {
+                    output.write(cheapest.getBytes(StandardCharsets.US_ASCII));
+                    output.writeLong(cheapestCost);
+                }
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @param file     the checkpoint file
+     * @param nbPaints the number of paints of the problem searched: the counts read are checked against it
+     * @return the checkpoint, or <code>null</code> if the file does not exist
+     * @throws PaintShopInputRuntimeException if the file cannot be read, or its counts are out of range
+     */
+    static SearchCheckpoint read(Path file, int nbPaints) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (input.readInt() != MAGIC) {
+                throw new StreamCorruptedException("Not a checkpoint.");
+            }
+            long fingerprint = input.readLong();
+            int nbDomains = input.readInt();
+            if (nbDomains != nbPaints + 1) {
+                throw new StreamCorruptedException(String.format("%d domains for %d paints.", nbDomains, nbPaints));
+            }
+            byte[] domains = new byte[nbDomains];
+            input.readFully(domains);
+            for (int paint = 1; paint <= nbPaints; paint++) {
+                if (domains[paint] <= 0 || domains[paint] > ALL_FINISHES) {
+                    throw new StreamCorruptedException(String.format("Domain %d of paint %d.", domains[paint], paint));
+                }
+            }
+            int depth = input.readInt();
+            if (depth < 0 || depth > nbPaints) {
+                throw new StreamCorruptedException(String.format("Depth %d for %d paints.", depth, nbPaints));
+            }
+            int[] framePaints = new int[depth];
+            byte[] frameNexts = new byte[depth];
+            for (int frame = 0; frame < depth; frame++) {
+                framePaints[frame] = input.readInt();
+                frameNexts[frame] = input.readByte();
+                if (framePaints[frame] < 1 || framePaints[frame] > nbPaints
+                        || frameNexts[frame] < 0 || frameNexts[frame] > PaintFinish.values().length) {
+                    throw new StreamCorruptedException(String.format("Frame %d: paint %d, next finish %d.",
+                            frame, framePaints[frame], frameNexts[frame]));
+                }
+            }
+            String cheapest = null;
+            long cheapestCost = Long.MAX_VALUE;
+            if (input.readBoolean()) {
+                byte[] finishes = new byte[domains.length - 1];
+                input.readFully(finishes);
+                cheapest = new String(finishes, StandardCharsets.US_ASCII);
+                if (!cheapest.matches("[GM]*")) {
+                    throw new StreamCorruptedException(String.format("Cheapest solution '%s'.", cheapest));
+                }
+                cheapestCost = input.readLong();
+            }
+            return new SearchCheckpoint(fingerprint, domains, depth, framePaints, frameNexts,
+                    cheapest, cheapestCost);
+        } catch (NoSuchFileException exception) {
+            return null;
+        } catch (IOException exception) {
+            throw new PaintShopInputRuntimeException(INVALID_CHECKPOINT,
+                    String.format("Checkpoint '%s' cannot be read.", file), exception);
+        }
+    }
+}
@@ -10,7 +10,8 @@ import java.util.stream.Collectors;
  * This is a 'brute-force' search implementation of a solver: it generate all
  * combinations of paint and iterate on each of them with the customer tastes.
  * It sorts the list customer tastes by 'count' to try to exclude a paint
- * combination as soon as possible.
+ * combination as soon as possible, then moves the customer tastes rejecting the most
+ * combinations to the front (see {@link AdaptiveClauseOrder}).
  * <p>See README.md file for the full definition of the problem.</p>
  * <p>Main constraints are:</p>
  * <ul>
@@ -19,12 +20,36 @@ import java.util.stream.Collectors;
  * <li>You make as few mattes as possible (because they are more expensive).</li>
  * </ul>
  */
-public class SearchPaintShopSolver implements PaintShopSolver {
+public class SearchPaintShopSolver implements AnytimePaintShopSolver {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SearchPaintShopSolver.class);
 
+    private static final long BYTES_PER_PAINT = 2L * Character.BYTES; //the combination, and the cheapest one
+    private static final long BIT_SLICED_BYTES_PER_PAINT = Long.BYTES; //the matte bits of the 64 combinations
+
+    /**
+     * Order in which the combinations are enumerated
+     */
+    public enum Enumeration {
+        /**
+         * GGG, GGM, GMG, GMM... Each combination is checked against all the customer tastes.
+         */
+        LEXICOGRAPHIC,
+        /**
+         * GGG, GGM, GMM, GMG... One paint flips at each step, and only the customer tastes referencing it
+         * are checked again. See {@link GrayCodeWalk}.
+         */
+        GRAY_CODE,
+        /**
+         * Same order as {@link #LEXICOGRAPHIC}, but the customer tastes are checked against 64 combinations
+         * at once. See {@link BitSlicedEvaluator}.
+         */
+        BIT_SLICED
+    }
+
     private final int nbPaints;
     private final List<CustomerTaste> sortedCustomerTastes;
+    private final Enumeration enumeration;
 
     /**
      * Constructor.
@@ -35,7 +60,19 @@ public class SearchPaintShopSolver implements PaintShopSolver {
      * @param customerTastes the customer tastes
      */
     SearchPaintShopSolver(int nbPaints, List<CustomerTaste> customerTastes) {
+        this(nbPaints, customerTastes, Enumeration.LEXICOGRAPHIC);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param nbPaints       the number of paints as an int
+     * @param customerTastes the customer tastes
+     * @param enumeration    the order of enumeration of the combinations
+     */
+    SearchPaintShopSolver(int nbPaints, List<CustomerTaste> customerTastes, Enumeration enumeration) {
         this.nbPaints = nbPaints;
+        this.enumeration = enumeration;
 
         this.sortedCustomerTastes = customerTastes.stream()
                 .sorted(Comparator.comparing(CustomerTaste::count))
@@ -55,15 +92,35 @@ public class SearchPaintShopSolver implements PaintShopSolver {
      * Return a list of solutions to the problem.
      * <br>Each solution in a string representing the paints, e.g. 'GGG', 'GGM'.
      * <br>The index of each 'G/M' character is the 1-base index of the paint
+     * <br>The solutions are in the order of the {@link Enumeration}.
      *
      * @return the list of solutions
      */
     @Override
     public List<String> solutions() {
+        if (this.enumeration == Enumeration.GRAY_CODE) {
+            List<String> solutions = new LinkedList<>();
+            new GrayCodeWalk(this.clauses()).walk(SolverBudget.unlimited().start(),
+                    (mattes, nbMattes) -> solutions.add(representation(mattes)));
+            return solutions;
+        }
+        if (this.enumeration == Enumeration.BIT_SLICED) {
+            BitSlicedEvaluator evaluator = new BitSlicedEvaluator(this.clauses());
+            List<String> solutions = new LinkedList<>();
+            for (long block = 0; block < evaluator.blocks(); block++) {
+                Interruptions.checkInterrupted();
+                for (long satisfied = evaluator.satisfied(block); satisfied != 0; satisfied &= satisfied - 1) {
+                    solutions.add(evaluator.representation(block, Long.numberOfTrailingZeros(satisfied)));
+                }
+            }
+            return solutions;
+        }
         List<String> allCombinations = this.combinePaints(this.nbPaints);
         List<String> solutions = new LinkedList<>();
+        AdaptiveClauseOrder customerTastes = new AdaptiveClauseOrder(this.sortedCustomerTastes);
         for (String combination : allCombinations) {
-            if (allCustomerTastesAreSatisfiedBy(combination)) {
+            Interruptions.checkInterrupted();
+            if (customerTastes.allSatisfiedBy(combination)) {
                 solutions.add(combination);
             }
         }
@@ -73,17 +130,141 @@ public class SearchPaintShopSolver implements PaintShopSolver {
     }
 
     /**
-     * return true if customer tastes are satisfied by a paint combination
-     * represented as a String.
-     * <p>Notice that the <code>allMatch</code> implementation returns early when a
-     * falsy expression is met.</p>
+     * Anytime version of the brute-force search: the combinations are generated one at a time
+     * (in the same order as {@link #solutions()}) instead of all upfront, and only the cheapest
+     * valid one is kept.
+     * <p>One node of the budget is one combination checked.</p>
      *
-     * @param combination string representation of the {@link #nbPaints} (e.g. GGGGM, GMGMG,...)
-     * @return true if all satisfied, else false
+     * @param budget the budget of the run
+     * @return the cheapest solution, or the cheapest found before the budget is exhausted
+     */
+    @Override
+    public PaintShopSolution solve(SolverBudget budget) {
+        if (this.enumeration == Enumeration.GRAY_CODE) {
+            return this.solveGrayCode(budget.start());
+        }
+        if (this.enumeration == Enumeration.BIT_SLICED) {
+            return this.solveBitSliced(budget.start());
+        }
+        BudgetMeter meter = budget.start();
+        if (meter.reserve(BYTES_PER_PAINT * this.nbPaints)) {
+            return PaintShopSolution.unknown();
+        }
+        char[] combination = new char[this.nbPaints];
+        Arrays.fill(combination, PaintFinish.G.name().charAt(0));
+        AdaptiveClauseOrder customerTastes = new AdaptiveClauseOrder(this.sortedCustomerTastes);
+        int nbMattes = 0;
+        String cheapest = null;
+        int cheapestNbMattes = Integer.MAX_VALUE;
+        do {
+            if (meter.tick()) {
+                break;
+            }
+            if (nbMattes < cheapestNbMattes) {
+                String candidate = new String(combination);
+                if (customerTastes.allSatisfiedBy(candidate)) {
+                    cheapest = candidate;
+                    cheapestNbMattes = nbMattes;
+                }
+            }
+            nbMattes += next(combination);
+        } while (nbMattes >= 0);
+        return PaintShopSolution.of(cheapest, !meter.exhausted());
+    }
+
+    /**
+     * Same as {@link #solve(SolverBudget)}, in Gray-code order.
+     * Among the cheapest solutions, the first one in lexicographic order is kept, as in the lexicographic order.
      */
-    private boolean allCustomerTastesAreSatisfiedBy(String combination) {
-        return this.sortedCustomerTastes.stream()
-                .allMatch(ct -> ct.likes(combination));
+    private PaintShopSolution solveGrayCode(BudgetMeter meter) {
+        boolean[] cheapest = new boolean[this.nbPaints + 1];
+        int[] cheapestNbMattes = {Integer.MAX_VALUE};
+        boolean completed = new GrayCodeWalk(this.clauses()).walk(meter, (mattes, nbMattes) -> {
+            if (nbMattes < cheapestNbMattes[0]
+                    || nbMattes == cheapestNbMattes[0] && lexicographicallyBefore(mattes, cheapest)) {
+                System.arraycopy(mattes, 0, cheapest, 0, mattes.length);
+                cheapestNbMattes[0] = nbMattes;
+            }
+        });
+        return PaintShopSolution.of(cheapestNbMattes[0] == Integer.MAX_VALUE ? null : representation(cheapest),
+                completed);
+    }
+
+    /**
+     * Same as {@link #solve(SolverBudget)}, 64 combinations at a time.
+     * <p>One node of the budget is one block of 64 combinations, skipped or not: the time limit and the
+     * interruptions are checked on long runs of skipped blocks too. The blocks where the paints fixed by the
+     * block already have as many mattes as the cheapest solution are skipped.</p>
+     */
+    private PaintShopSolution solveBitSliced(BudgetMeter meter) {
+        if (meter.reserve(BIT_SLICED_BYTES_PER_PAINT * (this.nbPaints + 1))) {
+            return PaintShopSolution.unknown();
+        }
+        BitSlicedEvaluator evaluator = new BitSlicedEvaluator(this.clauses());
+        String cheapest = null;
+        int cheapestNbMattes = Integer.MAX_VALUE;
+        for (long block = 0; block < evaluator.blocks(); block++) {
+            if (meter.tick()) {
+                break;
+            }
+            int blockNbMattes = BitSlicedEvaluator.nbMattes(block);
+            if (blockNbMattes >= cheapestNbMattes) {
+                continue;
+            }
+            for (long satisfied = evaluator.satisfied(block); satisfied != 0; satisfied &= satisfied - 1) {
+                int combination = Long.numberOfTrailingZeros(satisfied);
+                int nbMattes = blockNbMattes + Integer.bitCount(combination);
+                if (nbMattes < cheapestNbMattes) {
+                    cheapest = evaluator.representation(block, combination);
+                    cheapestNbMattes = nbMattes;
+                }
+            }
+        }
+        return PaintShopSolution.of(cheapest, !meter.exhausted());
+    }
+
+    private CustomerTasteClauses clauses() {
+        return CustomerTasteClauses.compile(this.nbPaints, this.sortedCustomerTastes);
+    }
+
+    private static boolean lexicographicallyBefore(boolean[] mattes, boolean[] other) {
+        for (int paint = 1; paint < mattes.length; paint++) {
+            if (mattes[paint] != other[paint]) {
+                return !mattes[paint];
+            }
+        }
+        return false;
+    }
+
+    private static String representation(boolean[] mattes) {
+        StringBuilder representation = new StringBuilder(mattes.length);
+        for (int paint = 1; paint < mattes.length; paint++) {
+            representation.append(mattes[paint] ? PaintFinish.M.name() : PaintFinish.G.name());
+        }
+        return representation.toString();
+    }
+
+    /**
+     * Moves to the next combination, like a binary counter where G is 0 and M is 1
+     * (e.g. GMM -&gt; MGG).
+     *
+     * @param combination the combination to update
+     * @return the change in the number of mattes, or a negative number lower than
+     * <code>-nbPaints</code> after the last combination
+     */
+    private static int next(char[] combination) {
+        char gloss = PaintFinish.G.name().charAt(0);
+        char matte = PaintFinish.M.name().charAt(0);
+        int delta = 0;
+        for (int i = combination.length - 1; i >= 0; i--) {
+            if (combination[i] == gloss) {
+                combination[i] = matte;
+                return delta + 1;
+            }
+            combination[i] = gloss;
+            delta--;
+        }
+        return Integer.MIN_VALUE / 2; //overflow: all the combinations have been checked
     }
 
     /**
@@ -101,6 +282,7 @@ public class SearchPaintShopSolver implements PaintShopSolver {
             List<String> current = Arrays.asList("G", "M");
             List<String> res = new LinkedList<>();
             for (String c : current) {
+                Interruptions.checkInterrupted();
                 for (String pf : recur) {
                     res.add(c + pf);
                 }
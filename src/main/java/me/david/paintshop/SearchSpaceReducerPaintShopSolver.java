@@ -18,7 +18,7 @@ import static java.util.stream.Collectors.toSet;
  * <li>You make as few mattes as possible (because they are more expensive).</li>
  * </ul>
  */
-public class SearchSpaceReducerPaintShopSolver implements PaintShopSolver {
+public class SearchSpaceReducerPaintShopSolver implements AnytimePaintShopSolver {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SearchPaintShopSolver.class);
 
@@ -45,63 +45,41 @@ public class SearchSpaceReducerPaintShopSolver implements PaintShopSolver {
 
     /**
      * Retrieves the reduced search space and either return an empty list
-     * if empty (i.e. unsatisfiable), or run a search with CustomerTastes on the remaining options
+     * if empty (i.e. unsatisfiable), or run a {@link BacktrackingSearch} on the remaining options
      * and finally return the cheapest option of any
      *
      * @return The unique cheapest solution as a List
      */
     @Override
     public List<String> solutions() {
-        Map<Integer, EnumSet<PaintFinish>> searchSpace = this.reducedSearchSpace();
-        if (searchSpace.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<String> allCombinations = combine(nbPaints, searchSpace);
-        List<String> solutions = new LinkedList<>();
-        for (String combination : allCombinations) {
-            if (allCustomerTastesAreSatisfiedBy(combination)) {
-                solutions.add(combination);
-            }
-        }
-        LOGGER.debug("allCombinations - length: {}", allCombinations.size());
-        LOGGER.debug("solutions - length: {}", solutions.size());
-        return solutions;
+        return this.solve(SolverBudget.unlimited())
+                .paintBatches()
+                .map(paintBatches -> Collections.singletonList(paintBatches.finishesRepresentation()))
+                .orElse(Collections.emptyList());
     }
 
+    @Override
+    public PaintShopSolution solve(SolverBudget budget) {
+        return this.solve(budget, null);
+    }
 
     /**
-     * return true if customer tastes are satisfied by a paint combination
-     * represented as a String.
-     * <p>Notice that the <code>allMatch</code> implementation returns early when a
-     * falsy expression is met.</p>
+     * Same as {@link #solutions()}, within a budget.
      *
-     * @param combination string representation of the {@link #nbPaints} (e.g. GGGGM, GMGMG,...)
-     * @return true if all satisfied, else false
+     * @param budget the budget of the run
+     * @param hint   the finish of each paint tried first by the search, or <code>null</code> for no hint
+     * @return the cheapest solution, or the cheapest found before the budget is exhausted
      */
-    private boolean allCustomerTastesAreSatisfiedBy(String combination) {
-        return this.sortedCustomerTastes.stream()
-                .allMatch(ct -> ct.likes(combination));
-    }
-
-
-    private List<String> combine(int index, Map<Integer, EnumSet<PaintFinish>> csp) {
-        if (index == 0) {
-            return Collections.singletonList("");
-        } else {
-            List<String> recur = combine(index - 1, csp);
-            List<String> current = csp.get(index)
-                    .stream()
-                    .map(PaintFinish::name)
-                    .collect(Collectors.toList());
-            List<String> res = new LinkedList<>();
-            for (String c : current) {
-                for (String pf : recur) {
-                    res.add(pf + c);
-                }
-            }
-            return res;
+    @Override
+    public PaintShopSolution solve(SolverBudget budget, PaintBatches hint) {
+        Map<Integer, EnumSet<PaintFinish>> searchSpace = this.reducedSearchSpace();
+        if (searchSpace.isEmpty()) {
+            return PaintShopSolution.unsatisfiable();
         }
+
+        return new BacktrackingSearch(CustomerTasteClauses.compile(nbPaints, sortedCustomerTastes), searchSpace)
+                .hinted(hint)
+                .solve(budget.start());
     }
 
 
@@ -117,6 +95,7 @@ public class SearchSpaceReducerPaintShopSolver implements PaintShopSolver {
         Map<Integer, EnumSet<PaintFinish>> searchspace = initialSearchSpace();
 
         for (CustomerTaste taste : this.sortedCustomerTastes) {
+            Interruptions.checkInterrupted();
             Set<PaintReference> paintReferences = taste.paintReferences();
             if (!assignable(searchspace, paintReferences)) {
                 //unsatisfiable!
@@ -0,0 +1,179 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopError;
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The messages exchanged by a {@link PaintShopCoordinator} and its {@link PaintShopWorker}s.
+ * <p>A shard is a problem of its own, made of independent components of a bigger problem, with its paints
+ * renumbered from 1. It is encoded as its clauses: the lengths of the clauses, then the signed literals
+ * (see {@link ClauseStore}), preceded by the solver name and the budget. The answer is the status of the
+ * solution, followed by one finish character per paint if the solution has paint batches, or the
+ * {@link PaintShopError} code and advice of the exception the worker threw on the shard.</p>
+ */
+final class ShardProtocol {
+
+    private static final int SHARD = 0x5053_4831; //'PSH1'
+    private static final PaintShopSolution.Status[] STATUSES = PaintShopSolution.Status.values();
+    private static final int ERROR = 0xFF; //status of a shard the worker failed on
+    private static final int MAX_ADVICE_LENGTH = 4096; //well below the 64 KB of writeUTF
+
+    /**
+     * Private constructor to avoid instantiation
+     */
+    private ShardProtocol() {
+    }
+
+    static void writeShard(DataOutputStream output, String solverName, SolverBudget budget,
+                           CustomerTasteClauses clauses) throws IOException {
+        output.writeInt(SHARD);
+        output.writeUTF(solverName);
+        output.writeLong(budget.timeLimitNanos());
+        output.writeLong(budget.maxNodes());
+        output.writeLong(budget.maxCandidateBytes());
+        output.writeInt(clauses.nbPaints());
+        output.writeInt(clauses.size());
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            output.writeInt(clauses.length(clause));
+        }
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            for (int position = 0; position < clauses.length(clause); position++) {
+                output.writeInt(clauses.literal(clause, position));
+            }
+        }
+        output.flush();
+    }
+
+    /**
+     * A shard read by a worker
+     */
+    static final class Shard {
+        final String solverName;
+        final SolverBudget budget;
+        final CustomerTasteClauses clauses;
+
+        private Shard(String solverName, SolverBudget budget, CustomerTasteClauses clauses) {
+            this.solverName = solverName;
+            this.budget = budget;
+            this.clauses = clauses;
+        }
+    }
+
+    /**
+     * @throws java.io.EOFException when the coordinator has closed the connection
+     */
+    static Shard readShard(DataInputStream input) throws IOException {
+        if (input.readInt() != SHARD) {
+            throw new StreamCorruptedException("Not a shard.");
+        }
+        String solverName = input.readUTF();
+        long timeLimitNanos = input.readLong();
+        long maxNodes = input.readLong();
+        long maxCandidateBytes = input.readLong();
+        SolverBudget budget = SolverBudget.unlimited()
+                .withTimeLimit(timeLimitNanos, TimeUnit.NANOSECONDS)
+                .withMaxNodes(maxNodes)
+                .withMaxCandidateBytes(maxCandidateBytes);
+        int nbPaints = input.readInt();
+        int nbClauses = input.readInt();
+        int[] offsets = new int[nbClauses + 1];
+        for (int clause = 0; clause < nbClauses; clause++) {
+            offsets[clause + 1] = offsets[clause] + input.readInt();
+        }
+        int[] literals = new int[offsets[nbClauses]];
+        for (int position = 0; position < literals.length; position++) {
+            literals[position] = input.readInt();
+            if (ClauseStore.paint(literals[position]) < 1 || ClauseStore.paint(literals[position]) > nbPaints) {
+                throw new StreamCorruptedException("Literal " + literals[position] + " out of range.");
+            }
+        }
+        return new Shard(solverName, budget, new CustomerTasteClauses(nbPaints, offsets, literals));
+    }
+
+    static void writeSolution(DataOutputStream output, PaintShopSolution solution) throws IOException {
+        output.writeByte(solution.status().ordinal());
+        if (solution.paintBatches().isPresent()) {
+            byte[] finishes = solution.paintBatches().get().finishesRepresentation()
+                    .getBytes(StandardCharsets.US_ASCII);
+            output.writeInt(finishes.length);
+            output.write(finishes);
+        }
+        output.flush();
+    }
+
+    /**
+     * Answers a shard the worker failed on, e.g. with an unknown solver: the coordinator throws the error
+     * again, instead of sending the shard to another worker.
+     */
+    static void writeError(DataOutputStream output, RuntimeException exception) throws IOException {
+        final PaintShopError error;
+        final String advice;
+        if (exception instanceof PaintShopInputRuntimeException) {
+            error = ((PaintShopInputRuntimeException) exception).getError();
+            advice = advice(error, exception.getMessage());
+        } else if (exception instanceof PaintShopSolverRuntimeException) {
+            error = ((PaintShopSolverRuntimeException) exception).getError();
+            advice = advice(error, exception.getMessage());
+        } else {
+            error = PaintShopError.WORKER_FAILED;
+            advice = exception.toString();
+        }
+        output.writeByte(ERROR);
+        output.writeInt(error.getCode());
+        output.writeBoolean(exception instanceof PaintShopInputRuntimeException);
+        output.writeUTF(advice.length() > MAX_ADVICE_LENGTH ? advice.substring(0, MAX_ADVICE_LENGTH) : advice);
+        output.flush();
+    }
+
+    private static String advice(PaintShopError error, String message) {
+        String prefix = error.getDescription() + " - ";
+        return message != null && message.startsWith(prefix) ? message.substring(prefix.length()) : "";
+    }
+
+    /**
+     * @throws PaintShopInputRuntimeException  if the worker failed on the shard with an input error
+     * @throws PaintShopSolverRuntimeException if the worker failed on the shard with another error
+     */
+    static PaintShopSolution readSolution(DataInputStream input) throws IOException {
+        int status = input.readUnsignedByte();
+        if (status == ERROR) {
+            throw readError(input);
+        }
+        if (status >= STATUSES.length) {
+            throw new StreamCorruptedException("Unknown status " + status + ".");
+        }
+        switch (STATUSES[status]) {
+            case UNSATISFIABLE:
+                return PaintShopSolution.unsatisfiable();
+            case UNKNOWN:
+                return PaintShopSolution.unknown();
+            default:
+                byte[] finishes = new byte[input.readInt()];
+                input.readFully(finishes);
+                return PaintShopSolution.of(new String(finishes, StandardCharsets.US_ASCII),
+                        STATUSES[status] == PaintShopSolution.Status.OPTIMAL);
+        }
+    }
+
+    private static RuntimeException readError(DataInputStream input) throws IOException {
+        int code = input.readInt();
+        boolean inputError = input.readBoolean();
+        String advice = input.readUTF();
+        for (PaintShopError error : PaintShopError.values()) {
+            if (error.getCode() == code) {
+                return inputError ?
+                        new PaintShopInputRuntimeException(error, advice) :
+                        new PaintShopSolverRuntimeException(error, advice);
+            }
+        }
+        throw new StreamCorruptedException("Unknown error code " + code + ".");
+    }
+}
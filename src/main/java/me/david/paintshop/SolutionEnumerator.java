@@ -0,0 +1,156 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Enumerates the valid solutions of a problem lazily, by non-decreasing cost: the k cheapest ones, or all
+ * the cheapest ones, without generating the <code>2^n</code> combinations.
+ * <p>The domains are reduced once by arc consistency (see {@link AC2001SatSolver}). Each solution is then the
+ * cheapest one of a {@link BacktrackingSearch} over the customer tastes plus a blocking clause per solution
+ * already returned: the blocking clause is liked by every combination but that solution. Only the paints
+ * whose domain was not reduced to a single finish appear in the blocking clauses.</p>
+ * <p>Each solution costs one search: the enumerator is meant for a few alternatives, not for all the
+ * valid solutions. Not thread-safe.</p>
+ */
+public final class SolutionEnumerator implements Iterator<PaintBatches> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolutionEnumerator.class);
+
+    private static final PaintFinish[] FINISHES = PaintFinish.values();
+
+    private final int nbPaints;
+    private final PaintCostModel costModel;
+    private final byte[] domains; //1-based
+    private final int[] freePaints; //the paints with more than one finish in their domain
+
+    private int nbClauses;
+    private int[] offsets;
+    private int[] literals;
+
+    private boolean exhausted;
+    private PaintBatches next;
+
+    /**
+     * @param nbPaints       the number of paints
+     * @param customerTastes the customer tastes
+     * @param costModel      the costs of the finishes
+     */
+    SolutionEnumerator(int nbPaints, List<CustomerTaste> customerTastes, PaintCostModel costModel) {
+        this.nbPaints = nbPaints;
+        this.costModel = costModel;
+        CustomerTasteClauses clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+
+        this.domains = new byte[nbPaints + 1];
+        Arrays.fill(this.domains, (byte) ((1 << FINISHES.length) - 1));
+        this.exhausted = !new AC2001SatSolver(clauses).ac2001(this.domains, SolverBudget.unlimited().start());
+        this.freePaints = IntStream.rangeClosed(1, nbPaints)
+                .filter(paint -> Integer.bitCount(domains[paint]) > 1)
+                .toArray();
+
+        this.nbClauses = clauses.size();
+        this.offsets = new int[nbClauses + 1];
+        for (int clause = 0; clause < nbClauses; clause++) {
+            this.offsets[clause + 1] = this.offsets[clause] + clauses.length(clause);
+        }
+        this.literals = new int[this.offsets[nbClauses]];
+        for (int clause = 0; clause < nbClauses; clause++) {
+            for (int position = 0; position < clauses.length(clause); position++) {
+                this.literals[this.offsets[clause] + position] = clauses.literal(clause, position);
+            }
+        }
+        LOGGER.debug("nbPaints: {} - free paints: {} - exhausted: {}", nbPaints, freePaints.length, exhausted);
+    }
+
+    /**
+     * @return true if there is another valid solution. The first call after a {@link #next()} runs a search
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null && !exhausted) {
+            Optional<String> cheapest = new BacktrackingSearch(
+                    new CustomerTasteClauses(nbPaints,
+                            Arrays.copyOf(offsets, nbClauses + 1), Arrays.copyOf(literals, offsets[nbClauses])),
+                    domains, costModel)
+                    .withoutSymmetryBreaking()
+                    .cheapestSolution();
+            if (cheapest.isPresent()) {
+                next = new PaintBatches(cheapest.get());
+            } else {
+                exhausted = true;
+            }
+        }
+        return next != null;
+    }
+
+    /**
+     * @return the next cheapest valid solution
+     * @throws NoSuchElementException if there is no other valid solution
+     */
+    @Override
+    public PaintBatches next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("No other valid solution.");
+        }
+        PaintBatches result = next;
+        next = null;
+        this.block(result.finishesRepresentation());
+        return result;
+    }
+
+    /**
+     * @param k the number of solutions
+     * @return the next k cheapest valid solutions, fewer if there are fewer
+     */
+    public List<PaintBatches> next(int k) {
+        List<PaintBatches> result = new ArrayList<>(Math.min(k, 16));
+        while (result.size() < k && this.hasNext()) {
+            result.add(this.next());
+        }
+        return result;
+    }
+
+    /**
+     * To be called before any {@link #next()}.
+     *
+     * @return all the valid solutions as cheap as the cheapest one, empty if unsatisfiable
+     */
+    public List<PaintBatches> allCheapest() {
+        List<PaintBatches> result = new ArrayList<>();
+        while (this.hasNext()
+                && (result.isEmpty() || costModel.cost(next) == costModel.cost(result.get(0)))) {
+            result.add(this.next());
+        }
+        return result;
+    }
+
+    /**
+     * Adds the clause liked by every combination but the given one.
+     */
+    private void block(String finishes) {
+        if (freePaints.length == 0) {
+            exhausted = true; //the only valid solution
+            return;
+        }
+        if (nbClauses + 1 == offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(2 * offsets.length, nbClauses + 2));
+        }
+        int from = offsets[nbClauses];
+        if (from + freePaints.length > literals.length) {
+            literals = Arrays.copyOf(literals, Math.max(2 * literals.length, from + freePaints.length));
+        }
+        for (int i = 0; i < freePaints.length; i++) {
+            int paint = freePaints[i];
+            PaintFinish finish = PaintFinish.valueOf(String.valueOf(finishes.charAt(paint - 1)));
+            literals[from + i] = ClauseStore.literal(paint, finish.opposite());
+        }
+        offsets[++nbClauses] = from + freePaints.length;
+    }
+}
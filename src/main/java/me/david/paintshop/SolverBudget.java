@@ -0,0 +1,88 @@
+package me.david.paintshop;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable budget given to an {@link AnytimePaintShopSolver}:
+ * <ul>
+ * <li>a wall-clock time limit, starting when the solver starts,</li>
+ * <li>a maximum number of explored nodes (a node is a decision or a candidate checked, depending on the solver),</li>
+ * <li>a maximum heap, in bytes, for the candidate assignments and search structures of the solver.</li>
+ * </ul>
+ * <p>The maximum heap is checked against an estimate, not a measure: each solver reserves the size of the
+ * elements of its main arrays before allocating them (see {@link BudgetMeter#reserve}). The object headers,
+ * the padding and the short-lived objects are not counted, so the heap actually used can be somewhat
+ * larger.</p>
+ * <p>When the budget is exhausted, the solver stops and returns the best solution found so far.</p>
+ */
+public final class SolverBudget {
+
+    private static final SolverBudget UNLIMITED = new SolverBudget(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final long timeLimitNanos;
+    private final long maxNodes;
+    private final long maxCandidateBytes;
+
+    private SolverBudget(long timeLimitNanos, long maxNodes, long maxCandidateBytes) {
+        this.timeLimitNanos = timeLimitNanos;
+        this.maxNodes = maxNodes;
+        this.maxCandidateBytes = maxCandidateBytes;
+    }
+
+    /**
+     * @return a budget without any limit
+     */
+    public static SolverBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * @param timeLimit the wall-clock time limit
+     * @param unit      the unit of the time limit
+     * @return a copy of this budget with the given time limit
+     */
+    public SolverBudget withTimeLimit(long timeLimit, TimeUnit unit) {
+        return new SolverBudget(unit.toNanos(timeLimit), maxNodes, maxCandidateBytes);
+    }
+
+    /**
+     * @param maxNodes the maximum number of explored nodes
+     * @return a copy of this budget with the given maximum number of nodes
+     */
+    public SolverBudget withMaxNodes(long maxNodes) {
+        return new SolverBudget(timeLimitNanos, maxNodes, maxCandidateBytes);
+    }
+
+    /**
+     * @param maxCandidateBytes the maximum heap for the candidate assignments, in bytes
+     * @return a copy of this budget with the given maximum heap
+     */
+    public SolverBudget withMaxCandidateBytes(long maxCandidateBytes) {
+        return new SolverBudget(timeLimitNanos, maxNodes, maxCandidateBytes);
+    }
+
+    public long timeLimitNanos() {
+        return timeLimitNanos;
+    }
+
+    public long maxNodes() {
+        return maxNodes;
+    }
+
+    public long maxCandidateBytes() {
+        return maxCandidateBytes;
+    }
+
+    /**
+     * @return a new meter, starting the clock now
+     */
+    BudgetMeter start() {
+        return new BudgetMeter(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{\"timelimit_ns\":%d,\"maxnodes\":%d,\"maxcandidatebytes\":%d}",
+                timeLimitNanos, maxNodes, maxCandidateBytes);
+    }
+}
@@ -0,0 +1,230 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_INPUT_FILE;
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_INPUT_FILE_NUMBER_OF_PAINTS;
+
+/**
+ * A problem read line by line while its definition is still arriving, e.g. from a pipe: the unit propagation
+ * runs as each customer taste is accepted, and the search only runs at the end of the input.
+ * <p>Each customer taste is parsed by a {@link CustomerTasteParser}, which accepts the same lines as the
+ * {@link PaintShopProblem} of a file, then:</p>
+ * <ul>
+ * <li>it is dropped if it is already satisfied by a forced paint,</li>
+ * <li>it forces its paint if it has a single option left (a unit customer), and the forced paint is propagated
+ * to the customer tastes accepted so far,</li>
+ * <li>the problem is unsatisfiable as soon as a customer taste has no option left: the rest of the input
+ * does not need to be read.</li>
+ * </ul>
+ * <p>As the paints are only ever forced, the domain of a paint is either all the finishes, or a single one.
+ * At the end of the input, {@link #solve(SolverBudget)} runs a {@link BacktrackingSearch} over the customer
+ * tastes kept, with the forced paints.</p>
+ * <p>Not thread-safe: one instance per input.</p>
+ */
+public final class StreamingPaintShopProblem {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingPaintShopProblem.class);
+
+    private static final byte ALL_FINISHES = (byte) ((1 << PaintFinish.values().length) - 1);
+
+    private final CustomerTasteParser parser = new CustomerTasteParser();
+    private int nbPaints = -1;
+    private int lineNumber;
+    private boolean unsatisfiable;
+
+    private byte[] domains; //1-based, one bit per finish ordinal
+    private int nbClauses;
+    private int[] offsets = new int[64];
+    private int[] literals = new int[256];
+    private int[][] occurrences; //paint -> clauses, the first occurrenceCounts[paint] ones
+    private int[] occurrenceCounts;
+    private int[] queue; //forced paints not yet propagated
+    private int queueSize;
+
+    /**
+     * Reads the problem definition up to its end, or up to the first conflict, and solves it.
+     *
+     * @param reader the problem definition. It is not closed
+     * @param budget the budget of the search at the end of the input
+     * @return the solution, {@link PaintShopSolution.Status#UNSATISFIABLE} as soon as a conflict is found
+     * @throws PaintShopInputRuntimeException if the reader cannot be read, or a line is invalid
+     */
+    public static PaintShopSolution solve(Reader reader, SolverBudget budget) {
+        BufferedReader bufferedReader = reader instanceof BufferedReader ?
+                (BufferedReader) reader : new BufferedReader(reader);
+        StreamingPaintShopProblem problem = new StreamingPaintShopProblem();
+        try {
+            for (String line = bufferedReader.readLine(); line != null; line = bufferedReader.readLine()) {
+                if (!problem.accept(line)) {
+                    return PaintShopSolution.unsatisfiable();
+                }
+            }
+        } catch (IOException e) {
+            throw new PaintShopInputRuntimeException(INVALID_INPUT_FILE,
+                    "Check that the problem definition can be read.", e);
+        }
+        return problem.solve(budget);
+    }
+
+    /**
+     * Accepts the next line of the problem definition: the number of paints first, then one customer taste.
+     *
+     * @param line the next line
+     * @return false if the problem is unsatisfiable: the next lines do not need to be accepted
+     * @throws PaintShopInputRuntimeException if the line is invalid
+     */
+    public boolean accept(String line) {
+        lineNumber++;
+        if (unsatisfiable) {
+            return false;
+        }
+        if (nbPaints < 0) {
+            this.start(line);
+            return true;
+        }
+        parser.parseOrThrow(line, nbPaints);
+        if (this.satisfied(parser.literals(), 0, parser.length())) {
+            return true;
+        }
+        int clause = this.store(parser.literals(), parser.length());
+        if (!this.propagate(clause) || !this.propagateForced()) {
+            LOGGER.info("Unsatisfiable at line {}", lineNumber);
+            unsatisfiable = true;
+        }
+        return !unsatisfiable;
+    }
+
+    /**
+     * @return true if a conflict has been found in the lines accepted so far
+     */
+    public boolean unsatisfiable() {
+        return unsatisfiable;
+    }
+
+    /**
+     * Searches the cheapest solution, once all the lines have been accepted.
+     *
+     * @param budget the budget of the search
+     * @return the solution
+     * @throws PaintShopInputRuntimeException if the number of paints has not been accepted
+     */
+    public PaintShopSolution solve(SolverBudget budget) {
+        if (nbPaints < 0) {
+            this.start("");
+        }
+        if (unsatisfiable) {
+            return PaintShopSolution.unsatisfiable();
+        }
+        LOGGER.debug("nbPaints: {} - customer tastes kept: {} of {}", nbPaints, nbClauses, lineNumber - 1);
+        CustomerTasteClauses clauses = new CustomerTasteClauses(nbPaints,
+                Arrays.copyOf(offsets, nbClauses + 1), Arrays.copyOf(literals, offsets[nbClauses]));
+        return new BacktrackingSearch(clauses, domains).solve(budget.start());
+    }
+
+    /**
+     * @param paint 1-based paint index
+     * @return the finishes still allowed for the paint, one bit per {@link PaintFinish#ordinal()}
+     */
+    byte domain(int paint) {
+        return domains[paint];
+    }
+
+    private void start(String line) {
+        nbPaints = PaintShopProblem.parseNbPaintsLeniently(line);
+        if (nbPaints < 0) {
+            throw new PaintShopInputRuntimeException(INVALID_INPUT_FILE_NUMBER_OF_PAINTS,
+                    String.format("First line '%s' is expected to be an integer.", line));
+        }
+        domains = new byte[nbPaints + 1];
+        Arrays.fill(domains, ALL_FINISHES);
+        occurrences = new int[nbPaints + 1][];
+        occurrenceCounts = new int[nbPaints + 1];
+        queue = new int[nbPaints];
+    }
+
+    private int store(int[] clauseLiterals, int length) {
+        if (nbClauses + 1 == offsets.length) {
+            offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+        }
+        int from = offsets[nbClauses];
+        if (from + length > literals.length) {
+            literals = Arrays.copyOf(literals, Math.max(2 * literals.length, from + length));
+        }
+        System.arraycopy(clauseLiterals, 0, literals, from, length);
+        CustomerTasteClauses.sortByPaint(literals, from, from + length);
+        offsets[nbClauses + 1] = from + length;
+        for (int position = from; position < from + length; position++) {
+            int paint = ClauseStore.paint(literals[position]);
+            if (occurrences[paint] == null) {
+                occurrences[paint] = new int[4];
+            } else if (occurrenceCounts[paint] == occurrences[paint].length) {
+                occurrences[paint] = Arrays.copyOf(occurrences[paint], 2 * occurrenceCounts[paint]);
+            }
+            occurrences[paint][occurrenceCounts[paint]++] = nbClauses;
+        }
+        return nbClauses++;
+    }
+
+    /**
+     * Forces the last option of the customer taste, if it has a single one.
+     *
+     * @return false if the customer taste has no option left
+     */
+    private boolean propagate(int clause) {
+        int from = offsets[clause];
+        int to = offsets[clause + 1];
+        if (this.satisfied(literals, from, to - from)) {
+            return true;
+        }
+        int option = 0;
+        int nbOptions = 0;
+        for (int position = from; position < to; position++) {
+            if (this.allowed(literals[position])) {
+                option = literals[position];
+                nbOptions++;
+            }
+        }
+        if (nbOptions == 1) {
+            int paint = ClauseStore.paint(option);
+            domains[paint] = (byte) (1 << ClauseStore.finish(option).ordinal());
+            queue[queueSize++] = paint;
+        }
+        return nbOptions > 0;
+    }
+
+    private boolean propagateForced() {
+        while (queueSize > 0) {
+            int paint = queue[--queueSize];
+            for (int position = 0; position < occurrenceCounts[paint]; position++) {
+                if (!this.propagate(occurrences[paint][position])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if one of the literals is a paint forced to the liked finish
+     */
+    private boolean satisfied(int[] clauseLiterals, int from, int length) {
+        for (int position = from; position < from + length; position++) {
+            int literal = clauseLiterals[position];
+            if (domains[ClauseStore.paint(literal)] == 1 << ClauseStore.finish(literal).ordinal()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean allowed(int literal) {
+        return (domains[ClauseStore.paint(literal)] & 1 << ClauseStore.finish(literal).ordinal()) != 0;
+    }
+}
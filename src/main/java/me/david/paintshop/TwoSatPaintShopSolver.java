@@ -0,0 +1,251 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implementation of a <code>PaintShopSolver</code> for the customers liking at most two paint references,
+ * in linear time.
+ * <p>The paints are split into {@link Components}. In a component where every customer taste has at most
+ * two paint references, a customer taste <code>(a or b)</code> is the pair of implications
+ * <code>not a -&gt; b</code> and <code>not b -&gt; a</code>: the component is satisfiable unless a paint
+ * reference and its opposite are in the same strongly connected component of this implication graph
+ * (Tarjan's algorithm).</p>
+ * <p>As a customer likes at most one matte, the cheapest assignment of a satisfiable component is all gloss,
+ * except the mattes implied by the customers liking a single matte: the ones reachable from these
+ * mattes in the implication graph.</p>
+ * <p>The other components are solved by a {@link BacktrackingSearch}, the paints of the 2-SAT components
+ * being already decided.</p>
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/2-satisfiability">2-satisfiability</a>
+ */
+public class TwoSatPaintShopSolver implements AnytimePaintShopSolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TwoSatPaintShopSolver.class);
+
+    private static final long BYTES_PER_VERTEX = 8L * Integer.BYTES; //the offsets, their copy and Tarjan's 6 arrays
+    private static final long BYTES_PER_CLAUSE = 2L * Integer.BYTES; //the targets of its 2 implications
+
+    private final CustomerTasteClauses clauses;
+    private final int nbPaints;
+
+    /**
+     * Constructor.
+     *
+     * @param nbPaints       the number of paints as an int
+     * @param customerTastes the customer tastes
+     */
+    TwoSatPaintShopSolver(int nbPaints, List<CustomerTaste> customerTastes) {
+        this.nbPaints = nbPaints;
+        this.clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+    }
+
+    @Override
+    public List<String> solutions() {
+        return this.solve(SolverBudget.unlimited())
+                .paintBatches()
+                .map(paintBatches -> Collections.singletonList(paintBatches.finishesRepresentation()))
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public PaintShopSolution solve(SolverBudget budget) {
+        return this.solve(budget, null);
+    }
+
+    /**
+     * Solves the 2-SAT components, then searches the others, within the budget.
+     * <p>One node of the budget is one paint reference visited by Tarjan's algorithm.</p>
+     *
+     * @param budget the budget of the run
+     * @param hint   the finish of each paint tried first by the search, or <code>null</code> for no hint
+     * @return the cheapest solution, or the cheapest found before the budget is exhausted
+     */
+    @Override
+    public PaintShopSolution solve(SolverBudget budget, PaintBatches hint) {
+        BudgetMeter meter = budget.start();
+        Components components = Components.of(clauses);
+        boolean[] twoSat = new boolean[components.count()];
+        Arrays.fill(twoSat, true);
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            if (clauses.length(clause) > 2) {
+                twoSat[components.of(ClauseStore.paint(clauses.literal(clause, 0)))] = false;
+            }
+        }
+
+        //vertices: 2 * (paint - 1) for the gloss paint reference, + 1 for the matte one
+        if (meter.reserve(BYTES_PER_VERTEX * 2 * nbPaints + BYTES_PER_CLAUSE * clauses.size())) {
+            return PaintShopSolution.unknown();
+        }
+        ImplicationGraph graph = new ImplicationGraph(clauses, components, twoSat);
+        int[] scc = graph.stronglyConnectedComponents(meter);
+        if (scc == null) {
+            return PaintShopSolution.unknown();
+        }
+
+        boolean searchNeeded = false;
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            if (!twoSat[components.of(paint)]) {
+                searchNeeded = true;
+            } else if (scc[vertex(paint, PaintFinish.G)] == scc[vertex(paint, PaintFinish.M)]) {
+                LOGGER.debug("paint {} is both gloss and matte", paint);
+                return PaintShopSolution.unsatisfiable();
+            }
+        }
+
+        boolean[] mattes = graph.impliedMattes();
+        if (!searchNeeded) {
+            StringBuilder solution = new StringBuilder(nbPaints);
+            for (int paint = 1; paint <= nbPaints; paint++) {
+                solution.append(mattes[paint] ? PaintFinish.M.name() : PaintFinish.G.name());
+            }
+            return PaintShopSolution.optimal(solution.toString());
+        }
+
+        Map<Integer, EnumSet<PaintFinish>> domains = new HashMap<>();
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            domains.put(paint, !twoSat[components.of(paint)] ?
+                    EnumSet.allOf(PaintFinish.class) :
+                    EnumSet.of(mattes[paint] ? PaintFinish.M : PaintFinish.G));
+        }
+        return new BacktrackingSearch(clauses, domains).hinted(hint).solve(meter);
+    }
+
+    private static int vertex(int paint, PaintFinish finish) {
+        return 2 * (paint - 1) + finish.ordinal();
+    }
+
+    private static int vertex(int literal) {
+        return vertex(ClauseStore.paint(literal), ClauseStore.finish(literal));
+    }
+
+    /**
+     * Implication graph of the customer tastes of the 2-SAT components, as adjacency arrays.
+     */
+    private static final class ImplicationGraph {
+        private final int nbPaints;
+        private final int[] offsets;
+        private final int[] targets;
+        private final List<Integer> unitMattes = new ArrayList<>();
+
+        ImplicationGraph(ClauseStore clauses, Components components, boolean[] twoSat) {
+            this.nbPaints = clauses.nbPaints();
+            int nbVertices = 2 * nbPaints;
+            this.offsets = new int[nbVertices + 1];
+            //count, prefix sum, then fill
+            for (int clause = 0; clause < clauses.size(); clause++) {
+                int first = clauses.literal(clause, 0);
+                if (twoSat[components.of(ClauseStore.paint(first))]) {
+                    int second = clauses.length(clause) == 1 ? first : clauses.literal(clause, 1);
+                    offsets[(vertex(first) ^ 1) + 1]++;
+                    offsets[(vertex(second) ^ 1) + 1]++;
+                    if (clauses.length(clause) == 1 && ClauseStore.finish(first) == PaintFinish.M) {
+                        unitMattes.add(vertex(first));
+                    }
+                }
+            }
+            for (int vertex = 1; vertex <= nbVertices; vertex++) {
+                offsets[vertex] += offsets[vertex - 1];
+            }
+            this.targets = new int[offsets[nbVertices]];
+            int[] fill = Arrays.copyOf(offsets, nbVertices);
+            for (int clause = 0; clause < clauses.size(); clause++) {
+                int first = clauses.literal(clause, 0);
+                if (twoSat[components.of(ClauseStore.paint(first))]) {
+                    int second = clauses.length(clause) == 1 ? first : clauses.literal(clause, 1);
+                    targets[fill[vertex(first) ^ 1]++] = vertex(second);
+                    targets[fill[vertex(second) ^ 1]++] = vertex(first);
+                }
+            }
+        }
+
+        /**
+         * Iterative Tarjan's algorithm.
+         *
+         * @return the index of the strongly connected component of each vertex,
+         * or <code>null</code> if the budget is exhausted
+         */
+        int[] stronglyConnectedComponents(BudgetMeter meter) {
+            int nbVertices = 2 * nbPaints;
+            int[] index = new int[nbVertices];
+            int[] lowLink = new int[nbVertices];
+            int[] scc = new int[nbVertices];
+            Arrays.fill(scc, -1);
+            int[] stack = new int[nbVertices];
+            int stackSize = 0;
+            int[] callStack = new int[nbVertices];
+            int[] nextEdge = new int[nbVertices];
+            int counter = 0;
+            int nbComponents = 0;
+
+            for (int root = 0; root < nbVertices; root++) {
+                if (index[root] != 0) {
+                    continue;
+                }
+                int depth = 0;
+                callStack[depth++] = root;
+                index[root] = lowLink[root] = ++counter;
+                nextEdge[root] = offsets[root];
+                stack[stackSize++] = root;
+                while (depth > 0) {
+                    int vertex = callStack[depth - 1];
+                    if (nextEdge[vertex] < offsets[vertex + 1]) {
+                        int target = targets[nextEdge[vertex]++];
+                        if (index[target] == 0) {
+                            if (meter.tick()) {
+                                return null;
+                            }
+                            index[target] = lowLink[target] = ++counter;
+                            nextEdge[target] = offsets[target];
+                            stack[stackSize++] = target;
+                            callStack[depth++] = target;
+                        } else if (scc[target] == -1) {
+                            lowLink[vertex] = Math.min(lowLink[vertex], index[target]);
+                        }
+                        continue;
+                    }
+                    if (lowLink[vertex] == index[vertex]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            scc[member] = nbComponents;
+                        } while (member != vertex);
+                        nbComponents++;
+                    }
+                    depth--;
+                    if (depth > 0) {
+                        int parent = callStack[depth - 1];
+                        lowLink[parent] = Math.min(lowLink[parent], lowLink[vertex]);
+                    }
+                }
+            }
+            return scc;
+        }
+
+        /**
+         * @return the paints (1-based) reachable as matte from the customers liking a single matte
+         */
+        boolean[] impliedMattes() {
+            boolean[] mattes = new boolean[nbPaints + 1];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int vertex : unitMattes) {
+                if (!mattes[vertex / 2 + 1]) {
+                    mattes[vertex / 2 + 1] = true;
+                    queue.add(vertex);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int vertex = queue.remove();
+                for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+                    int target = targets[edge];
+                    if (target % 2 == PaintFinish.M.ordinal() && !mattes[target / 2 + 1]) {
+                        mattes[target / 2 + 1] = true;
+                        queue.add(target);
+                    }
+                }
+            }
+            return mattes;
+        }
+    }
+}
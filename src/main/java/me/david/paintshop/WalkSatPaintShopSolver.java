@@ -0,0 +1,316 @@
+package me.david.paintshop;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Implementation of a <code>PaintShopSolver</code> using a WalkSAT local search: a fast valid solution,
+ * without any proof that it is the cheapest, or that there is no solution.
+ * <p>Starting from all gloss, or from a hint, the search repeatedly picks a customer taste not satisfied, and flips one of
+ * its paints:</p>
+ * <ul>
+ * <li>a paint whose flip does not break any satisfied customer taste, gloss first,</li>
+ * <li>else, with the probability <code>noise</code>, a random paint of the customer taste,</li>
+ * <li>else the paint breaking the fewest customer tastes (then making the most, then gloss first).</li>
+ * </ul>
+ * <p>The number of customer tastes each flip would break or make is maintained incrementally, from the
+ * number of liked paint references of each customer taste.
+ * Once all the customer tastes are satisfied, the mattes that can be flipped to gloss without breaking
+ * anything are flipped, the solution is kept if it is the cheapest so far, and a random matte is
+ * flipped to gloss to carry on the search.
+ * After <code>maxFlips</code> flips, the search restarts from a random assignment, gloss-biased.</p>
+ * <p>The runs are deterministic for a given seed. The search stops after <code>maxRestarts</code> restarts,
+ * or when the budget is exhausted. The solution is at best {@link PaintShopSolution.Status#FEASIBLE},
+ * or {@link PaintShopSolution.Status#UNKNOWN} when no valid solution has been found.</p>
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/WalkSAT">WalkSAT</a>
+ */
+public class WalkSatPaintShopSolver implements AnytimePaintShopSolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WalkSatPaintShopSolver.class);
+
+    static final long DEFAULT_SEED = 0L;
+    private static final double DEFAULT_NOISE = 0.4;
+    private static final int DEFAULT_MAX_RESTARTS = 10;
+    private static final double RESTART_MATTE_PROBABILITY = 0.1;
+    private static final long BYTES_PER_PAINT = 2L * Integer.BYTES + 1L; //the breaks, the makes and the mattes
+    //the true literals and their sum, the unsatisfied clauses and their positions
+    private static final long BYTES_PER_CLAUSE = 4L * Integer.BYTES;
+
+    private final CustomerTasteClauses clauses;
+    private final int nbPaints;
+    private final long seed;
+    private final double noise;
+    private final int maxRestarts;
+    private final long maxFlips;
+
+    private Random random;
+    private boolean[] mattes; //1-based
+    private int[] trueLiterals;
+    private int[] trueSum; //sum of the paints of the true literals: the critical paint when only one
+    private int[] breaks;
+    private int[] makes;
+    private int[] unsatisfied;
+    private int[] unsatisfiedPosition;
+    private int nbUnsatisfied;
+    private int nbMattes;
+
+    /**
+     * Constructor, with the default seed.
+     *
+     * @param nbPaints       the number of paints as an int
+     * @param customerTastes the customer tastes
+     */
+    WalkSatPaintShopSolver(int nbPaints, List<CustomerTaste> customerTastes) {
+        this(nbPaints, customerTastes, DEFAULT_SEED);
+    }
+
+    /**
+     * @param nbPaints       the number of paints as an int
+     * @param customerTastes the customer tastes
+     * @param seed           the seed of the random choices
+     */
+    WalkSatPaintShopSolver(int nbPaints, List<CustomerTaste> customerTastes, long seed) {
+        this(nbPaints, customerTastes, seed, DEFAULT_NOISE, DEFAULT_MAX_RESTARTS,
+                Math.max(1_000L, 20L * (nbPaints + customerTastes.size())));
+    }
+
+    /**
+     * @param nbPaints       the number of paints as an int
+     * @param customerTastes the customer tastes
+     * @param seed           the seed of the random choices
+     * @param noise          probability of a random flip, in [0, 1]
+     * @param maxRestarts    the number of restarts
+     * @param maxFlips       the number of flips between two restarts
+     */
+    WalkSatPaintShopSolver(int nbPaints, List<CustomerTaste> customerTastes,
+                           long seed, double noise, int maxRestarts, long maxFlips) {
+        this.nbPaints = nbPaints;
+        this.clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+        this.seed = seed;
+        this.noise = noise;
+        this.maxRestarts = maxRestarts;
+        this.maxFlips = maxFlips;
+    }
+
+    /**
+     * @return the cheapest solution found as a List, or an empty list if none found
+     */
+    @Override
+    public List<String> solutions() {
+        return this.solve(SolverBudget.unlimited())
+                .paintBatches()
+                .map(paintBatches -> Collections.singletonList(paintBatches.finishesRepresentation()))
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public PaintShopSolution solve(SolverBudget budget) {
+        return this.solve(budget, null);
+    }
+
+    /**
+     * Runs the local search within the budget. One node of the budget is one flip.
+     *
+     * @param budget the budget of the run
+     * @param hint   the finish of each paint the first run starts from, or <code>null</code> for all gloss
+     * @return the cheapest solution found, {@link PaintShopSolution.Status#FEASIBLE} at best
+     */
+    @Override
+    public PaintShopSolution solve(SolverBudget budget, PaintBatches hint) {
+        BudgetMeter meter = budget.start();
+        if (meter.reserve(BYTES_PER_PAINT * (nbPaints + 1) + BYTES_PER_CLAUSE * clauses.size())) {
+            return PaintShopSolution.unknown();
+        }
+        this.random = new Random(seed);
+        String cheapest = null;
+        int cheapestNbMattes = Integer.MAX_VALUE;
+
+        search:
+        for (int restart = 0; restart <= maxRestarts; restart++) {
+            if (restart == 0) {
+                this.initialize(hint);
+            } else {
+                this.initialize(RESTART_MATTE_PROBABILITY);
+            }
+            for (long flip = 0; flip < maxFlips; flip++) {
+                if (nbUnsatisfied == 0) {
+                    this.descend();
+                    if (nbMattes < cheapestNbMattes) {
+                        cheapest = this.representation();
+                        cheapestNbMattes = nbMattes;
+                        LOGGER.debug("solution found: {} - restart: {} - flips: {}", cheapest, restart, flip);
+                        if (nbMattes == 0) {
+                            break search;
+                        }
+                    }
+                    this.flip(this.randomMatte());
+                    continue;
+                }
+                if (meter.tick()) {
+                    break search;
+                }
+                this.flip(this.pick(unsatisfied[random.nextInt(nbUnsatisfied)]));
+            }
+        }
+        return cheapest == null ? PaintShopSolution.unknown() : PaintShopSolution.feasible(cheapest);
+    }
+
+    private void initialize(double matteProbability) {
+        boolean[] mattes = new boolean[nbPaints + 1];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            mattes[paint] = random.nextDouble() < matteProbability;
+        }
+        this.initialize(mattes);
+    }
+
+    /**
+     * @param hint the finish of the first paints, the other ones being gloss, or <code>null</code>
+     */
+    private void initialize(PaintBatches hint) {
+        boolean[] mattes = new boolean[nbPaints + 1];
+        if (hint != null) {
+            List<PaintFinish> finishes = hint.finishes();
+            for (int paint = 1; paint <= Math.min(nbPaints, finishes.size()); paint++) {
+                mattes[paint] = finishes.get(paint - 1) == PaintFinish.M;
+            }
+        }
+        this.initialize(mattes);
+    }
+
+    private void initialize(boolean[] mattes) {
+        this.mattes = mattes;
+        nbMattes = 0;
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            nbMattes += mattes[paint] ? 1 : 0;
+        }
+        trueLiterals = new int[clauses.size()];
+        trueSum = new int[clauses.size()];
+        breaks = new int[nbPaints + 1];
+        makes = new int[nbPaints + 1];
+        unsatisfied = new int[clauses.size()];
+        unsatisfiedPosition = new int[clauses.size()];
+        nbUnsatisfied = 0;
+        for (int clause = 0; clause < clauses.size(); clause++) {
+            for (int position = 0; position < clauses.length(clause); position++) {
+                int literal = clauses.literal(clause, position);
+                if (this.isTrue(literal)) {
+                    trueLiterals[clause]++;
+                    trueSum[clause] += ClauseStore.paint(literal);
+                }
+            }
+            this.counted(clause, +1);
+        }
+    }
+
+    /**
+     * Adds (<code>sign = 1</code>) or removes (<code>sign = -1</code>) the contribution of a customer taste
+     * to the break and make counts, and to the unsatisfied customer tastes.
+     */
+    private void counted(int clause, int sign) {
+        if (trueLiterals[clause] == 1) {
+            breaks[trueSum[clause]] += sign;
+        } else if (trueLiterals[clause] == 0) {
+            for (int position = 0; position < clauses.length(clause); position++) {
+                makes[ClauseStore.paint(clauses.literal(clause, position))] += sign;
+            }
+            if (sign > 0) {
+                unsatisfiedPosition[clause] = nbUnsatisfied;
+                unsatisfied[nbUnsatisfied++] = clause;
+            } else {
+                int last = unsatisfied[--nbUnsatisfied];
+                unsatisfied[unsatisfiedPosition[clause]] = last;
+                unsatisfiedPosition[last] = unsatisfiedPosition[clause];
+            }
+        }
+    }
+
+    private void flip(int paint) {
+        for (int position = 0; position < clauses.occurrenceCount(paint); position++) {
+            int clause = clauses.occurrence(paint, position);
+            if (position > 0 && clauses.occurrence(paint, position - 1) == clause) {
+                continue; //a customer liking the paint both ways: already updated
+            }
+            this.counted(clause, -1);
+            for (int literal = 0; literal < clauses.length(clause); literal++) {
+                int value = clauses.literal(clause, literal);
+                if (ClauseStore.paint(value) == paint) {
+                    int delta = this.isTrue(value) ? -1 : 1;
+                    trueLiterals[clause] += delta;
+                    trueSum[clause] += delta * paint;
+                }
+            }
+        }
+        mattes[paint] = !mattes[paint];
+        nbMattes += mattes[paint] ? 1 : -1;
+        for (int position = 0; position < clauses.occurrenceCount(paint); position++) {
+            int clause = clauses.occurrence(paint, position);
+            if (position == 0 || clauses.occurrence(paint, position - 1) != clause) {
+                this.counted(clause, +1);
+            }
+        }
+    }
+
+    /**
+     * Picks the paint to flip in an unsatisfied customer taste.
+     */
+    private int pick(int clause) {
+        int best = 0;
+        for (int position = 0; position < clauses.length(clause); position++) {
+            int paint = ClauseStore.paint(clauses.literal(clause, position));
+            if (breaks[paint] == 0 && (best == 0 || mattes[paint])) {
+                best = paint; //free flip, to gloss if possible
+            }
+        }
+        if (best != 0) {
+            return best;
+        }
+        if (random.nextDouble() < noise) {
+            return ClauseStore.paint(clauses.literal(clause, random.nextInt(clauses.length(clause))));
+        }
+        for (int position = 0; position < clauses.length(clause); position++) {
+            int paint = ClauseStore.paint(clauses.literal(clause, position));
+            if (best == 0 || breaks[paint] < breaks[best]
+                    || breaks[paint] == breaks[best] && makes[paint] > makes[best]
+                    || breaks[paint] == breaks[best] && makes[paint] == makes[best] && mattes[paint]) {
+                best = paint;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Flips to gloss the mattes not needed by any customer taste.
+     */
+    private void descend() {
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            if (mattes[paint] && breaks[paint] == 0) {
+                this.flip(paint);
+            }
+        }
+    }
+
+    private int randomMatte() {
+        int skip = random.nextInt(nbMattes);
+        for (int paint = 1; ; paint++) {
+            if (mattes[paint] && skip-- == 0) {
+                return paint;
+            }
+        }
+    }
+
+    private boolean isTrue(int literal) {
+        return mattes[ClauseStore.paint(literal)] == (ClauseStore.finish(literal) == PaintFinish.M);
+    }
+
+    private String representation() {
+        StringBuilder representation = new StringBuilder(nbPaints);
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            representation.append(mattes[paint] ? PaintFinish.M.name() : PaintFinish.G.name());
+        }
+        return representation.toString();
+    }
+}
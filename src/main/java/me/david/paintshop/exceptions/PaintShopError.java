@@ -8,7 +8,16 @@ public enum PaintShopError {
             "The program only accepts one argument, the input text file."),
     INVALID_INPUT_FILE(1, "Input file provided cannot be read."),
     INVALID_INPUT_FILE_NUMBER_OF_PAINTS(3, "Invalid number of paints."),
-    INVALID_CUSTOMER_TASTE(4, "Invalid color set customer taste.");
+    INVALID_CUSTOMER_TASTE(4, "Invalid color set customer taste."),
+    SOLVER_INTERRUPTED(5, "The solver has been interrupted before completion."),
+    SOLVER_TIMEOUT(6, "No solver completed within its timeout."),
+    UNKNOWN_SOLVER(7, "Unknown solver."),
+    CLAUSE_STORE_UNAVAILABLE(8, "The clause store cannot be allocated."),
+    SOLVER_REJECTED(9, "The problem has been rejected by the executor."),
+    INVALID_CUSTOMER_WEIGHT(10, "Invalid customer weight."),
+    WORKER_UNAVAILABLE(11, "No worker could solve the shard."),
+    INVALID_CHECKPOINT(12, "The checkpoint cannot be resumed."),
+    WORKER_FAILED(13, "The worker failed to solve the shard.");
 
     private final int code;
     private final String description;
@@ -6,6 +6,8 @@ package me.david.paintshop.exceptions;
  */
 public class PaintShopInputRuntimeException extends RuntimeException {
 
+    private final PaintShopError error;
+
     public PaintShopInputRuntimeException(PaintShopError err, Throwable cause) {
         this(err, null, cause);
     }
@@ -16,6 +18,14 @@ public class PaintShopInputRuntimeException extends RuntimeException {
 
     public PaintShopInputRuntimeException(PaintShopError err, String advice, Throwable cause) {
         super(concat(err, advice), cause);
+        this.error = err;
+    }
+
+    /**
+     * @return the error, e.g. to send it over the wire
+     */
+    public PaintShopError getError() {
+        return error;
     }
 
     private static String concat(PaintShopError err, String advice) {
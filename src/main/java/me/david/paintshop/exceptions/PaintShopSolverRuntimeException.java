@@ -0,0 +1,35 @@
+package me.david.paintshop.exceptions;
+
+/**
+ * RuntimeException used when a solver cannot deliver a result,
+ * e.g. when it is interrupted or when it runs out of time.
+ * <p>Unlike {@link PaintShopInputRuntimeException}, it says nothing about the
+ * satisfiability of the problem.</p>
+ */
+public class PaintShopSolverRuntimeException extends RuntimeException {
+
+    private final PaintShopError error;
+
+    public PaintShopSolverRuntimeException(PaintShopError err, String advice) {
+        this(err, advice, null);
+    }
+
+    public PaintShopSolverRuntimeException(PaintShopError err, String advice, Throwable cause) {
+        super(concat(err, advice), cause);
+        this.error = err;
+    }
+
+    /**
+     * @return the error, e.g. to send it over the wire
+     */
+    public PaintShopError getError() {
+        return error;
+    }
+
+    private static String concat(PaintShopError err, String advice) {
+        if (advice != null && !advice.isEmpty()) {
+            return err.getDescription() + " - " + advice;
+        }
+        return err.getDescription();
+    }
+}
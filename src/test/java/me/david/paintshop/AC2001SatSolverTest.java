@@ -0,0 +1,60 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link AC2001SatSolver}
+ */
+class AC2001SatSolverTest {
+
+    private static final byte GLOSS = 1;
+    private static final byte MATTE = 2;
+    private static final byte BOTH = 3;
+
+    @Test
+    void testAc2001_chainGiven_shouldReduceTheDomains() {
+        int nbPaints = 4;
+        AC2001SatSolver solver = solver(nbPaints, "1M", "1G 2M", "2G 3G", "3M 4G");
+        byte[] domains = {0, BOTH, BOTH, BOTH, BOTH};
+
+        assertThat(solver.ac2001(domains, SolverBudget.unlimited().start())).isTrue();
+        assertThat(domains).containsExactly(0, MATTE, MATTE, GLOSS, GLOSS);
+    }
+
+    @Test
+    void testSolve_contradictionGiven_shouldBeUnsatisfiable() {
+        assertThat(solver(3, "1M", "1G 2M", "2G 3G", "3M").solve(SolverBudget.unlimited()).status())
+                .isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+    }
+
+    @Test
+    void testSolve_exhaustedBudgetGiven_shouldReturnUnknown() {
+        assertThat(solver(3, "1M", "1G 2M", "2G 3G").solve(SolverBudget.unlimited().withMaxNodes(1)).status())
+                .isEqualTo(PaintShopSolution.Status.UNKNOWN);
+    }
+
+    @Test
+    void testSolutions_exampleGiven_shouldFindTheSameSolutionsAsAC3() {
+        int nbPaints = 5;
+        List<CustomerTaste> customerTastes = Stream.of("1 M 3 G 5 G", "2 G 3 M 4 G", "5 M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+
+        assertThat(new AC2001SatSolver(nbPaints, customerTastes).solutions())
+                .containsExactly("GGGGM")
+                .isEqualTo(new AC3SatSolver(nbPaints, customerTastes).solutions());
+    }
+
+    private static AC2001SatSolver solver(int nbPaints, String... tastes) {
+        List<CustomerTaste> customerTastes = Stream.of(tastes)
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+        return new AC2001SatSolver(nbPaints, customerTastes);
+    }
+}
@@ -0,0 +1,41 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link AdaptiveClauseOrder}
+ */
+class AdaptiveClauseOrderTest {
+
+    private final int nbPaints = 3;
+    private final List<CustomerTaste> customerTastes = Stream.of("1G", "2G", "3M")
+            .map(repr -> new CustomerTaste(nbPaints, repr))
+            .collect(Collectors.toList());
+
+    @Test
+    void testAllSatisfiedBy_combinationsGiven_shouldCheckAllTheCustomerTastes() {
+        AdaptiveClauseOrder order = new AdaptiveClauseOrder(customerTastes);
+
+        assertThat(order.allSatisfiedBy("GGM")).isTrue();
+        assertThat(order.allSatisfiedBy("GGG")).isFalse();
+        assertThat(order.allSatisfiedBy("MGM")).isFalse();
+    }
+
+    @Test
+    void testAllSatisfiedBy_aCustomerTasteRejectingMostGiven_shouldMoveItToTheFront() {
+        AdaptiveClauseOrder order = new AdaptiveClauseOrder(customerTastes);
+
+        for (int check = 0; check < AdaptiveClauseOrder.PERIOD; check++) {
+            assertThat(order.allSatisfiedBy(check % 4 == 0 ? "GMM" : "GGG")).isFalse();
+        }
+
+        assertThat(order.order().stream().map(CustomerTaste::toString).collect(Collectors.toList()))
+                .containsExactly("3 M", "2 G", "1 G");
+    }
+}
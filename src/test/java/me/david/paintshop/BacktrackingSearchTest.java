@@ -0,0 +1,165 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for {@link BacktrackingSearch}
+ */
+class BacktrackingSearchTest {
+
+    @Test
+    void testCheapestSolution_customerTastesGiven_shouldReturnTheCheapestSolution() {
+        int nbPaints = 5;
+        assertThat(search(nbPaints, "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M").cheapestSolution())
+                .contains("GGGGM");
+    }
+
+    @Test
+    void testCheapestSolution_unsatisfiableProblemGiven_shouldReturnEmpty() {
+        int nbPaints = 3;
+        assertThat(search(nbPaints, "1M", "2G", "1G2M").cheapestSolution())
+                .isEmpty();
+    }
+
+    @Test
+    void testCheapestSolution_emptyDomainGiven_shouldReturnEmpty() {
+        Map<Integer, EnumSet<PaintFinish>> domains = fullDomains(2);
+        domains.put(2, EnumSet.noneOf(PaintFinish.class));
+        CustomerTasteClauses clauses = CustomerTasteClauses.compile(2, Collections.emptyList());
+
+        assertThat(new BacktrackingSearch(clauses, domains).cheapestSolution())
+                .isEmpty();
+    }
+
+    @Test
+    void testCheapestSolution_reducedDomainsGiven_shouldOnlyUseTheRemainingFinishes() {
+        Map<Integer, EnumSet<PaintFinish>> domains = fullDomains(3);
+        domains.put(2, EnumSet.of(PaintFinish.M));
+        CustomerTasteClauses clauses = CustomerTasteClauses.compile(3, Collections.emptyList());
+
+        assertThat(new BacktrackingSearch(clauses, domains).cheapestSolution())
+                .contains("GMG");
+    }
+
+    @Test
+    void testCheapestSolution_conflictingCheapestChoicesGiven_shouldBacktrack() {
+        //(1M or 2M) and (1G or 2M) and (1M or 2G): only MM is valid - more than one matte per clause,
+        //only possible by building the clauses directly
+        CustomerTasteClauses clauses = new CustomerTasteClauses(2,
+                new int[]{0, 2, 4, 6},
+                new int[]{-1, -2, 1, -2, -1, 2});
+
+        assertThat(new BacktrackingSearch(clauses, fullDomains(2)).cheapestSolution())
+                .contains("MM");
+    }
+
+    @Test
+    void testCheapestSolution_manyUndecidedPaintsGiven_shouldNotEnumerateTheCombinations() {
+        int nbPaints = 60;
+        List<String> tastes = new ArrayList<>();
+        for (int paint = 1; paint < nbPaints; paint++) {
+            tastes.add(paint + " G " + (paint + 1) + " M");
+        }
+        tastes.add(nbPaints + " G 1 G");
+
+        assertThat(search(nbPaints, tastes.toArray(new String[0])).cheapestSolution())
+                .hasValueSatisfying(solution -> assertThat(solution).hasSize(nbPaints).doesNotContain("M"));
+    }
+
+    @Test
+    void testSolve_exhaustedBudgetGiven_shouldReturnTheFirstSolutionFoundAsFeasible() {
+        //(1M or 2M): the first solution found, GM, is the cheapest, but not proven yet after 2 nodes
+        CustomerTasteClauses clauses = new CustomerTasteClauses(3,
+                new int[]{0, 2},
+                new int[]{-1, -2});
+        BacktrackingSearch search = new BacktrackingSearch(clauses, fullDomains(3));
+
+        PaintShopSolution solution = search.solve(SolverBudget.unlimited().withMaxNodes(2).start());
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.FEASIBLE);
+        assertThat(solution.toString()).isEqualTo("G M G");
+
+        assertThat(search.solve(SolverBudget.unlimited().start()).status())
+                .isEqualTo(PaintShopSolution.Status.OPTIMAL);
+        assertThat(search.solve(SolverBudget.unlimited().withMaxCandidateBytes(8).start()).status())
+                .isEqualTo(PaintShopSolution.Status.UNKNOWN);
+    }
+
+    @Test
+    void testSolve_validHintGiven_shouldStartFromItAsTheCheapestSolution() {
+        PaintBatches hint = new PaintBatches("GGGGM");
+
+        PaintShopSolution exhausted = search(5, "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M").hinted(hint)
+                .solve(SolverBudget.unlimited().withMaxNodes(0).start());
+        BudgetMeter hinted = SolverBudget.unlimited().start();
+        PaintShopSolution solution = search(5, "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M").hinted(hint).solve(hinted);
+        BudgetMeter notHinted = SolverBudget.unlimited().start();
+        search(5, "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M").solve(notHinted);
+
+        assertThat(exhausted.status()).isEqualTo(PaintShopSolution.Status.FEASIBLE);
+        assertThat(exhausted.toString()).isEqualTo("G G G G M");
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.OPTIMAL);
+        assertThat(solution.toString()).isEqualTo("G G G G M");
+        assertThat(hinted.nodes()).isLessThanOrEqualTo(notHinted.nodes());
+    }
+
+    @Test
+    void testSolve_invalidHintGiven_shouldTryItsFinishesFirstAmongTheFinishesOfTheSameCost() {
+        CustomerTasteClauses clauses = CustomerTasteClauses.compile(2, customerTastes(2, "1 G 2 G"));
+        byte[] domains = BacktrackingSearch.allFinishes(2);
+        PaintCostModel sameCosts = PaintCostModel.of(1, 1);
+
+        assertThat(new BacktrackingSearch(clauses, domains, sameCosts).withoutSymmetryBreaking()
+                .hinted(new PaintBatches("MM")).cheapestSolution()).contains("MG");
+        assertThat(new BacktrackingSearch(clauses, domains, sameCosts).cheapestSolution()).contains("GG");
+        assertThat(new BacktrackingSearch(clauses, domains).hinted(new PaintBatches("MM"))
+                .cheapestSolution()).contains("GG");
+    }
+
+    @Test
+    void testSolve_hintGivenOnInterchangeablePaints_shouldKeepTheLexLeaderOrderBeforeTheHintedOne() {
+        //paints 1 and 2 are interchangeable: the lex-leader constraint forbids 1 M with 2 G,
+        //so the hinted order of the previous test is not kept, only the cost of its solution
+        CustomerTasteClauses clauses = CustomerTasteClauses.compile(2, customerTastes(2, "1 G 2 G"));
+        byte[] domains = BacktrackingSearch.allFinishes(2);
+        PaintCostModel sameCosts = PaintCostModel.of(1, 1);
+
+        assertThat(new BacktrackingSearch(clauses, domains, sameCosts).hinted(new PaintBatches("MM"))
+                .cheapestSolution()).contains("GM");
+    }
+
+    @Test
+    void testSolve_shorterOrLongerHintGiven_shouldStillFindTheCheapestSolution() {
+        int nbPaints = 5;
+
+        assertThat(search(nbPaints, "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M").hinted(new PaintBatches("MM"))
+                .cheapestSolution()).contains("GGGGM");
+        assertThat(search(nbPaints, "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M").hinted(new PaintBatches("MMMMMMM"))
+                .cheapestSolution()).contains("GGGGM");
+    }
+
+    private static BacktrackingSearch search(int nbPaints, String... tastes) {
+        return new BacktrackingSearch(
+                CustomerTasteClauses.compile(nbPaints, customerTastes(nbPaints, tastes)),
+                fullDomains(nbPaints));
+    }
+
+    private static List<CustomerTaste> customerTastes(int nbPaints, String... tastes) {
+        return Stream.of(tastes)
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<Integer, EnumSet<PaintFinish>> fullDomains(int nbPaints) {
+        Map<Integer, EnumSet<PaintFinish>> domains = new HashMap<>();
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            domains.put(paint, EnumSet.allOf(PaintFinish.class));
+        }
+        return domains;
+    }
+}
@@ -0,0 +1,63 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link BitSlicedEvaluator}
+ */
+class BitSlicedEvaluatorTest {
+
+    @Test
+    void testSatisfied_combinationsGiven_shouldSetTheBitsOfTheValidOnes() {
+        BitSlicedEvaluator evaluator = evaluator(5, "1M3G5G", "2G3M4G", "5M");
+
+        assertThat(evaluator.satisfied(Arrays.asList("GGGGG", "GGGGM", "MGGGM", "GGMGM", "GMMGM")))
+                .isEqualTo(0b00110L);
+    }
+
+    @Test
+    void testSatisfied_moreThan64CombinationsGiven_shouldThrow() {
+        BitSlicedEvaluator evaluator = evaluator(1, "1M");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> evaluator.satisfied(Stream.generate(() -> "M").limit(65).collect(Collectors.toList())));
+    }
+
+    @Test
+    void testSatisfied_lessThan6PaintsGiven_shouldOnlyKeepTheCombinationsOfTheBlock() {
+        BitSlicedEvaluator evaluator = evaluator(2, "2M");
+
+        assertThat(evaluator.blocks()).isEqualTo(1);
+        //GM and MM
+        assertThat(evaluator.satisfied(0)).isEqualTo(0b1010L);
+        assertThat(evaluator.representation(0, 3)).isEqualTo("MM");
+    }
+
+    @Test
+    void testSatisfied_blocksGiven_shouldNumberTheCombinationsInLexicographicOrder() {
+        BitSlicedEvaluator evaluator = evaluator(8, "1M", "8M", "7G");
+
+        assertThat(evaluator.blocks()).isEqualTo(4);
+        assertThat(evaluator.satisfied(0)).isZero();
+        assertThat(evaluator.satisfied(1)).isZero();
+        long satisfied = evaluator.satisfied(2);
+        assertThat(Long.bitCount(satisfied)).isEqualTo(16);
+        assertThat(evaluator.representation(2, Long.numberOfTrailingZeros(satisfied))).isEqualTo("MGGGGGGM");
+        assertThat(BitSlicedEvaluator.nbMattes(2)).isEqualTo(1);
+    }
+
+    private static BitSlicedEvaluator evaluator(int nbPaints, String... tastes) {
+        List<CustomerTaste> customerTastes = Stream.of(tastes)
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+        return new BitSlicedEvaluator(CustomerTasteClauses.compile(nbPaints, customerTastes));
+    }
+}
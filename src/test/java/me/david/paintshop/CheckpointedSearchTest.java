@@ -0,0 +1,142 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopError;
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.assertj.core.api.Java6Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for {@link CheckpointedSearch} and {@link SearchCheckpoint}
+ */
+class CheckpointedSearchTest {
+
+    private Path directory;
+    private Path checkpoint;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("paintshop-checkpoint");
+        checkpoint = directory.resolve("search.ckpt");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        Files.deleteIfExists(checkpoint);
+        Files.delete(directory);
+    }
+
+    @Test
+    void testSolve_budgetExhaustedRepeatedly_shouldResumeUpToTheCheapestSolution() {
+        int nbPaints = 40;
+        //only the last paint is forced by the arc consistency: the others are searched, a node each
+        List<CustomerTaste> customerTastes = new ArrayList<>();
+        for (int paint = 1; paint < nbPaints; paint++) {
+            customerTastes.add(new CustomerTaste(nbPaints, paint + " G " + (paint + 1) + " M"));
+        }
+        customerTastes.add(new CustomerTaste(nbPaints, nbPaints + " M"));
+        PaintShopProblem problem = PaintShopProblem.of(nbPaints, customerTastes);
+        SolverBudget budget = SolverBudget.unlimited().withMaxNodes(acNodes(nbPaints, customerTastes) + 10);
+
+        PaintShopSolution solution = problem.solve(budget, checkpoint);
+        int nbRuns = 1;
+        while (solution.status() == PaintShopSolution.Status.FEASIBLE
+                || solution.status() == PaintShopSolution.Status.UNKNOWN) {
+            assertThat(Files.exists(checkpoint)).isTrue();
+            solution = problem.solve(budget, checkpoint);
+            nbRuns++;
+        }
+
+        assertThat(nbRuns).isGreaterThan(2);
+        assertThat(solution.isOptimal()).isTrue();
+        assertThat(solution.paintBatches().get().finishesRepresentation())
+                .isEqualTo(String.join("", Collections.nCopies(nbPaints - 1, "G")) + "M");
+        assertThat(Files.exists(checkpoint)).isFalse();
+    }
+
+    @Test
+    void testSolve_checkpointOfAnotherProblemGiven_shouldThrow() {
+        PaintShopProblem problem = PaintShopProblem.fromString("2\n1 G 2 G\n1 M 2 G");
+        SearchCheckpoint other = new SearchCheckpoint(42L, new byte[]{3, 3, 3}, 0, new int[0], new byte[0], null, 0);
+        this.write(other);
+
+        assertThatThrownBy(() -> problem.solve(SolverBudget.unlimited(), checkpoint))
+                .isInstanceOf(PaintShopInputRuntimeException.class)
+                .hasMessageStartingWith(PaintShopError.INVALID_CHECKPOINT.getDescription())
+                .hasMessageContaining("another problem");
+    }
+
+    @Test
+    void testSolve_corruptedCheckpointGiven_shouldThrow() throws IOException {
+        Files.write(checkpoint, new byte[]{1, 2, 3});
+
+        assertThatThrownBy(() -> PaintShopProblem.fromString("1\n1 M").solve(SolverBudget.unlimited(), checkpoint))
+                .isInstanceOf(PaintShopInputRuntimeException.class)
+                .hasMessageContaining("cannot be read");
+    }
+
+    @Test
+    void testRead_countsOutOfRangeGiven_shouldThrow() {
+        SearchCheckpoint[] corrupted = {
+                new SearchCheckpoint(7L, new byte[]{3, 1, 2}, 0, new int[0], new byte[0], null, 0),
+                new SearchCheckpoint(7L, new byte[]{3, 1, 0, 3}, 0, new int[0], new byte[0], null, 0),
+                new SearchCheckpoint(7L, new byte[]{3, 1, 2, 3}, 4, new int[]{1, 2, 3, 1},
+                        new byte[]{0, 0, 0, 0}, null, 0),
+                new SearchCheckpoint(7L, new byte[]{3, 1, 2, 3}, 1, new int[]{4}, new byte[]{0}, null, 0),
+                new SearchCheckpoint(7L, new byte[]{3, 1, 2, 3}, 1, new int[]{1}, new byte[]{3}, null, 0),
+                new SearchCheckpoint(7L, new byte[]{3, 1, 2, 3}, 0, new int[0], new byte[0], "MXG", 12L)};
+        for (SearchCheckpoint searchCheckpoint : corrupted) {
+            this.write(searchCheckpoint);
+
+            assertThatThrownBy(() -> SearchCheckpoint.read(checkpoint, 3))
+                    .isInstanceOf(PaintShopInputRuntimeException.class)
+                    .hasMessageStartingWith(PaintShopError.INVALID_CHECKPOINT.getDescription())
+                    .hasCauseInstanceOf(StreamCorruptedException.class);
+        }
+    }
+
+    @Test
+    void testWrite_checkpointGiven_shouldBeReadBack() {
+        SearchCheckpoint written = new SearchCheckpoint(7L, new byte[]{3, 1, 2, 3}, 2,
+                new int[]{3, 1}, new byte[]{1, 0}, "MGG", 12L);
+        this.write(written);
+
+        SearchCheckpoint read = SearchCheckpoint.read(checkpoint, 3);
+
+        assertThat(read.fingerprint).isEqualTo(7L);
+        assertThat(read.domains).isEqualTo(written.domains);
+        assertThat(read.depth).isEqualTo(2);
+        assertThat(read.framePaints).isEqualTo(written.framePaints);
+        assertThat(read.frameNexts).isEqualTo(written.frameNexts);
+        assertThat(read.cheapest).isEqualTo("MGG");
+        assertThat(read.cheapestCost).isEqualTo(12L);
+    }
+
+    private void write(SearchCheckpoint searchCheckpoint) {
+        try {
+            searchCheckpoint.write(checkpoint);
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static long acNodes(int nbPaints, List<CustomerTaste> customerTastes) {
+        byte[] domains = new byte[nbPaints + 1];
+        Arrays.fill(domains, (byte) 3);
+        BudgetMeter meter = SolverBudget.unlimited().start();
+        new AC2001SatSolver(nbPaints, customerTastes).ac2001(domains, meter);
+        return meter.nodes();
+    }
+}
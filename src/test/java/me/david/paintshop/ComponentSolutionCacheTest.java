@@ -0,0 +1,104 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link ComponentSolutionCache} and {@link CachingPaintShopSolver}
+ */
+class ComponentSolutionCacheTest {
+
+    @Test
+    void testSolve_sameComponentAtOtherPaintsGiven_shouldReuseItsSolution() {
+        ComponentSolutionCache cache = new ComponentSolutionCache(100);
+
+        PaintShopSolution first = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M")
+                .solve(cache, SolverBudget.unlimited());
+        PaintShopSolution second = PaintShopProblem.fromString("8\n7 M\n1 G\n3 G 4 M 6 G\n2 M 4 G 7 G")
+                .solve(cache, SolverBudget.unlimited());
+
+        assertThat(first.toString()).isEqualTo("G G G G M");
+        assertThat(second.toString()).isEqualTo("G G G G G G M G");
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testSolve_unsatisfiableProblemGiven_shouldNotStoreIt() {
+        ComponentSolutionCache cache = new ComponentSolutionCache(100);
+
+        PaintShopSolution solution = PaintShopProblem.fromString("2\n1 G\n1 M\n2 M")
+                .solve(cache, SolverBudget.unlimited());
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    void testPut_capacityReached_shouldEvictTheLeastRecentlyUsed() {
+        ComponentSolutionCache cache = new ComponentSolutionCache(2);
+        ComponentSolutionCache.Key first = new ComponentSolutionCache.Key(new int[]{1, 1, 1, 1});
+        ComponentSolutionCache.Key second = new ComponentSolutionCache.Key(new int[]{1, 1, 1, -1});
+        ComponentSolutionCache.Key third = new ComponentSolutionCache.Key(new int[]{2, 1, 2, 1, 2});
+        cache.put(first, "G");
+        cache.put(second, "M");
+
+        cache.get(first);
+        cache.put(third, "GG");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(first)).isEqualTo("G");
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(third)).isEqualTo("GG");
+    }
+
+    @Test
+    void testLoad_savedCacheGiven_shouldFindTheSameComponents() throws IOException {
+        Path directory = Files.createTempDirectory("paintshop");
+        Path file = directory.resolve("components.bin");
+        try {
+            ComponentSolutionCache cache = ComponentSolutionCache.load(file, 100);
+            assertThat(cache.size()).isEqualTo(0);
+            PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M").solve(cache, SolverBudget.unlimited());
+            cache.save(file);
+
+            ComponentSolutionCache loaded = ComponentSolutionCache.load(file, 100);
+            PaintShopSolution solution = PaintShopProblem.fromString("6\n6 M\n3 G 4 M 5 G\n2 M 4 G 6 G")
+                    .solve(loaded, SolverBudget.unlimited());
+
+            assertThat(loaded.size()).isEqualTo(1);
+            assertThat(loaded.hits()).isEqualTo(1);
+            assertThat(solution.toString()).isEqualTo("G G G G G M");
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void testLoad_inconsistentCountsGiven_shouldThrowStreamCorruptedException() throws IOException {
+        Path directory = Files.createTempDirectory("paintshop");
+        Path file = directory.resolve("components.bin");
+        int[][] corrupted = {{1, 1, 1, 1, 7}, {2, 1, 1, 3}, {1, 2, 1, 1}, {1, 1, 0}, {0, 0}};
+        try {
+            for (int[] canonical : corrupted) {
+                ComponentSolutionCache cache = new ComponentSolutionCache(4);
+                cache.put(new ComponentSolutionCache.Key(canonical), "G");
+                cache.save(file);
+
+                assertThrows(StreamCorruptedException.class, () -> ComponentSolutionCache.load(file, 4));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+}
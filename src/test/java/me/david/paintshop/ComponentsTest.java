@@ -0,0 +1,30 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link Components}
+ */
+class ComponentsTest {
+
+    @Test
+    void testOf_customerTastesGiven_shouldConnectThePaintsOfEachTaste() {
+        int nbPaints = 6;
+        List<CustomerTaste> customerTastes = Stream.of("1G 3M", "3G 5G", "2M", "4G 6M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+
+        Components components = Components.of(CustomerTasteClauses.compile(nbPaints, customerTastes));
+
+        assertThat(components.count()).isEqualTo(3);
+        assertThat(new int[]{components.of(1), components.of(2), components.of(3),
+                components.of(4), components.of(5), components.of(6)})
+                .containsExactly(0, 1, 0, 2, 0, 2);
+    }
+}
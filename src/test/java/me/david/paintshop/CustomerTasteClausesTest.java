@@ -0,0 +1,54 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link CustomerTasteClauses}
+ */
+class CustomerTasteClausesTest {
+
+    @Test
+    void testCompile_customerTastesGiven_shouldPackSignedLiteralsSortedByPaint() {
+        int nbPaints = 5;
+        List<CustomerTaste> customerTastes = Stream.of("3G1M5G", "5M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+
+        CustomerTasteClauses clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+
+        assertThat(clauses.size()).isEqualTo(2);
+        assertThat(clauses.length(0)).isEqualTo(3);
+        assertThat(new int[]{clauses.literal(0, 0), clauses.literal(0, 1), clauses.literal(0, 2)})
+                .containsExactly(-1, 3, 5);
+        assertThat(clauses.literal(1, 0)).isEqualTo(-5);
+    }
+
+    @Test
+    void testOccurrences_shouldIndexTheClausesOfEachPaint() {
+        int nbPaints = 5;
+        List<CustomerTaste> customerTastes = Stream.of("1M3G5G", "2G3M4G", "5M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+
+        CustomerTasteClauses clauses = CustomerTasteClauses.compile(nbPaints, customerTastes);
+
+        assertThat(clauses.occurrenceCount(3)).isEqualTo(2);
+        assertThat(new int[]{clauses.occurrence(3, 0), clauses.occurrence(3, 1)}).containsExactly(0, 1);
+        assertThat(clauses.occurrenceCount(5)).isEqualTo(2);
+        assertThat(clauses.occurrence(5, 1)).isEqualTo(2);
+    }
+
+    @Test
+    void testLiteral_paintReferenceGiven_shouldBePositiveForGlossAndNegativeForMatte() {
+        assertThat(ClauseStore.literal(new PaintReference(4, PaintFinish.G))).isEqualTo(4);
+        assertThat(ClauseStore.literal(new PaintReference(4, PaintFinish.M))).isEqualTo(-4);
+        assertThat(ClauseStore.paint(-4)).isEqualTo(4);
+        assertThat(ClauseStore.finish(-4)).isEqualTo(PaintFinish.M);
+    }
+}
@@ -0,0 +1,85 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_CUSTOMER_TASTE;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link CustomerTasteParser}
+ */
+class CustomerTasteParserTest {
+
+    private final CustomerTasteParser parser = new CustomerTasteParser();
+
+    @Test
+    void testParse_validTasteGiven_shouldReturnTheLiterals() {
+        assertThat(parser.parse(" 1 G  2M 4G", 5)).isEqualTo(CustomerTasteParser.VALID);
+        assertThat(Arrays.copyOf(parser.literals(), parser.length())).containsExactly(1, -2, 4);
+    }
+
+    @Test
+    void testParse_signedOrZeroPaddedIndexGiven_shouldReturnTheLiterals() {
+        assertThat(parser.parse("+1 G 02M", 5)).isEqualTo(CustomerTasteParser.VALID);
+        assertThat(Arrays.copyOf(parser.literals(), parser.length())).containsExactly(1, -2);
+    }
+
+    @Test
+    void testParse_duplicateGiven_shouldKeepItOnce() {
+        assertThat(parser.parse("2 M 2 M 1 G", 5)).isEqualTo(CustomerTasteParser.VALID);
+        assertThat(Arrays.copyOf(parser.literals(), parser.length())).containsExactly(-2, 1);
+    }
+
+    @Test
+    void testParse_invalidTastesGiven_shouldReturnTheReason() {
+        assertThat(parser.parse("", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("1 G 2", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("1 g", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("1 X", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("G 1", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("1 G ", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("1 G|2 M", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("+ 1 G", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("6 G 1 X", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("4294967297 G", 5)).isEqualTo(CustomerTasteParser.INVALID_FORMAT);
+        assertThat(parser.parse("-1 G", 5)).isEqualTo(CustomerTasteParser.UNKNOWN_PAINT);
+        assertThat(parser.parse("6 G", 5)).isEqualTo(CustomerTasteParser.UNKNOWN_PAINT);
+        assertThat(parser.parse("0 G", 5)).isEqualTo(CustomerTasteParser.UNKNOWN_PAINT);
+        assertThat(parser.parse("1 M 2 M", 5)).isEqualTo(CustomerTasteParser.MORE_THAN_ONE_MATTE);
+    }
+
+    @Test
+    void testParse_edgeRepresentationsGiven_shouldAcceptExactlyWhatCustomerTasteAccepts() {
+        for (String taste : Arrays.asList("+1 G", "01 G", "  1 G", "1 G  2 M", "1G2M", "1 g", "1 G ", "1 G\t",
+                "", " ", "G", "1", "1 G|", "|1 G", "+ 1 G", "++1 G", "-1 G", "0 G", "-0 G", "2147483648 G",
+                "1 M 1 M", "1 M 2 M", "6 G 1 X", "1 G 6 M 2 M")) {
+            boolean accepted;
+            try {
+                new CustomerTaste(5, taste);
+                accepted = true;
+            } catch (PaintShopInputRuntimeException exception) {
+                accepted = false;
+            }
+
+            assertThat(parser.parse(taste, 5) == CustomerTasteParser.VALID).as("'%s'", taste).isEqualTo(accepted);
+        }
+    }
+
+    @Test
+    void testParseOrThrow_invalidTasteGiven_shouldThrowTheSameMessageAsCustomerTaste() {
+        for (String taste : Arrays.asList("1 X", "6 G", "1 M 2 M")) {
+            PaintShopInputRuntimeException expected = assertThrows(PaintShopInputRuntimeException.class,
+                    () -> new CustomerTaste(5, taste));
+            PaintShopInputRuntimeException actual = assertThrows(PaintShopInputRuntimeException.class,
+                    () -> parser.parseOrThrow(taste, 5));
+
+            assertThat(actual.getMessage())
+                    .startsWith(INVALID_CUSTOMER_TASTE.getDescription())
+                    .isEqualTo(expected.getMessage());
+        }
+    }
+}
@@ -33,6 +33,15 @@ class CustomerTasteTest {
         }
     }
 
+    @Test
+    void testParse_paintIndexBelowOneGiven_shouldThrownException() {
+        for (String taste : new String[]{"0G", "2G -1M"}) {
+            PaintShopInputRuntimeException exception = assertThrows(PaintShopInputRuntimeException.class,
+                    () -> new CustomerTaste(5, taste));
+            assertThat(exception).hasMessageContaining("It references an unknown paint");
+        }
+    }
+
     @Test
     void testParse_moreThanOneMatteGiven_shouldThrownException() {
         try {
@@ -0,0 +1,73 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.assertj.core.api.Java6Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for {@link MaxSatSearch}
+ */
+class MaxSatSearchTest {
+
+    @Test
+    void testSolveMaxSat_unsatisfiableProblemGiven_shouldDropTheLightestCustomer() {
+        PaintShopProblem problem = PaintShopProblem.fromString("2\n1 G\n1 M\n2 M");
+
+        MaxSatSolution solution = problem.solveMaxSat(new int[]{1, 5, 1});
+
+        assertThat(solution.solution().isOptimal()).isTrue();
+        assertThat(solution.solution().toString()).isEqualTo("M M");
+        assertThat(solution.droppedCustomers()).containsExactly(0);
+        assertThat(solution.satisfiedWeight()).isEqualTo(6);
+        assertThat(solution.droppedWeight()).isEqualTo(1);
+        assertThat(solution.toString()).isEqualTo("M M - dropped: [0]");
+    }
+
+    @Test
+    void testSolveMaxSat_equalWeightsGiven_shouldThenMinimiseTheMattes() {
+        PaintShopProblem problem = PaintShopProblem.fromString("2\n1 G\n1 M\n2 M");
+
+        MaxSatSolution solution = problem.solveMaxSat(new int[]{1, 1, 1});
+
+        assertThat(solution.solution().toString()).isEqualTo("G M");
+        assertThat(solution.droppedCustomers()).containsExactly(1);
+    }
+
+    @Test
+    void testSolveMaxSat_satisfiableProblemGiven_shouldDropNobody() {
+        PaintShopProblem problem = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M");
+
+        MaxSatSolution solution = problem.solveMaxSat(new int[]{3, 2, 1});
+
+        assertThat(solution.solution().toString()).isEqualTo("G G G G M");
+        assertThat(solution.droppedCustomers()).isEmpty();
+        assertThat(solution.satisfiedWeight()).isEqualTo(6);
+    }
+
+    @Test
+    void testSolveMaxSat_invalidWeightsGiven_shouldThrow() {
+        PaintShopProblem problem = PaintShopProblem.fromString("1\n1 G\n1 M");
+
+        assertThatThrownBy(() -> problem.solveMaxSat(new int[]{1}))
+                .isInstanceOf(PaintShopInputRuntimeException.class)
+                .hasMessageContaining("1 weights given for 2 customers");
+        assertThatThrownBy(() -> problem.solveMaxSat(new int[]{1, 0}))
+                .isInstanceOf(PaintShopInputRuntimeException.class)
+                .hasMessageContaining("Weight 0 of customer 1");
+    }
+
+    @Test
+    void testSolveMaxSat_customerConflictingWithTwoOthersGiven_shouldDropTheLightestOfThem() {
+        //both mattes drop the gloss customer, of weight 4, any other solution drops one of the matte customers
+        PaintShopProblem problem = PaintShopProblem.fromString("2\n1 G 2 G\n1 M\n2 M");
+
+        MaxSatSolution solution = problem.solveMaxSat(new int[]{4, 3, 2});
+
+        assertThat(solution.solution().isOptimal()).isTrue();
+        assertThat(solution.solution().toString()).isEqualTo("M G");
+        assertThat(solution.droppedCustomers()).containsExactly(2);
+        assertThat(solution.satisfiedWeight()).isEqualTo(7);
+    }
+}
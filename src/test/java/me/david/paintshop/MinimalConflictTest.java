@@ -0,0 +1,59 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link MinimalConflict}
+ */
+class MinimalConflictTest {
+
+    @Test
+    void testConflictingCustomers_unsatisfiableProblemGiven_shouldReportOnlyTheClashingCustomers() {
+        PaintShopProblem problem = PaintShopProblem.fromString("4\n3 G\n1 M\n4 M 3 G\n1 G 2 M\n4 G\n2 G");
+
+        List<CustomerTaste> conflicting = problem.conflictingCustomers();
+
+        assertThat(conflicting.toString()).isEqualTo("[1 M, 1 G 2 M, 2 G]");
+    }
+
+    @Test
+    void testConflictingCustomers_satisfiableProblemGiven_shouldReportNobody() {
+        PaintShopProblem problem = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M");
+
+        assertThat(problem.conflictingCustomers()).isEmpty();
+    }
+
+    @Test
+    void testCustomers_twoConflictsGiven_shouldReturnOnlyOneOfThem() {
+        int nbPaints = 3;
+        //1 M, 1 G 2 M and 2 G clash, and so do 3 M and 3 G
+        List<CustomerTaste> customerTastes = new ArrayList<>();
+        for (String taste : new String[]{"1 M", "3 M", "1 G 2 M", "2 G", "3 G"}) {
+            customerTastes.add(new CustomerTaste(nbPaints, taste));
+        }
+
+        int[] conflict = new MinimalConflict(nbPaints, customerTastes).customers();
+
+        assertThat(conflict).containsExactly(0, 2, 3);
+        assertThat(satisfiable(nbPaints, customerTastes, conflict, -1)).isFalse();
+        for (int leftOut = 0; leftOut < conflict.length; leftOut++) {
+            assertThat(satisfiable(nbPaints, customerTastes, conflict, leftOut)).isTrue();
+        }
+    }
+
+    private static boolean satisfiable(int nbPaints, List<CustomerTaste> customerTastes, int[] customers,
+                                       int leftOut) {
+        List<CustomerTaste> subset = new ArrayList<>();
+        for (int i = 0; i < customers.length; i++) {
+            if (i != leftOut) {
+                subset.add(customerTastes.get(customers[i]));
+            }
+        }
+        return !new SearchPaintShopSolver(nbPaints, subset).solutions().isEmpty();
+    }
+}
@@ -0,0 +1,119 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link OffHeapClauseStore}
+ */
+class OffHeapClauseStoreTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("paintshop-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testBuild_direct_shouldStoreTheSameClausesAsOnTheHeap() throws IOException {
+        assertSameClausesAsOnTheHeap(new OffHeapClauseStore.Builder(null, 64));
+    }
+
+    @Test
+    void testBuild_mapped_shouldStoreTheSameClausesAsOnTheHeap() throws IOException {
+        assertSameClausesAsOnTheHeap(new OffHeapClauseStore.Builder(directory, 64));
+    }
+
+    @Test
+    void testClose_mapped_shouldDeleteTheTemporaryFiles() throws IOException {
+        OffHeapClauseStore.Builder builder = OffHeapClauseStore.mapped(directory).add(new int[]{-1, 2}, 2);
+        OffHeapClauseStore clauses = builder.build(2);
+        assertThat(clauses.literal(0, 1)).isEqualTo(2);
+
+        clauses.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isZero();
+        }
+    }
+
+    @Test
+    void testSearch_offHeapClausesGiven_shouldFindTheCheapestSolution() throws IOException {
+        try (OffHeapClauseStore clauses = OffHeapClauseStore.direct()
+                .add(new int[]{1, -3}, 2)
+                .add(new int[]{-1}, 1)
+                .add(new int[]{3, 2}, 2)
+                .build(3)) {
+            assertThat(new BacktrackingSearch(clauses).cheapestSolution().get()).isEqualTo("MGM");
+        }
+    }
+
+    /**
+     * With 64 bytes chunks, the literals and the indexes span many chunks.
+     */
+    private static void assertSameClausesAsOnTheHeap(OffHeapClauseStore.Builder builder) throws IOException {
+        int nbPaints = 30;
+        Random random = new Random(7);
+        CustomerTasteParser parser = new CustomerTasteParser();
+        List<String> tastes = Stream.generate(() -> randomTaste(random, nbPaints))
+                .limit(200)
+                .collect(Collectors.toList());
+        for (String taste : tastes) {
+            parser.parseOrThrow(taste, nbPaints);
+            builder.add(parser.literals(), parser.length());
+        }
+        CustomerTasteClauses expected = CustomerTasteClauses.compile(nbPaints, tastes.stream()
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList()));
+
+        try (OffHeapClauseStore clauses = builder.build(nbPaints)) {
+            assertThat(clauses.nbPaints()).isEqualTo(nbPaints);
+            assertThat(clauses.size()).isEqualTo(expected.size());
+            for (int clause = 0; clause < expected.size(); clause++) {
+                assertThat(clauses.length(clause)).isEqualTo(expected.length(clause));
+                for (int position = 0; position < expected.length(clause); position++) {
+                    assertThat(clauses.literal(clause, position)).isEqualTo(expected.literal(clause, position));
+                }
+            }
+            for (int paint = 1; paint <= nbPaints; paint++) {
+                assertThat(clauses.occurrenceCount(paint)).isEqualTo(expected.occurrenceCount(paint));
+                for (int position = 0; position < expected.occurrenceCount(paint); position++) {
+                    assertThat(clauses.occurrence(paint, position)).isEqualTo(expected.occurrence(paint, position));
+                }
+            }
+        }
+    }
+
+    private static String randomTaste(Random random, int nbPaints) {
+        StringBuilder taste = new StringBuilder();
+        int matte = random.nextInt(3) == 0 ? -1 : 1 + random.nextInt(nbPaints);
+        taste.append(matte < 0 ? "" : matte + " M ");
+        for (int i = random.nextInt(4); i >= 0; i--) {
+            int paint = 1 + random.nextInt(nbPaints);
+            if (paint != matte) {
+                taste.append(paint).append(" G ");
+            }
+        }
+        return taste.length() == 0 ? "1 G" : taste.toString().trim();
+    }
+}
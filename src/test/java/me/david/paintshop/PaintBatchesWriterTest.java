@@ -0,0 +1,68 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link PaintBatchesWriter}
+ */
+class PaintBatchesWriterTest {
+
+    @Test
+    void testWrite_spacedFormatGiven_shouldWriteTheSameAsToString() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PaintBatchesWriter writer = PaintBatchesWriter.of(output)) {
+            writer.write(new PaintBatches("GGGGM"), PaintBatchesWriter.Format.SPACED);
+        }
+
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo("G G G G M");
+    }
+
+    @Test
+    void testWrite_compactFormatGiven_shouldWriteOneCharacterPerPaint() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PaintBatchesWriter writer = PaintBatchesWriter.of(output)) {
+            writer.write(PaintShopSolution.optimal("GGM"), PaintBatchesWriter.Format.COMPACT);
+        }
+
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo("GGM");
+    }
+
+    @Test
+    void testWrite_bufferSmallerThanTheSolutionGiven_shouldWriteItAll() throws IOException {
+        Random random = new Random(42);
+        StringBuilder finishes = new StringBuilder();
+        for (int paint = 0; paint < 10_000; paint++) {
+            finishes.append(random.nextBoolean() ? 'G' : 'M');
+        }
+        PaintBatches paintBatches = new PaintBatches(finishes.toString());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        PaintBatchesWriter writer = new PaintBatchesWriter(Channels.newChannel(output), 7);
+        writer.write(paintBatches, PaintBatchesWriter.Format.SPACED);
+        writer.flush();
+
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII)).isEqualTo(paintBatches.toString());
+    }
+
+    @Test
+    void testWriteLine_batchOfSolutionsGiven_shouldWriteOneLinePerSolution() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PaintBatchesWriter writer = PaintBatchesWriter.of(output)) {
+            writer.writeLine(PaintShopSolution.optimal("GM"), PaintBatchesWriter.Format.SPACED);
+            writer.writeLine(PaintShopSolution.unsatisfiable(), PaintBatchesWriter.Format.SPACED);
+            writer.writeLine();
+            writer.writeLine(PaintShopSolution.feasible("MG"), PaintBatchesWriter.Format.COMPACT);
+        }
+
+        assertThat(new String(output.toByteArray(), StandardCharsets.US_ASCII).split(System.lineSeparator(), -1))
+                .containsExactly("G M", PaintShopSolution.NO_SOLUTION_FOUND, "", "MG", "");
+    }
+}
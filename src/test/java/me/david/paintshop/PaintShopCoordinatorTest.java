@@ -0,0 +1,174 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopError;
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.assertj.core.api.Java6Assertions.assertThatThrownBy;
+
+/**
+ * Unit test for {@link PaintShopCoordinator}, with the workers on localhost
+ */
+class PaintShopCoordinatorTest {
+
+    private final List<PaintShopWorker> workers = new ArrayList<>();
+
+    @BeforeEach
+    void startWorkers() throws IOException {
+        workers.add(PaintShopWorker.start(0));
+        workers.add(PaintShopWorker.start(0));
+    }
+
+    @AfterEach
+    void closeWorkers() {
+        workers.forEach(PaintShopWorker::close);
+    }
+
+    @Test
+    void testSolve_exampleGiven_shouldMergeTheSolutionsOfTheWorkers() {
+        PaintShopProblem problem = PaintShopProblem.fromString("6\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M\n6 M");
+
+        PaintShopSolution solution = problem.solve(this.coordinator(), SolverBudget.unlimited());
+
+        assertThat(solution.isOptimal()).isTrue();
+        assertThat(solution.toString()).isEqualTo("G G G G M M");
+    }
+
+    @Test
+    void testSolve_unsatisfiableShardGiven_shouldBeUnsatisfiable() {
+        PaintShopProblem problem = PaintShopProblem.fromString("3\n1 G\n1 M\n2 M");
+
+        PaintShopSolution solution = problem.withSolver(PaintShopSolvers.AC2001)
+                .solve(this.coordinator(), SolverBudget.unlimited());
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+    }
+
+    @Test
+    void testMerge_unknownShardBeforeAnUnsatisfiableOneGiven_shouldBeUnsatisfiable() {
+        int[][] paints = {{0, 1}, {0, 2}, {0, 3}};
+
+        PaintShopSolution solution = PaintShopCoordinator.merge(3, paints, new PaintShopSolution[]{
+                PaintShopSolution.unknown(), PaintShopSolution.optimal("M"), PaintShopSolution.unsatisfiable()});
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+    }
+
+    @Test
+    void testMerge_unknownOrFeasibleShardGiven_shouldNotBeOptimal() {
+        int[][] paints = {{0, 2}, {0, 1, 3}};
+
+        assertThat(PaintShopCoordinator.merge(3, paints, new PaintShopSolution[]{
+                PaintShopSolution.optimal("M"), PaintShopSolution.unknown()}).status())
+                .isEqualTo(PaintShopSolution.Status.UNKNOWN);
+        assertThat(PaintShopCoordinator.merge(3, paints, new PaintShopSolution[]{
+                PaintShopSolution.optimal("M"), PaintShopSolution.feasible("GM")}).status())
+                .isEqualTo(PaintShopSolution.Status.FEASIBLE);
+        assertThat(PaintShopCoordinator.merge(3, paints, new PaintShopSolution[]{
+                PaintShopSolution.optimal("M"), PaintShopSolution.feasible("GM")}).toString())
+                .isEqualTo("G M M");
+    }
+
+    @Test
+    void testSolve_moreComponentsThanWorkersGiven_shouldFindTheSameSolutionAsLocally() {
+        PaintShopProblem problem = PaintShopProblem.fromString("8\n1 M 2 G\n3 G 4 M\n4 G\n5 M\n6 G 7 M\n8 M 7 G");
+
+        PaintShopSolution solution = problem.solve(this.coordinator(), SolverBudget.unlimited());
+
+        assertThat(solution.isOptimal()).isTrue();
+        assertThat(solution.toString()).isEqualTo("G G G G M G G G")
+                .isEqualTo(problem.solve().toString());
+    }
+
+    @Test
+    void testSolve_deadWorkerGiven_shouldUseTheOthers() throws IOException {
+        PaintShopWorker dead = PaintShopWorker.start(0);
+        dead.close();
+        PaintShopCoordinator coordinator = new PaintShopCoordinator(Arrays.asList(
+                address(dead.port()), address(workers.get(0).port())));
+
+        PaintShopSolution solution = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M")
+                .solve(coordinator, SolverBudget.unlimited());
+
+        assertThat(solution.toString()).isEqualTo("G G G G M");
+    }
+
+    @Test
+    void testSolve_workerDyingWithItsShardGiven_shouldRetryTheShardOnAnotherWorker() throws IOException {
+        try (ServerSocket dying = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Thread thread = new Thread(() -> {
+                try (Socket connection = dying.accept()) {
+                    connection.getInputStream().read(); //dies as soon as the shard arrives
+                } catch (IOException exception) {
+                    //closed by the test
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+            PaintShopCoordinator coordinator = new PaintShopCoordinator(Arrays.asList(
+                    address(dying.getLocalPort()), address(workers.get(0).port())));
+
+            PaintShopSolution solution = PaintShopProblem.fromString("6\n1 M\n2 M\n3 M\n4 G 5 M\n6 G")
+                    .solve(coordinator, SolverBudget.unlimited());
+
+            assertThat(solution.toString()).isEqualTo("M M M G G G");
+        }
+    }
+
+    @Test
+    void testSolve_noWorkerAliveGiven_shouldThrow() {
+        workers.forEach(PaintShopWorker::close);
+        PaintShopCoordinator coordinator = this.coordinator();
+
+        assertThatThrownBy(() -> PaintShopProblem.fromString("1\n1 M").solve(coordinator, SolverBudget.unlimited()))
+                .isInstanceOf(PaintShopSolverRuntimeException.class)
+                .hasMessageStartingWith(PaintShopError.WORKER_UNAVAILABLE.getDescription());
+    }
+
+    @Test
+    void testSolve_unknownSolverGiven_shouldThrowTheErrorOfTheWorker() {
+        PaintShopProblem problem = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M")
+                .withSolver("unknown");
+
+        assertThatThrownBy(() -> problem.solve(this.coordinator(), SolverBudget.unlimited()))
+                .isInstanceOf(PaintShopSolverRuntimeException.class)
+                .hasMessageStartingWith(PaintShopError.UNKNOWN_SOLVER.getDescription())
+                .hasMessageContaining("'unknown'");
+    }
+
+    @Test
+    void testSolve_failedShardGiven_shouldKeepTheWorkerServing() {
+        PaintShopCoordinator coordinator = new PaintShopCoordinator(
+                Collections.singletonList(address(workers.get(0).port())));
+        PaintShopProblem problem = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M");
+
+        assertThatThrownBy(() -> problem.withSolver("unknown").solve(coordinator, SolverBudget.unlimited()))
+                .isInstanceOf(PaintShopSolverRuntimeException.class);
+        assertThat(problem.solve(coordinator, SolverBudget.unlimited()).toString()).isEqualTo("G G G G M");
+    }
+
+    private PaintShopCoordinator coordinator() {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (PaintShopWorker worker : workers) {
+            addresses.add(address(worker.port()));
+        }
+        return new PaintShopCoordinator(addresses);
+    }
+
+    private static InetSocketAddress address(int port) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+}
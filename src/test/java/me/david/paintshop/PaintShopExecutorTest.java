@@ -0,0 +1,138 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static me.david.paintshop.exceptions.PaintShopError.SOLVER_REJECTED;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link PaintShopExecutor}
+ */
+class PaintShopExecutorTest {
+
+    @Test
+    void testSubmit_problemsGiven_shouldCompleteWithTheirSolutions() throws Exception {
+        try (PaintShopExecutor executor = new PaintShopExecutor(2, 10)) {
+            CompletableFuture<PaintShopSolution> example1 =
+                    executor.submit(PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M"));
+            CompletableFuture<PaintShopSolution> example2 =
+                    executor.submit(PaintShopProblem.fromString("1\n1 G\n1 M"));
+
+            assertThat(example1.get(10, TimeUnit.SECONDS).toString()).isEqualTo("G G G G M");
+            assertThat(example2.get(10, TimeUnit.SECONDS).status())
+                    .isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+        }
+    }
+
+    @Test
+    void testSubmit_invalidProblemGiven_shouldCompleteExceptionally() {
+        try (PaintShopExecutor executor = new PaintShopExecutor(1, 1)) {
+            CompletableFuture<PaintShopSolution> future = executor.submit(PaintShopProblem.fromString("a"));
+
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> future.get(10, TimeUnit.SECONDS));
+            assertThat(exception.getCause()).isInstanceOf(RuntimeException.class);
+        }
+    }
+
+    @Test
+    void testCancel_runningSolverGiven_shouldInterruptIt() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        try (PaintShopExecutor executor = new PaintShopExecutor(1, 1)) {
+            CompletableFuture<PaintShopSolution> future = executor.submit(() -> {
+                started.countDown();
+                try {
+                    while (true) {
+                        Interruptions.checkInterrupted();
+                    }
+                } catch (PaintShopSolverRuntimeException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+            });
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+            future.cancel(true);
+
+            assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(future.isCancelled()).isTrue();
+        }
+    }
+
+    @Test
+    void testSubmit_fullQueueGiven_abort_shouldCompleteExceptionally() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try (PaintShopExecutor executor = new PaintShopExecutor(1, 1)) {
+            executor.submit(() -> blockUntil(release));
+            executor.submit(() -> blockUntil(release));
+
+            CompletableFuture<PaintShopSolution> rejected = executor.submit(() -> blockUntil(release));
+
+            ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+            assertThat(exception.getCause())
+                    .isInstanceOf(PaintShopSolverRuntimeException.class)
+                    .hasMessageStartingWith(SOLVER_REJECTED.getDescription());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testSubmit_fullQueueGiven_callerRuns_shouldSolveInTheSubmittingThread() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (PaintShopExecutor executor = new PaintShopExecutor(1, 1, PaintShopExecutor.RejectionPolicy.CALLER_RUNS)) {
+            executor.submit(() -> blockUntil(release));
+            executor.submit(() -> blockUntil(release));
+            Thread caller = Thread.currentThread();
+
+            CompletableFuture<PaintShopSolution> future = executor.submit(() ->
+                    Thread.currentThread() == caller ? PaintShopSolution.optimal("G") : PaintShopSolution.unknown());
+
+            assertThat(future.isDone()).isTrue();
+            assertThat(future.get().isOptimal()).isTrue();
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testSubmit_fullQueueGiven_discardOldest_shouldCancelThePendingProblem() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (PaintShopExecutor executor = new PaintShopExecutor(1, 1, PaintShopExecutor.RejectionPolicy.DISCARD_OLDEST)) {
+            executor.submit(() -> blockUntil(release));
+            CompletableFuture<PaintShopSolution> oldest = executor.submit(() -> blockUntil(release));
+
+            CompletableFuture<PaintShopSolution> newest = executor.submit(() -> PaintShopSolution.optimal("M"));
+
+            assertThat(oldest.isCancelled()).isTrue();
+            assertThat(executor.pending()).isEqualTo(1);
+            release.countDown();
+            assertThat(newest.get(10, TimeUnit.SECONDS).toString()).isEqualTo("M");
+        }
+    }
+
+    @Test
+    void testCancel_pendingProblemGiven_shouldFreeItsPlaceInTheQueue() {
+        CountDownLatch release = new CountDownLatch(1);
+        try (PaintShopExecutor executor = new PaintShopExecutor(1, 1)) {
+            executor.submit(() -> blockUntil(release));
+            CompletableFuture<PaintShopSolution> pending = executor.submit(() -> blockUntil(release));
+
+            pending.cancel(true);
+
+            assertThat(executor.pending()).isEqualTo(0);
+            release.countDown();
+        }
+    }
+
+    private static PaintShopSolution blockUntil(CountDownLatch release) throws InterruptedException {
+        release.await();
+        return PaintShopSolution.unknown();
+    }
+}
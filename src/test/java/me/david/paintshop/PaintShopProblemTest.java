@@ -3,15 +3,22 @@ package me.david.paintshop;
 import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Deque;
+import java.util.concurrent.TimeUnit;
 
+import static me.david.paintshop.exceptions.PaintShopError.INVALID_CUSTOMER_TASTE;
 import static me.david.paintshop.exceptions.PaintShopError.INVALID_INPUT_FILE_NUMBER_OF_PAINTS;
 import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.assertj.core.api.Java6Assertions.assertThatThrownBy;
 
 class PaintShopProblemTest {
     private final Path testResourcesPath = Paths.get("src", "test", "resources");
@@ -59,6 +66,257 @@ class PaintShopProblemTest {
                 "example5alternative2_expected.txt");
     }
 
+    @Test
+    void examplesGiven_eachRegisteredSolver_shouldFindTheExpectedSolutions() throws IOException {
+        for (String solverName : PaintShopSolvers.getInstance().names()) {
+            if (PaintShopSolvers.WALKSAT.equals(solverName)) {
+                continue; //not exact: it cannot prove that example 2 has no solution
+            }
+            for (int example = 1; example <= 5; example++) {
+                Path input = testResourcesPath.resolve("example" + example + ".txt");
+                String expected = Files.lines(testResourcesPath.resolve("example" + example + "_expected.txt"))
+                        .findFirst()
+                        .get();
+
+                assertThat(new PaintShopProblem(input.toString(), solverName).solution())
+                        .as("solver %s - example %s", solverName, example)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void satisfiableExamplesGiven_walkSat_shouldFindFeasibleSolutionsOfTheExpectedCost() throws IOException {
+        for (int example : new int[]{1, 3, 4, 5}) {
+            Path input = testResourcesPath.resolve("example" + example + ".txt");
+            String expected = Files.lines(testResourcesPath.resolve("example" + example + "_expected.txt"))
+                    .findFirst()
+                    .get();
+
+            PaintShopSolution solution = new PaintShopProblem(input.toString(), PaintShopSolvers.WALKSAT)
+                    .solve(SolverBudget.unlimited());
+            assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.FEASIBLE);
+            assertThat(solution.paintBatches().get().cost())
+                    .as("example %s", example)
+                    .isEqualTo(new PaintBatches(expected.replace(" ", "")).cost());
+        }
+    }
+
+    @Test
+    void testSolve_budgetGiven_shouldReturnAStructuredSolution() throws FileNotFoundException {
+        Path input = testResourcesPath.resolve("example1.txt");
+
+        PaintShopSolution solution = new PaintShopProblem(input.toString(), PaintShopSolvers.REDUCER)
+                .solve(SolverBudget.unlimited().withTimeLimit(1, TimeUnit.MINUTES));
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.OPTIMAL);
+        assertThat(solution.toString()).isEqualTo("G G G G M");
+    }
+
+    @Test
+    void testSolve_exhaustedBudgetGiven_shouldNotClaimOptimality() throws FileNotFoundException {
+        Path input = testResourcesPath.resolve("example5alternative2.txt");
+
+        PaintShopSolution solution = new PaintShopProblem(input.toString(), PaintShopSolvers.SEARCH)
+                .solve(SolverBudget.unlimited().withMaxNodes(1));
+
+        assertThat(solution.isOptimal()).isFalse();
+    }
+
+    @Test
+    void testFromString_definitionGiven_shouldSolveItInMemory() {
+        PaintShopSolution solution = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M").solve();
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.OPTIMAL);
+        assertThat(solution.cost().getAsInt()).isEqualTo(1);
+        assertThat(solution.paintBatches().get().finishes())
+                .containsExactly(PaintFinish.G, PaintFinish.G, PaintFinish.G, PaintFinish.G, PaintFinish.M);
+    }
+
+    @Test
+    void testFromBytesAndFromInputStream_definitionGiven_shouldFindTheSameSolutionAsTheFile() throws IOException {
+        Path input = testResourcesPath.resolve("example1.txt");
+        byte[] definition = Files.readAllBytes(input);
+
+        assertThat(PaintShopProblem.fromBytes(definition).solution()).isEqualTo("G G G G M");
+        assertThat(PaintShopProblem.fromInputStream(new ByteArrayInputStream(definition)).solution())
+                .isEqualTo("G G G G M");
+        assertThat(PaintShopProblem.fromReader(new StringReader(new String(definition, StandardCharsets.UTF_8)))
+                .solution()).isEqualTo("G G G G M");
+    }
+
+    @Test
+    void testFromString_unsatisfiableDefinitionGiven_shouldReturnNoCost() {
+        PaintShopSolution solution = PaintShopProblem.fromString("1\n1 G\n1 M").solve();
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+        assertThat(solution.cost().isPresent()).isFalse();
+        assertThat(solution.toString()).isEqualTo(PaintShopSolution.NO_SOLUTION_FOUND);
+    }
+
+    @Test
+    void testOf_customerTastesGiven_eachRegisteredSolver_shouldFindTheCheapestSolution() {
+        PaintShopProblem problem = PaintShopProblem.of(5, Arrays.asList(
+                new CustomerTaste(5, "1 M 3 G 5 G"),
+                new CustomerTaste(5, "2 G 3 M 4 G"),
+                new CustomerTaste(5, "5 M")));
+
+        for (String solverName : PaintShopSolvers.getInstance().names()) {
+            PaintShopSolution solution = problem.withSolver(solverName).solve();
+
+            assertThat(solution.cost().getAsInt()).as(solverName).isEqualTo(1);
+        }
+        assertThat(problem.problemDefinition()).containsExactly("5", "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M");
+    }
+
+    @Test
+    void testSolve_previousSolutionGivenAsHint_eachRegisteredSolver_shouldFindTheSameSolution() {
+        PaintShopProblem previous = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M");
+        PaintShopProblem problem = PaintShopProblem.fromString("6\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M\n6 M 2 G");
+        PaintBatches hint = previous.solve().paintBatches().get();
+
+        for (String solverName : PaintShopSolvers.getInstance().names()) {
+            PaintShopSolution solution = problem.withSolver(solverName).solve(SolverBudget.unlimited(), hint);
+
+            assertThat(solution.toString()).as(solverName).isEqualTo("G G G G M G");
+        }
+        assertThat(previous.withSolver(PaintShopSolvers.WALKSAT).solve(SolverBudget.unlimited(), hint).toString())
+                .isEqualTo("G G G G M");
+    }
+
+    @Test
+    void testFromString_emptyDefinitionGiven_shouldThrowAPaintShopInputRuntimeException() {
+        assertThatThrownBy(() -> PaintShopProblem.fromString("").solve())
+                .isInstanceOf(PaintShopInputRuntimeException.class);
+    }
+
+    @Test
+    void testLenient_invalidLinesGiven_shouldSkipThemAndRecordADiagnosticPerLine() {
+        PaintShopProblem problem = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 X\n2 G 3 M 4 G\n7 M\n1 M 2 M\n5 M")
+                .lenient();
+
+        ParseDiagnostics diagnostics = problem.diagnostics();
+        assertThat(diagnostics.size()).isEqualTo(3);
+        assertThat(diagnostics.lineNumber(0)).isEqualTo(3);
+        assertThat(diagnostics.error(0)).isEqualTo(INVALID_CUSTOMER_TASTE);
+        assertThat(diagnostics.line(0)).isEqualTo("2 X");
+        assertThat(diagnostics.lineNumber(1)).isEqualTo(5);
+        assertThat(diagnostics.message(1))
+                .isEqualTo("Customer taste '7 M' is not valid. It references an unknown paint: '7' (> 5).");
+        assertThat(diagnostics.lineNumber(2)).isEqualTo(6);
+        assertThat(diagnostics.message(2))
+                .isEqualTo("Customer taste '1 M 2 M' is not valid. More than one Matte finish detected.");
+        assertThat(problem.solution()).isEqualTo("G G G G M");
+    }
+
+    @Test
+    void testLenient_signedOrPaddedIndexGiven_shouldKeepTheLineLikeTheStrictParsing() {
+        String definition = "5\n+1 G\n01 M  3 G\n 2 M\n+5 G 4 M";
+        PaintShopProblem strict = PaintShopProblem.fromString(definition);
+
+        PaintShopProblem lenient = strict.lenient();
+
+        assertThat(lenient.diagnostics().isEmpty()).isTrue();
+        assertThat(lenient.solution()).isEqualTo(strict.solution()).isEqualTo("G M G G G");
+    }
+
+    @Test
+    void testLenient_edgeLinesGiven_shouldQuarantineExactlyTheLinesTheStrictParsingRejects() {
+        for (String line : Arrays.asList("+1 G", "01 G", "  1 G", "1 G  2 M", "1 G ", "0 G", "+ 1 G", "1 G|")) {
+            boolean strictlyAccepted;
+            try {
+                PaintShopProblem.fromString("5\n" + line).solution();
+                strictlyAccepted = true;
+            } catch (PaintShopInputRuntimeException exception) {
+                strictlyAccepted = false;
+            }
+
+            PaintShopProblem lenient = PaintShopProblem.fromString("5\n" + line).lenient();
+
+            assertThat(lenient.diagnostics().isEmpty()).as("'%s'", line).isEqualTo(strictlyAccepted);
+        }
+    }
+
+    @Test
+    void testLenient_invalidNbPaintsGiven_shouldRecordItWithoutException() {
+        PaintShopProblem problem = PaintShopProblem.fromString("five\n1 M").lenient();
+
+        assertThat(problem.diagnostics().size()).isEqualTo(1);
+        assertThat(problem.diagnostics().lineNumber(0)).isEqualTo(1);
+        assertThat(problem.diagnostics().error(0)).isEqualTo(INVALID_INPUT_FILE_NUMBER_OF_PAINTS);
+        assertThat(problem.diagnostics().message(0)).isEqualTo("First line 'five' is expected to be an integer.");
+    }
+
+    @Test
+    void testLenient_validDefinitionGiven_shouldFindTheSameSolutionAsTheStrictParsing() throws IOException {
+        for (int example = 1; example <= 5; example++) {
+            Path input = testResourcesPath.resolve("example" + example + ".txt");
+            PaintShopProblem strict = new PaintShopProblem(input.toString());
+
+            PaintShopProblem lenient = strict.lenient();
+
+            assertThat(lenient.diagnostics().isEmpty()).isTrue();
+            assertThat(lenient.solution()).isEqualTo(strict.solution());
+        }
+    }
+
+    @Test
+    void testSolution_invalidLineGiven_strictParsing_shouldStillThrow() {
+        assertThatThrownBy(() -> PaintShopProblem.fromString("5\n2 X").solve())
+                .isInstanceOf(PaintShopInputRuntimeException.class);
+    }
+
+    @Test
+    void examplesGiven_offHeap_shouldFindTheExpectedSolutions() throws IOException {
+        System.setProperty(PaintShopProblem.OFFHEAP_THRESHOLD_PROPERTY, "0");
+        try {
+            for (int example = 1; example <= 5; example++) {
+                Path input = testResourcesPath.resolve("example" + example + ".txt");
+                String expected = Files.lines(testResourcesPath.resolve("example" + example + "_expected.txt"))
+                        .findFirst()
+                        .get();
+
+                PaintShopProblem problem = new PaintShopProblem(input.toString(), PaintShopSolvers.AUTO);
+                assertThat(problem.offHeap()).isTrue();
+                assertThat(problem.solution()).as("example %s", example).isEqualTo(expected);
+            }
+        } finally {
+            System.clearProperty(PaintShopProblem.OFFHEAP_THRESHOLD_PROPERTY);
+        }
+    }
+
+    @Test
+    void signedAndPaddedIndexesGiven_offHeap_shouldBeAcceptedLikeOnHeap() throws IOException {
+        Path input = Files.createTempFile("paintshop", ".txt");
+        Files.write(input, Arrays.asList("3", "+1 G", "01 M  2 G", " 3 M"));
+        try {
+            assertThat(new PaintShopProblem(input.toString()).solution()).isEqualTo("G G M");
+
+            System.setProperty(PaintShopProblem.OFFHEAP_THRESHOLD_PROPERTY, "0");
+            PaintShopProblem problem = new PaintShopProblem(input.toString(), PaintShopSolvers.AUTO);
+            assertThat(problem.offHeap()).isTrue();
+            assertThat(problem.solution()).isEqualTo("G G M");
+        } finally {
+            System.clearProperty(PaintShopProblem.OFFHEAP_THRESHOLD_PROPERTY);
+            Files.delete(input);
+        }
+    }
+
+    @Test
+    void testLenient_offHeapThresholdReached_shouldSolveTheLenientlyParsedCustomerTastes() throws IOException {
+        System.setProperty(PaintShopProblem.OFFHEAP_THRESHOLD_PROPERTY, "0");
+        try {
+            Path input = testResourcesPath.resolve("example1-dirty.txt");
+            PaintShopProblem problem = new PaintShopProblem(input.toString(), PaintShopSolvers.AUTO).lenient();
+
+            assertThat(problem.offHeap()).isFalse();
+            assertThat(problem.diagnostics().size()).isEqualTo(3);
+            assertThat(problem.solution()).isEqualTo("G G G G M");
+        } finally {
+            System.clearProperty(PaintShopProblem.OFFHEAP_THRESHOLD_PROPERTY);
+        }
+    }
+
     private void testWithFileInAndExpectedContentFile(String fin, String fexpected) throws IOException {
         Path input = testResourcesPath.resolve(fin);
         Path expectedFileName = testResourcesPath.resolve(fexpected);
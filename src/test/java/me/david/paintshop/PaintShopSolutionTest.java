@@ -0,0 +1,40 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link PaintShopSolution}
+ */
+class PaintShopSolutionTest {
+
+    @Test
+    void testOf_completedSearchGiven_shouldBeOptimalOrUnsatisfiable() {
+        assertThat(PaintShopSolution.of("GGM", true).status()).isEqualTo(PaintShopSolution.Status.OPTIMAL);
+        assertThat(PaintShopSolution.of("GGM", true).isOptimal()).isTrue();
+        assertThat(PaintShopSolution.of(null, true).status()).isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+    }
+
+    @Test
+    void testOf_exhaustedBudgetGiven_shouldBeFeasibleOrUnknown() {
+        assertThat(PaintShopSolution.of("GGM", false).status()).isEqualTo(PaintShopSolution.Status.FEASIBLE);
+        assertThat(PaintShopSolution.of("GGM", false).isOptimal()).isFalse();
+        assertThat(PaintShopSolution.of(null, false).status()).isEqualTo(PaintShopSolution.Status.UNKNOWN);
+    }
+
+    @Test
+    void testToString_shouldReturnTheExpectedOutput() {
+        assertThat(PaintShopSolution.optimal("GGM").toString()).isEqualTo("G G M");
+        assertThat(PaintShopSolution.feasible("GMM").toString()).isEqualTo("G M M");
+        assertThat(PaintShopSolution.unsatisfiable().toString()).isEqualTo("No solution exists");
+        assertThat(PaintShopSolution.unknown().toString()).isEqualTo("No solution found within the budget");
+    }
+
+    @Test
+    void testPaintBatches_shouldGiveAccessToTheCost() {
+        assertThat(PaintShopSolution.optimal("GMM").paintBatches().get().cost())
+                .isEqualTo(2);
+        assertThat(PaintShopSolution.unsatisfiable().paintBatches().isPresent()).isFalse();
+    }
+}
@@ -0,0 +1,78 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link PaintShopSolverSelector}
+ */
+class PaintShopSolverSelectorTest {
+
+    private final PaintShopSolverSelector selector = new PaintShopSolverSelector();
+
+    @Test
+    void testSelect_tinyProblemGiven_shouldSelectTheBruteForceSearch() {
+        assertThat(selector.select(new ProblemFeatures(5, 3, 2.0, 3, 0.3)))
+                .isEqualTo(PaintShopSolvers.SEARCH);
+    }
+
+    @Test
+    void testSelect_atMostTwoPaintReferencesPerClauseGiven_shouldSelectTwoSat() {
+        assertThat(selector.select(new ProblemFeatures(500, 1000, 1.8, 2, 0.2)))
+                .isEqualTo(PaintShopSolvers.TWO_SAT);
+    }
+
+    @Test
+    void testSelect_shortClausesGiven_shouldSelectTheReducer() {
+        assertThat(selector.select(new ProblemFeatures(500, 1000, 3.0, 8, 0.1)))
+                .isEqualTo(PaintShopSolvers.REDUCER);
+    }
+
+    @Test
+    void testSelect_manyUnitClausesGiven_shouldSelectTheReducer() {
+        assertThat(selector.select(new ProblemFeatures(500, 1000, 1.5, 8, 0.6)))
+                .isEqualTo(PaintShopSolvers.REDUCER);
+    }
+
+    @Test
+    void testSelect_otherProblemGiven_shouldSelectAC3() {
+        assertThat(selector.select(new ProblemFeatures(500, 1000, 4.0, 8, 0.1)))
+                .isEqualTo(PaintShopSolvers.AC3);
+    }
+
+    @Test
+    void testSelect_problemsGiven_shouldReachEverySolver() {
+        assertThat(select(3, paint -> "1 G 2 M\n3 G")).isEqualTo(PaintShopSolvers.SEARCH);
+        assertThat(select(50, paint -> paint + " G " + next(paint, 1) + " M"))
+                .isEqualTo(PaintShopSolvers.TWO_SAT);
+        assertThat(select(50, paint -> paint + " M " + next(paint, 1) + " G " + next(paint, 2) + " G"))
+                .isEqualTo(PaintShopSolvers.REDUCER);
+        assertThat(select(50, paint -> paint + " M " + next(paint, 1) + " G " + next(paint, 2) + " G "
+                + next(paint, 3) + " G"))
+                .isEqualTo(PaintShopSolvers.AC3);
+    }
+
+    private static int next(int paint, int offset) {
+        return (paint - 1 + offset) % 50 + 1;
+    }
+
+    /**
+     * @return the solver selected for the problem with one customer per paint, liking the given paints
+     */
+    private String select(int nbPaints, IntFunction<String> customerTaste) {
+        List<CustomerTaste> customerTastes = IntStream.rangeClosed(1, nbPaints)
+                .mapToObj(customerTaste)
+                .flatMap(repr -> Stream.of(repr.split("\n")))
+                .distinct()
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+        return selector.select(ProblemFeatures.of(nbPaints, customerTastes));
+    }
+}
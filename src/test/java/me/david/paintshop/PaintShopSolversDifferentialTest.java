@@ -0,0 +1,162 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Differential test of the solvers of {@link PaintShopSolvers}, and of the other ways to solve a
+ * {@link PaintShopProblem}, against the exhaustive search of the {@link SearchPaintShopSolver}: the same random
+ * problems, half of them with interchangeable paints, are solved by each of them.
+ */
+class PaintShopSolversDifferentialTest {
+
+    private static final int NB_PAINTS = 8;
+    private static final int NB_PROBLEMS = 150;
+
+    private static final List<PaintShopWorker> WORKERS = new ArrayList<>();
+
+    /**
+     * A way to solve a problem
+     */
+    @FunctionalInterface
+    private interface Solve {
+        PaintShopSolution solve(int nbPaints, List<CustomerTaste> customerTastes) throws IOException;
+    }
+
+    @BeforeAll
+    static void startWorkers() throws IOException {
+        WORKERS.add(PaintShopWorker.start(0));
+        WORKERS.add(PaintShopWorker.start(0));
+    }
+
+    @AfterAll
+    static void closeWorkers() {
+        WORKERS.forEach(PaintShopWorker::close);
+        WORKERS.clear();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("solves")
+    void testSolve_randomProblemsGiven_shouldFindTheCheapestSolutionOfTheExhaustiveSearch(String name, boolean exact,
+                                                                                          Solve solve)
+            throws IOException {
+        Random random = new Random(2018);
+        for (int run = 0; run < NB_PROBLEMS; run++) {
+            List<CustomerTaste> customerTastes = run % 2 == 0 ?
+                    RandomCustomerTastes.of(random, NB_PAINTS, 1 + random.nextInt(12), 4) :
+                    RandomCustomerTastes.withTwins(random, NB_PAINTS, 1 + random.nextInt(12), 4);
+            Optional<Integer> cheapest = new SearchPaintShopSolver(NB_PAINTS, customerTastes).solutions().stream()
+                    .map(solution -> new PaintBatches(solution).cost())
+                    .min(Integer::compare);
+
+            PaintShopSolution solution = solve.solve(NB_PAINTS, customerTastes);
+
+            if (!cheapest.isPresent()) {
+                assertThat(solution.paintBatches().isPresent()).as("%s", customerTastes).isFalse();
+                if (exact) {
+                    assertThat(solution.status()).as("%s", customerTastes)
+                            .isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+                }
+                continue;
+            }
+            assertThat(solution.paintBatches().isPresent()).as("%s", customerTastes).isTrue();
+            String finishes = solution.paintBatches().get().finishesRepresentation();
+            assertThat(customerTastes).as(finishes).allMatch(customerTaste -> customerTaste.likes(finishes));
+            if (exact) {
+                assertThat(solution.isOptimal()).as("%s", customerTastes).isTrue();
+                assertThat(new PaintBatches(finishes).cost()).as("%s", customerTastes).isEqualTo(cheapest.get());
+            } else {
+                assertThat(new PaintBatches(finishes).cost()).as("%s", customerTastes)
+                        .isGreaterThanOrEqualTo(cheapest.get());
+            }
+        }
+    }
+
+    /**
+     * @return the name of each way to solve a problem, whether it finds the cheapest solution, and the way
+     */
+    static Stream<Arguments> solves() {
+        Stream<Arguments> solvers = PaintShopSolvers.getInstance().names().stream()
+                .map(solverName -> Arguments.of(solverName, !PaintShopSolvers.WALKSAT.equals(solverName),
+                        (Solve) (nbPaints, customerTastes) -> PaintShopProblem.of(nbPaints, customerTastes)
+                                .withSolver(solverName)
+                                .solve(SolverBudget.unlimited())));
+        ComponentSolutionCache cache = new ComponentSolutionCache(16);
+        Stream<Arguments> others = Stream.of(
+                Arguments.of("hint", true, (Solve) (nbPaints, customerTastes) ->
+                        PaintShopProblem.of(nbPaints, customerTastes)
+                                .withSolver(PaintShopSolvers.BACKTRACKING)
+                                .solve(SolverBudget.unlimited(), new PaintBatches("MGMGMGMG"))),
+                Arguments.of("streaming", true, (Solve) (nbPaints, customerTastes) ->
+                        StreamingPaintShopProblem.solve(new StringReader(definition(nbPaints, customerTastes)),
+                                SolverBudget.unlimited())),
+                Arguments.of("prepared", true, (Solve) (nbPaints, customerTastes) ->
+                        PaintShopProblem.of(nbPaints, customerTastes).prepare().solve(PaintCostModel.DEFAULT)),
+                Arguments.of("enumerator", true, (Solve) (nbPaints, customerTastes) -> {
+                    SolutionEnumerator enumerator = PaintShopProblem.of(nbPaints, customerTastes).enumerate();
+                    return enumerator.hasNext() ?
+                            PaintShopSolution.optimal(enumerator.next().finishesRepresentation()) :
+                            PaintShopSolution.unsatisfiable();
+                }),
+                Arguments.of("checkpoint", true, (Solve) PaintShopSolversDifferentialTest::solveCheckpointed),
+                Arguments.of("cache", true, (Solve) (nbPaints, customerTastes) ->
+                        PaintShopProblem.of(nbPaints, customerTastes).solve(cache, SolverBudget.unlimited())),
+                Arguments.of("coordinator", true, (Solve) (nbPaints, customerTastes) ->
+                        PaintShopProblem.of(nbPaints, customerTastes).solve(coordinator(), SolverBudget.unlimited())));
+        return Stream.concat(solvers, others);
+    }
+
+    /**
+     * Solves the problem a few nodes per run, each run resuming from the checkpoint of the previous one: the
+     * arc consistency of these problems fits in a run, the search often does not.
+     */
+    private static PaintShopSolution solveCheckpointed(int nbPaints, List<CustomerTaste> customerTastes)
+            throws IOException {
+        Path directory = Files.createTempDirectory("paintshop-checkpoint");
+        Path checkpoint = directory.resolve("search.ckpt");
+        try {
+            PaintShopProblem problem = PaintShopProblem.of(nbPaints, customerTastes);
+            SolverBudget budget = SolverBudget.unlimited().withMaxNodes(24);
+            PaintShopSolution solution = problem.solve(budget, checkpoint);
+            for (int run = 0; run < 100 && Files.exists(checkpoint); run++) {
+                solution = problem.solve(budget, checkpoint);
+            }
+            assertThat(solution.status()).isNotEqualTo(PaintShopSolution.Status.UNKNOWN);
+            return solution;
+        } finally {
+            Files.deleteIfExists(checkpoint);
+            Files.delete(directory);
+        }
+    }
+
+    private static String definition(int nbPaints, List<CustomerTaste> customerTastes) {
+        return Stream.concat(Stream.of(String.valueOf(nbPaints)), customerTastes.stream().map(CustomerTaste::toString))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static PaintShopCoordinator coordinator() {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (PaintShopWorker worker : WORKERS) {
+            addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), worker.port()));
+        }
+        return new PaintShopCoordinator(addresses);
+    }
+}
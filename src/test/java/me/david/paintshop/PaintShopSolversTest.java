@@ -0,0 +1,67 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static me.david.paintshop.exceptions.PaintShopError.UNKNOWN_SOLVER;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link PaintShopSolvers}
+ */
+class PaintShopSolversTest {
+
+    private final List<CustomerTaste> customerTastes = Collections.singletonList(new CustomerTaste(2, "2M"));
+
+    @Test
+    void testNames_shouldContainTheSolversOfTheProject() {
+        assertThat(PaintShopSolvers.getInstance().names())
+                .contains(PaintShopSolvers.SEARCH, PaintShopSolvers.GRAY_CODE, PaintShopSolvers.BIT_SLICED,
+                        PaintShopSolvers.REDUCER,
+                        PaintShopSolvers.AC3, PaintShopSolvers.AC2001, PaintShopSolvers.TWO_SAT, PaintShopSolvers.BACKTRACKING,
+                        PaintShopSolvers.WALKSAT, PaintShopSolvers.PORTFOLIO);
+    }
+
+    @Test
+    void testCreate_nameGiven_shouldCreateThatSolver() {
+        assertThat(PaintShopSolvers.getInstance().create(PaintShopSolvers.AC3, 2, customerTastes))
+                .isInstanceOf(AC3SatSolver.class);
+    }
+
+    @Test
+    void testCreate_autoGiven_shouldCreateTheSelectedSolver() {
+        assertThat(PaintShopSolvers.getInstance().create(PaintShopSolvers.AUTO, 2, customerTastes))
+                .isInstanceOf(SearchPaintShopSolver.class);
+        assertThat(PaintShopSolvers.getInstance().create(null, 2, customerTastes))
+                .isInstanceOf(SearchPaintShopSolver.class);
+    }
+
+    @Test
+    void testCreate_unknownNameGiven_shouldThrowException() {
+        PaintShopSolverRuntimeException exception = assertThrows(PaintShopSolverRuntimeException.class,
+                () -> PaintShopSolvers.getInstance().create("unknown", 2, customerTastes));
+        assertThat(exception.getMessage()).startsWith(UNKNOWN_SOLVER.getDescription() + " - Solver 'unknown'");
+    }
+
+    @Test
+    void testRegister_factoryGiven_shouldBeAvailableByName() {
+        PaintShopSolvers solvers = new PaintShopSolvers(new PaintShopSolverSelector());
+        solvers.register(PaintShopSolverFactory.of("all-gloss",
+                (nbPaints, tastes) -> () -> Collections.singletonList("GG")));
+
+        assertThat(solvers.isKnown("all-gloss")).isTrue();
+        assertThat(solvers.create("all-gloss", 2, customerTastes).solutions())
+                .containsExactly("GG");
+    }
+
+    @Test
+    void testCreate_portfolioGiven_shouldRaceTheOtherSolvers() {
+        assertThat(PaintShopSolvers.getInstance().create(PaintShopSolvers.PORTFOLIO, 2, customerTastes).solutions())
+                .contains("GM")
+                .allMatch(solution -> solution.endsWith("M"));
+    }
+}
@@ -4,11 +4,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.SystemErrRule;
 import org.junit.contrib.java.lang.system.SystemOutRule;
+import org.junit.contrib.java.lang.system.TextFromStandardInputStream;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.contrib.java.lang.system.TextFromStandardInputStream.emptyStandardInputStream;
 
 /**
  * Unit test for main class me.david.paintshop.PaintShop.
@@ -22,6 +24,9 @@ public class PaintShopTest {
     @Rule
     public final SystemErrRule systemErrRule = new SystemErrRule().enableLog();
 
+    @Rule
+    public final TextFromStandardInputStream systemInMock = emptyStandardInputStream();
+
     @Test
     public void testMainMethod_NoArgGiven_shouldWriteErrorMessageInSystemErr() {
         String[] args = null;
@@ -46,4 +51,182 @@ public class PaintShopTest {
         assertThat(systemErrRule.getLog()).isEqualTo("Not found given Filename 'unknown file.txt'.");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testMainMethod_solverOptionGiven_shouldUseThatSolver() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--solver=search", testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemOutRule.getLog()).isEqualTo("G G G G M");
+    }
+
+    @Test
+    public void testMainMethod_lenientOptionGiven_shouldSkipTheInvalidLinesAndReportThem() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--lenient", testResourcesPath.resolve("example1-dirty.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemOutRule.getLog()).isEqualTo("G G G G M");
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .contains("line 3 - ")
+                .contains("line 5 - ")
+                .contains("line 6 - ");
+    }
+
+    @Test
+    public void testMainMethod_standardInputGiven_shouldStreamTheProblemDefinition() {
+        systemInMock.provideLines("5", "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M");
+        PaintShop.main(new String[]{"-"});
+        assertThat(systemOutRule.getLog()).isEqualTo("G G G G M");
+    }
+
+    @Test
+    public void testMainMethod_standardInputWithAnIgnoredOptionGiven_shouldWriteErrorMessageInSystemErr() {
+        for (String option : new String[]{"--solver=walksat", "--lenient", "--explain", "--hint=previous-out.txt"}) {
+            systemErrRule.clearLog();
+            systemInMock.provideLines("5", "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M");
+            PaintShop.main(new String[]{option, "-"});
+            assertThat(systemErrRule.getLogWithNormalizedLineSeparator()).as(option)
+                    .startsWith(me.david.paintshop.exceptions.PaintShopError.COMMAND_LINE_INVALID_ARGS.getDescription())
+                    .contains("standard input");
+        }
+        assertThat(systemOutRule.getLog()).isEmpty();
+    }
+
+    @Test
+    public void testMainMethod_severalFilenamesGiven_shouldWriteOneResultPerLine() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{testResourcesPath.resolve("example1.txt").toString(),
+                "unknown file.txt",
+                testResourcesPath.resolve("example2.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemOutRule.getLogWithNormalizedLineSeparator())
+                .isEqualTo("G G G G M\n\n" + PaintShopSolution.NO_SOLUTION_FOUND + "\n");
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .isEqualTo("Not found given Filename 'unknown file.txt'.\n");
+    }
+
+    @Test
+    public void testMainMethod_compactOptionGiven_shouldWriteTheResultWithoutSpaces() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--compact", testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemOutRule.getLog()).isEqualTo("GGGGM");
+    }
+
+    @Test
+    public void testMainMethod_explainOptionGiven_shouldReportTheConflictingCustomers() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--explain", testResourcesPath.resolve("example2.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemOutRule.getLog()).isEqualTo(PaintShopSolution.NO_SOLUTION_FOUND);
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .isEqualTo("Conflicting customers: [1 G, 1 M]\n");
+    }
+
+    @Test
+    public void testMainMethod_hintOptionGiven_shouldStartFromThePreviousSolution() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--hint=" + testResourcesPath.resolve("example1_expected.txt"),
+                testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(args);
+        String[] notASolution = new String[]{"--hint=" + testResourcesPath.resolve("example2_expected.txt"),
+                testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(notASolution);
+        assertThat(systemOutRule.getLog()).isEqualTo("G G G G MG G G G M");
+        assertThat(systemErrRule.getLog()).isEmpty();
+    }
+
+    @Test
+    public void testMainMethod_invalidTimeLimitGiven_shouldWriteErrorMessageInSystemErr() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--time-limit=5s", testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .startsWith(me.david.paintshop.exceptions.PaintShopError.COMMAND_LINE_INVALID_ARGS.getDescription())
+                .contains("'5s'");
+        assertThat(systemOutRule.getLog()).isEmpty();
+    }
+
+    @Test
+    public void testMainMethod_workerWithoutPortGiven_shouldWriteErrorMessageInSystemErr() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--workers=localhost", testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .startsWith(me.david.paintshop.exceptions.PaintShopError.COMMAND_LINE_INVALID_ARGS.getDescription())
+                .contains("'localhost'");
+        assertThat(systemOutRule.getLog()).isEmpty();
+    }
+
+    @Test
+    public void testMainMethod_workerWithInvalidPortGiven_shouldWriteErrorMessageInSystemErr() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        for (String workers : new String[]{"host:abc", "host:65536", "host:0", ":7001", "host:7001,"}) {
+            systemErrRule.clearLog();
+            String[] args = new String[]{"--workers=" + workers, testResourcesPath.resolve("example1.txt").toString()};
+            PaintShop.main(args);
+            assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                    .startsWith(me.david.paintshop.exceptions.PaintShopError.COMMAND_LINE_INVALID_ARGS.getDescription())
+                    .contains("'" + workers + "'");
+        }
+        assertThat(systemOutRule.getLog()).isEmpty();
+    }
+
+    @Test
+    public void testMainMethod_invalidWorkerPortGiven_shouldWriteErrorMessageInSystemErr() {
+        String[] args = new String[]{"--worker=abc"};
+        PaintShop.main(args);
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .startsWith(me.david.paintshop.exceptions.PaintShopError.COMMAND_LINE_INVALID_ARGS.getDescription())
+                .contains("'abc'");
+        assertThat(systemOutRule.getLog()).isEmpty();
+    }
+
+    @Test
+    public void testMainMethod_checkpointAndHintGiven_shouldWriteErrorMessageInSystemErr() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--checkpoint=target/example1.checkpoint",
+                "--hint=" + testResourcesPath.resolve("example1_expected.txt"),
+                testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .startsWith(me.david.paintshop.exceptions.PaintShopError.COMMAND_LINE_INVALID_ARGS.getDescription())
+                .contains("cannot be combined");
+        assertThat(systemOutRule.getLog()).isEmpty();
+    }
+
+    @Test
+    public void testMainMethod_workersAndComponentCacheGiven_shouldWriteErrorMessageInSystemErr() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--workers=localhost:7001", "--component-cache=target/example1.cache",
+                testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .startsWith(me.david.paintshop.exceptions.PaintShopError.COMMAND_LINE_INVALID_ARGS.getDescription())
+                .contains("cannot be combined");
+        assertThat(systemOutRule.getLog()).isEmpty();
+    }
+
+    @Test
+    public void testMainMethod_checkpointAndSolverGiven_shouldWriteErrorMessageInSystemErr() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--solver=walksat", "--checkpoint=target/example1.checkpoint",
+                testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .startsWith(me.david.paintshop.exceptions.PaintShopError.COMMAND_LINE_INVALID_ARGS.getDescription())
+                .contains("'walksat'");
+        assertThat(systemOutRule.getLog()).isEmpty();
+    }
+
+    @Test
+    public void testMainMethod_unknownSolverGiven_shouldWriteErrorMessageInSystemErr() {
+        Path testResourcesPath = Paths.get("src", "test", "resources");
+        String[] args = new String[]{"--solver=unknown", testResourcesPath.resolve("example1.txt").toString()};
+        PaintShop.main(args);
+        assertThat(systemErrRule.getLogWithNormalizedLineSeparator())
+                .startsWith(me.david.paintshop.exceptions.PaintShopError.UNKNOWN_SOLVER.getDescription())
+                .contains("ac3");
+        assertThat(systemOutRule.getLog()).isEmpty();
+    }
+
+}
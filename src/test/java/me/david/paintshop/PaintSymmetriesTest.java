@@ -0,0 +1,156 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link PaintSymmetries}
+ */
+class PaintSymmetriesTest {
+
+    @Test
+    void testOf_identicalOccurrencesGiven_shouldGroupThePaints() {
+        CustomerTasteClauses clauses = compile(5, "1 G 2 G 3 M", "1 G 2 G 4 G 5 G", "4 M 5 G");
+
+        PaintSymmetries symmetries = PaintSymmetries.of(clauses, BacktrackingSearch.allFinishes(5), unlimited());
+
+        assertThat(symmetries.nbClasses()).isEqualTo(1);
+        assertThat(symmetries.next(1)).isEqualTo(2);
+        assertThat(symmetries.next(2)).isEqualTo(0);
+        assertThat(symmetries.next(4)).isEqualTo(0);
+    }
+
+    @Test
+    void testOf_differentFinishesOrDomainsGiven_shouldNotGroupThePaints() {
+        CustomerTasteClauses clauses = compile(2, "1 G 2 M");
+        assertThat(PaintSymmetries.of(clauses, BacktrackingSearch.allFinishes(2), unlimited()).nbClasses())
+                .isEqualTo(0);
+
+        CustomerTasteClauses sameFinishes = compile(2, "1 G 2 G");
+        byte[] reduced = BacktrackingSearch.allFinishes(2);
+        reduced[2] = (byte) (1 << PaintFinish.G.ordinal());
+        assertThat(PaintSymmetries.of(sameFinishes, reduced, unlimited()).nbClasses()).isEqualTo(0);
+    }
+
+    @Test
+    void testOf_exhaustedBudgetGiven_shouldNotFindTheClasses() {
+        CustomerTasteClauses clauses = compile(2, "1 G 2 G");
+        BudgetMeter meter = SolverBudget.unlimited().withMaxCandidateBytes(16).start();
+
+        assertThat(PaintSymmetries.of(clauses, BacktrackingSearch.allFinishes(2), meter)).isNull();
+        assertThat(meter.exhausted()).isTrue();
+    }
+
+    @Test
+    void testBreaking_classOfThreePaintsGiven_shouldAppendALexLeaderClausePerConsecutivePair() {
+        CustomerTasteClauses clauses = compile(3, "1 G 2 G 3 G");
+        PaintSymmetries symmetries = PaintSymmetries.of(clauses, BacktrackingSearch.allFinishes(3), unlimited());
+
+        ClauseStore breaking = symmetries.breaking(clauses, costs(3, 1, 2), unlimited());
+
+        assertThat(breaking.size()).isEqualTo(3);
+        assertThat(new int[]{breaking.literal(1, 0), breaking.literal(1, 1)}).containsExactly(1, -2);
+        assertThat(new int[]{breaking.literal(2, 0), breaking.literal(2, 1)}).containsExactly(2, -3);
+        assertThat(breaking.occurrenceCount(2)).isEqualTo(3);
+        assertThat(new int[]{breaking.occurrence(2, 0), breaking.occurrence(2, 1), breaking.occurrence(2, 2)})
+                .containsExactly(0, 1, 2);
+        assertThat(new int[]{breaking.occurrence(3, 0), breaking.occurrence(3, 1)}).containsExactly(0, 2);
+
+        ClauseStore cheaperMatte = symmetries.breaking(clauses, costs(3, 5, 1), unlimited());
+        assertThat(new int[]{cheaperMatte.literal(1, 0), cheaperMatte.literal(1, 1)}).containsExactly(-1, 2);
+    }
+
+    @Test
+    void testBreaking_differentCostsInAClassGiven_shouldOnlyPairThePaintsOfTheSameCosts() {
+        CustomerTasteClauses clauses = compile(3, "1 G 2 G 3 G");
+        PaintSymmetries symmetries = PaintSymmetries.of(clauses, BacktrackingSearch.allFinishes(3), unlimited());
+        long[] costs = costs(3, 1, 2);
+        costs[2 * 2 + PaintFinish.M.ordinal()] = 3;
+
+        ClauseStore breaking = symmetries.breaking(clauses, costs, unlimited());
+
+        assertThat(breaking.size()).isEqualTo(2);
+        assertThat(new int[]{breaking.literal(1, 0), breaking.literal(1, 1)}).containsExactly(1, -3);
+        assertThat(breaking.occurrenceCount(2)).isEqualTo(1);
+
+        costs[2 * 3 + PaintFinish.M.ordinal()] = 4;
+        assertThat(symmetries.breaking(clauses, costs, unlimited())).isSameAs(clauses);
+    }
+
+    @Test
+    void testOf_longClauseGiven_shouldGroupAllItsPaints() {
+        int nbPaints = 20_000;
+        int[] literals = new int[nbPaints];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            literals[paint - 1] = paint;
+        }
+        CustomerTasteClauses clauses = new CustomerTasteClauses(nbPaints, new int[]{0, nbPaints}, literals);
+
+        PaintSymmetries symmetries = PaintSymmetries.of(clauses, BacktrackingSearch.allFinishes(nbPaints),
+                unlimited());
+
+        assertThat(symmetries.nbClasses()).isEqualTo(1);
+        assertThat(symmetries.next(nbPaints - 1)).isEqualTo(nbPaints);
+    }
+
+    @Test
+    void testSolve_interchangeablePaintsGiven_shouldExploreFewerNodes() {
+        //paints 1 to 12 are interchangeable: (1M or ... or 12M) and (1G or ... or 12G),
+        //then paints 13 and 14 are unsatisfiable whatever the other paints
+        int nbPaints = 14;
+        int[] offsets = {0, 12, 24, 26, 28, 30, 32};
+        int[] literals = new int[32];
+        for (int paint = 1; paint <= 12; paint++) {
+            literals[paint - 1] = -paint;
+            literals[11 + paint] = paint;
+        }
+        System.arraycopy(new int[]{13, 14, 13, -14, -13, 14, -13, -14}, 0, literals, 24, 8);
+        CustomerTasteClauses clauses = new CustomerTasteClauses(nbPaints, offsets, literals);
+
+        BudgetMeter breaking = SolverBudget.unlimited().start();
+        PaintShopSolution solution = new BacktrackingSearch(clauses).solve(breaking);
+        BudgetMeter notBreaking = SolverBudget.unlimited().start();
+        new BacktrackingSearch(clauses).withoutSymmetryBreaking().solve(notBreaking);
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+        assertThat(breaking.nodes()).isLessThan(notBreaking.nodes());
+    }
+
+    @Test
+    void testCheapestSolution_interchangeablePaintsGiven_shouldFindTheSameSolutionAsWithoutSymmetryBreaking() {
+        //(1M or 2M) and (1G or 2G): one of the interchangeable paints 1 and 2 is matte, the lex-leader one is 2
+        CustomerTasteClauses clauses = new CustomerTasteClauses(3,
+                new int[]{0, 2, 4},
+                new int[]{-1, -2, 1, 2});
+
+        assertThat(new BacktrackingSearch(clauses).cheapestSolution()).isEqualTo(Optional.of("GMG"));
+        assertThat(new BacktrackingSearch(clauses).withoutSymmetryBreaking().cheapestSolution())
+                .isEqualTo(Optional.of("GMG"));
+    }
+
+    private static CustomerTasteClauses compile(int nbPaints, String... tastes) {
+        List<CustomerTaste> customerTastes = new ArrayList<>();
+        for (String taste : tastes) {
+            customerTastes.add(new CustomerTaste(nbPaints, taste));
+        }
+        return CustomerTasteClauses.compile(nbPaints, customerTastes);
+    }
+
+    private static BudgetMeter unlimited() {
+        return SolverBudget.unlimited().start();
+    }
+
+    private static long[] costs(int nbPaints, long glossCost, long matteCost) {
+        long[] costs = new long[2 * (nbPaints + 1)];
+        for (int paint = 1; paint <= nbPaints; paint++) {
+            costs[2 * paint + PaintFinish.G.ordinal()] = glossCost;
+            costs[2 * paint + PaintFinish.M.ordinal()] = matteCost;
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,141 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static me.david.paintshop.exceptions.PaintShopError.SOLVER_TIMEOUT;
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link PortfolioPaintShopSolver}
+ */
+class PortfolioPaintShopSolverTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSolutions_fastAndBlockedStrategiesGiven_shouldReturnTheFastOneAndCancelTheOther() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        PaintShopSolver blocked = () -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+            }
+            return Collections.emptyList();
+        };
+        int nbPaints = 5;
+        List<CustomerTaste> customerTastes = Stream.of("1 M 3 G 5 G", "2 G 3 M 4 G", "5 M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+
+        PortfolioPaintShopSolver solver = new PortfolioPaintShopSolver(executor, Arrays.asList(
+                new PortfolioPaintShopSolver.Strategy("blocked", blocked, 1, TimeUnit.MINUTES),
+                new PortfolioPaintShopSolver.Strategy("ac3", new AC3SatSolver(nbPaints, customerTastes),
+                        1, TimeUnit.MINUTES)));
+
+        assertThat(solver.solutions()).containsExactly("GGGGM");
+        assertThat(cancelled.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testSolutions_strategiesTimingOutGiven_shouldThrowException() {
+        PaintShopSolver neverEnding = () -> {
+            while (true) {
+                Interruptions.checkInterrupted();
+            }
+        };
+        PortfolioPaintShopSolver solver = new PortfolioPaintShopSolver(executor, Arrays.asList(
+                new PortfolioPaintShopSolver.Strategy("never-ending-1", neverEnding, 10, TimeUnit.MILLISECONDS),
+                new PortfolioPaintShopSolver.Strategy("never-ending-2", neverEnding, 20, TimeUnit.MILLISECONDS)));
+
+        PaintShopSolverRuntimeException exception = assertThrows(PaintShopSolverRuntimeException.class,
+                solver::solutions);
+        assertThat(exception.getMessage())
+                .isEqualTo(SOLVER_TIMEOUT.getDescription() + " - Strategies: [never-ending-1, never-ending-2].");
+    }
+
+    @Test
+    void testSolutions_failingStrategyGiven_shouldUseTheOtherStrategies() {
+        PaintShopSolver failing = () -> {
+            throw new IllegalStateException("failing strategy");
+        };
+        PortfolioPaintShopSolver solver = new PortfolioPaintShopSolver(executor, Arrays.asList(
+                new PortfolioPaintShopSolver.Strategy("failing", failing, 1, TimeUnit.MINUTES),
+                new PortfolioPaintShopSolver.Strategy("search", new SearchPaintShopSolver(1,
+                        Collections.singletonList(new CustomerTaste(1, "1M"))), 1, TimeUnit.MINUTES)));
+
+        assertThat(solver.solutions()).containsExactly("M");
+    }
+
+    @Test
+    void testSolutions_allStrategiesFailingGiven_shouldRethrowTheFirstFailure() {
+        CountDownLatch failed = new CountDownLatch(1);
+        PaintShopSolver failing = () -> {
+            failed.countDown();
+            throw new IllegalStateException("failing strategy");
+        };
+        PaintShopSolver failingLater = () -> {
+            try {
+                failed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            throw new IllegalArgumentException("failing later");
+        };
+        PortfolioPaintShopSolver solver = new PortfolioPaintShopSolver(executor, Arrays.asList(
+                new PortfolioPaintShopSolver.Strategy("failing", failing, 1, TimeUnit.MINUTES),
+                new PortfolioPaintShopSolver.Strategy("failing-later", failingLater, 1, TimeUnit.MINUTES)));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, solver::solutions);
+        assertThat(exception).hasMessage("failing strategy");
+        assertThat(exception.getSuppressed()).hasSize(1);
+        assertThat(exception.getSuppressed()[0]).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSolutions_failingAndTimingOutStrategiesGiven_shouldThrowATimeoutWithTheFailure() {
+        PaintShopSolver failing = () -> {
+            throw new IllegalStateException("failing strategy");
+        };
+        PaintShopSolver neverEnding = () -> {
+            while (true) {
+                Interruptions.checkInterrupted();
+            }
+        };
+        PortfolioPaintShopSolver solver = new PortfolioPaintShopSolver(executor, Arrays.asList(
+                new PortfolioPaintShopSolver.Strategy("failing", failing, 1, TimeUnit.MINUTES),
+                new PortfolioPaintShopSolver.Strategy("never-ending", neverEnding, 20, TimeUnit.MILLISECONDS)));
+
+        PaintShopSolverRuntimeException exception = assertThrows(PaintShopSolverRuntimeException.class,
+                solver::solutions);
+        assertThat(exception.getError()).isEqualTo(SOLVER_TIMEOUT);
+        assertThat(exception.getSuppressed()).hasSize(1);
+        assertThat(exception.getSuppressed()[0]).hasMessage("failing strategy");
+    }
+}
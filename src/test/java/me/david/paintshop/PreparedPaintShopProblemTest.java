@@ -0,0 +1,88 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link PreparedPaintShopProblem}
+ */
+class PreparedPaintShopProblemTest {
+
+    @Test
+    void testSolve_defaultCostsGiven_shouldFindTheExpectedSolution() {
+        PreparedPaintShopProblem prepared = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M").prepare();
+
+        PaintShopSolution solution = prepared.solve(PaintCostModel.DEFAULT);
+
+        assertThat(solution.isOptimal()).isTrue();
+        assertThat(solution.toString()).isEqualTo("G G G G M");
+        assertThat(prepared.domain(5)).isEqualTo((byte) (1 << PaintFinish.M.ordinal()));
+        assertThat(prepared.nbComponents()).isEqualTo(1);
+    }
+
+    @Test
+    void testSolve_cheaperMatteGiven_shouldPreferMatte() {
+        PreparedPaintShopProblem prepared = PaintShopProblem.fromString("3\n1 G 2 G\n3 G").prepare();
+        PaintCostModel cheaperMatte = PaintCostModel.of(5, 1);
+
+        PaintShopSolution solution = prepared.solve(cheaperMatte);
+
+        assertThat(solution.toString()).isEqualTo("M G G");
+        assertThat(cheaperMatte.cost(solution.paintBatches().get())).isEqualTo(11);
+    }
+
+    @Test
+    void testPrepare_unsatisfiableProblemGiven_shouldDetectItOnce() {
+        PreparedPaintShopProblem prepared = PaintShopProblem.fromString("1\n1 G\n1 M").prepare();
+
+        assertThat(prepared.domain(1)).isEqualTo((byte) 0);
+        assertThat(prepared.solve(PaintCostModel.DEFAULT).status())
+                .isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+    }
+
+    @Test
+    void testSolve_costsPerPaintGiven_shouldFindTheCheapestValidSolution() {
+        PreparedPaintShopProblem prepared = PaintShopProblem.fromString("3\n1 G 2 G\n3 M").prepare();
+        //a matte paint 1 is a gain, the other mattes cost 3
+        PaintCostModel costModel = (paint, finish) -> finish == PaintFinish.G ? 1 : paint == 1 ? -2 : 3;
+
+        PaintShopSolution solution = prepared.solve(costModel);
+
+        assertThat(solution.isOptimal()).isTrue();
+        assertThat(solution.toString()).isEqualTo("M G M");
+        assertThat(costModel.cost(solution.paintBatches().get())).isEqualTo(2);
+    }
+
+    @Test
+    void testSolve_concurrentScenariosGiven_shouldFindTheSameSolutionsAsSequentially() {
+        PreparedPaintShopProblem prepared = PaintShopProblem.fromString("5\n1 M 3 G 5 G\n2 G 3 M 4 G\n5 M").prepare();
+        List<PaintCostModel> scenarios = IntStream.range(0, 200)
+                .mapToObj(matteCost -> PaintCostModel.of(10, matteCost % 20))
+                .collect(Collectors.toList());
+        List<String> sequential = scenarios.stream()
+                .map(scenario -> prepared.solve(scenario).toString())
+                .collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<CompletableFuture<String>> concurrent = new ArrayList<>();
+            for (PaintCostModel scenario : scenarios) {
+                concurrent.add(CompletableFuture.supplyAsync(() -> prepared.solve(scenario).toString(), executor));
+            }
+
+            assertThat(concurrent.stream().map(CompletableFuture::join).collect(Collectors.toList()))
+                    .isEqualTo(sequential);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link ProblemFeatures}
+ */
+class ProblemFeaturesTest {
+
+    @Test
+    void testOf_customerTastesGiven_shouldComputeTheFeatures() {
+        int nbPaints = 5;
+        List<CustomerTaste> customerTastes = Stream.of("1 M 3 G 5 G", "2 G 3 M 4 G", "5 M", "4 G")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+
+        ProblemFeatures features = ProblemFeatures.of(nbPaints, customerTastes);
+
+        assertThat(features.nbPaints()).isEqualTo(5);
+        assertThat(features.nbCustomers()).isEqualTo(4);
+        assertThat(features.meanClauseLength()).isEqualTo(2.0);
+        assertThat(features.maxClauseLength()).isEqualTo(3);
+        assertThat(features.unitClauseRatio()).isEqualTo(0.5);
+    }
+}
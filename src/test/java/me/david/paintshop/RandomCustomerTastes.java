@@ -0,0 +1,60 @@
+package me.david.paintshop;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random customer tastes, for the tests comparing a solver with an exhaustive one
+ */
+final class RandomCustomerTastes {
+
+    /**
+     * Private constructor to avoid instantiation
+     */
+    private RandomCustomerTastes() {
+    }
+
+    /**
+     * @param random      the random generator, seeded by the test
+     * @param nbPaints    the number of paints
+     * @param nbCustomers the number of customers, drawn once by the caller
+     * @param oneIn       each customer likes each paint with a probability of <code>1 / oneIn</code>
+     * @return the customer tastes, each liking at least one paint and at most one paint in matte
+     */
+    static List<CustomerTaste> of(Random random, int nbPaints, int nbCustomers, int oneIn) {
+        return of(random, nbPaints, nbCustomers, oneIn, false);
+    }
+
+    /**
+     * Same as {@link #of(Random, int, int, int)}, each odd paint being interchangeable with the next one: both
+     * are only liked in gloss, and always together.
+     */
+    static List<CustomerTaste> withTwins(Random random, int nbPaints, int nbCustomers, int oneIn) {
+        return of(random, nbPaints, nbCustomers, oneIn, true);
+    }
+
+    private static List<CustomerTaste> of(Random random, int nbPaints, int nbCustomers, int oneIn, boolean twins) {
+        List<CustomerTaste> customerTastes = new ArrayList<>(nbCustomers);
+        while (customerTastes.size() < nbCustomers) {
+            StringBuilder taste = new StringBuilder();
+            boolean matte = false;
+            for (int paint = 1; paint <= nbPaints; paint++) {
+                if (twins && paint % 2 == 1 && paint < nbPaints) {
+                    if (random.nextInt(oneIn) == 0) {
+                        taste.append(paint).append("G").append(paint + 1).append("G");
+                    }
+                    paint++;
+                } else if (random.nextInt(oneIn) == 0) {
+                    boolean likesMatte = !matte && random.nextBoolean();
+                    matte |= likesMatte;
+                    taste.append(paint).append(likesMatte ? "M" : "G");
+                }
+            }
+            if (taste.length() > 0) {
+                customerTastes.add(new CustomerTaste(nbPaints, taste.toString()));
+            }
+        }
+        return customerTastes;
+    }
+}
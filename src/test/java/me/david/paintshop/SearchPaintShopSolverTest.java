@@ -1,12 +1,15 @@
 package me.david.paintshop;
 
+import me.david.paintshop.exceptions.PaintShopSolverRuntimeException;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Unit test for {@link SearchPaintShopSolver}
@@ -67,4 +70,133 @@ class SearchPaintShopSolverTest {
                 .isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    void testSolutions_interruptedThreadGiven_shouldStopTheSearch() {
+        int nbPaints = 3;
+        SearchPaintShopSolver solver = new SearchPaintShopSolver(nbPaints,
+                Collections.singletonList(new CustomerTaste(nbPaints, "1M")));
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(PaintShopSolverRuntimeException.class, solver::solutions);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void testSolve_unlimitedBudgetGiven_shouldReturnTheOptimalSolution() {
+        int nbPaints = 5;
+        List<CustomerTaste> customerTastes = Stream.of("1M3G5G", "2G3M4G", "5M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+        PaintShopSolution solution = new SearchPaintShopSolver(nbPaints, customerTastes)
+                .solve(SolverBudget.unlimited());
+
+        assertThat(solution.isOptimal()).isTrue();
+        assertThat(solution.toString()).isEqualTo("G G G G M");
+    }
+
+    @Test
+    void testSolve_exhaustedNodeBudgetGiven_shouldReturnTheBestSolutionFoundSoFar() {
+        int nbPaints = 3;
+        List<CustomerTaste> customerTastes = Stream.of("1G2M", "3M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+        SearchPaintShopSolver solver = new SearchPaintShopSolver(nbPaints, customerTastes);
+
+        //GGG and GGM are checked, GGM is valid
+        PaintShopSolution solution = solver.solve(SolverBudget.unlimited().withMaxNodes(2));
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.FEASIBLE);
+        assertThat(solution.toString()).isEqualTo("G G M");
+
+        assertThat(solver.solve(SolverBudget.unlimited().withMaxNodes(1)).status())
+                .isEqualTo(PaintShopSolution.Status.UNKNOWN);
+    }
+
+    @Test
+    void testSolve_insatisfiableProblemGiven_shouldReturnUnsatisfiable() {
+        int nbPaints = 3;
+        List<CustomerTaste> customerTastes = Stream.of("1M", "2G", "1G2M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+
+        assertThat(new SearchPaintShopSolver(nbPaints, customerTastes).solve(SolverBudget.unlimited()).status())
+                .isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+    }
+
+    @Test
+    void testSolutions_grayCodeGiven_shouldFindTheSameSolutionsAsTheLexicographicOrder() {
+        int nbPaints = 3;
+        List<CustomerTaste> customerTastes = Stream.of("1M3G", "2G3M", "1G2M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+        SearchPaintShopSolver grayCode = new SearchPaintShopSolver(nbPaints, customerTastes,
+                SearchPaintShopSolver.Enumeration.GRAY_CODE);
+
+        assertThat(grayCode.solutions())
+                .containsExactlyInAnyOrder("GGG", "MMM")
+                .containsOnlyElementsOf(new SearchPaintShopSolver(nbPaints, customerTastes).solutions());
+        assertThat(grayCode.solve(SolverBudget.unlimited()).toString()).isEqualTo("G G G");
+    }
+
+    @Test
+    void testSolve_grayCodeAndSameTasteBothWaysGiven_shouldCountTheTasteOnce() {
+        int nbPaints = 2;
+        List<CustomerTaste> customerTastes = Stream.of("1G1M", "2M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+
+        assertThat(new SearchPaintShopSolver(nbPaints, customerTastes, SearchPaintShopSolver.Enumeration.GRAY_CODE)
+                .solutions())
+                .containsExactlyInAnyOrder("GM", "MM");
+    }
+
+    @Test
+    void testSolve_grayCodeAndExhaustedBudgetGiven_shouldNotClaimOptimality() {
+        int nbPaints = 3;
+        List<CustomerTaste> customerTastes = Stream.of("1M", "2M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+
+        //GGG, GGM, GMM, GMG are walked: none is valid
+        assertThat(new SearchPaintShopSolver(nbPaints, customerTastes, SearchPaintShopSolver.Enumeration.GRAY_CODE)
+                .solve(SolverBudget.unlimited().withMaxNodes(4)).status())
+                .isEqualTo(PaintShopSolution.Status.UNKNOWN);
+    }
+
+    @Test
+    void testSolutions_bitSlicedGiven_shouldFindTheSameSolutionsInTheSameOrder() {
+        int nbPaints = 7;
+        List<CustomerTaste> customerTastes = Stream.of("1M7G", "6G7M")
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+        SearchPaintShopSolver lexicographic = new SearchPaintShopSolver(nbPaints, customerTastes);
+        SearchPaintShopSolver bitSliced = new SearchPaintShopSolver(nbPaints, customerTastes,
+                SearchPaintShopSolver.Enumeration.BIT_SLICED);
+
+        //7G with 6G, or 7M with 1M: 32 solutions each, in both blocks of 64 combinations
+        assertThat(bitSliced.solutions())
+                .hasSize(64)
+                .startsWith("GGGGGGG")
+                .endsWith("MMMMMMM")
+                .isEqualTo(lexicographic.solutions());
+        assertThat(bitSliced.solve(SolverBudget.unlimited()).toString()).isEqualTo("G G G G G G G");
+    }
+
+    @Test
+    void testSolve_bitSlicedBlocksSkippedGiven_shouldStillConsumeTheBudget() {
+        int nbPaints = 10;
+        List<CustomerTaste> customerTastes = Collections.singletonList(new CustomerTaste(nbPaints, "1 G"));
+        SearchPaintShopSolver bitSliced = new SearchPaintShopSolver(nbPaints, customerTastes,
+                SearchPaintShopSolver.Enumeration.BIT_SLICED);
+
+        //the all gloss solution is in the first block: the 15 other blocks are skipped, one node each
+        PaintShopSolution solution = bitSliced.solve(SolverBudget.unlimited().withMaxNodes(2));
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.FEASIBLE);
+        assertThat(solution.toString()).isEqualTo("G G G G G G G G G G");
+        assertThat(bitSliced.solve(SolverBudget.unlimited().withMaxNodes(16)).status())
+                .isEqualTo(PaintShopSolution.Status.OPTIMAL);
+    }
+}
@@ -126,7 +126,7 @@ class SearchSpaceReducerPaintShopSolverTest {
     }
 
     @Test
-    void testSolutions_nonEmptyAfterReductionSearchSpace_shouldReturnAllPossibleSolutions() {
+    void testSolutions_nonEmptyAfterReductionSearchSpace_shouldReturnTheCheapestSolution() {
         int nbPaints = 5;
         List<CustomerTaste> unsatisfiableCustomerTastes = Stream.of(
                 "1 M 3 G 5 G", "2 G 3 M 4 G", "5 M")
@@ -135,7 +135,6 @@ class SearchSpaceReducerPaintShopSolverTest {
         SearchSpaceReducerPaintShopSolver solver = new SearchSpaceReducerPaintShopSolver(nbPaints, unsatisfiableCustomerTastes);
 
         assertThat(solver.solutions())
-                .hasSize(10)
-                .contains("GGGGM", "MGGGM", /* ..., */ "MGMMM", "MMMMM");
+                .containsExactly("GGGGM");
     }
 }
\ No newline at end of file
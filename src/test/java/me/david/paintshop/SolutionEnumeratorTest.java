@@ -0,0 +1,65 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link SolutionEnumerator}
+ */
+class SolutionEnumeratorTest {
+
+    @Test
+    void testNext_kGiven_shouldReturnTheKCheapestSolutions() {
+        SolutionEnumerator enumerator = PaintShopProblem.fromString("3\n1 G 2 M\n3 M").enumerate();
+
+        List<String> cheapest = enumerator.next(3).stream()
+                .map(PaintBatches::finishesRepresentation)
+                .collect(Collectors.toList());
+
+        assertThat(cheapest).hasSize(3);
+        assertThat(cheapest.get(0)).isEqualTo("GGM");
+        assertThat(cheapest.subList(1, 3)).containsExactlyInAnyOrder("GMM", "MMM");
+    }
+
+    @Test
+    void testAllCheapest_severalCheapestSolutionsGiven_shouldReturnThemAll() {
+        SolutionEnumerator enumerator = PaintShopProblem.fromString("3\n1 M 2 G\n3 M")
+                .enumerate(PaintCostModel.of(1, 1));
+
+        assertThat(enumerator.allCheapest().stream()
+                .map(PaintBatches::finishesRepresentation)
+                .collect(Collectors.toList()))
+                .containsExactlyInAnyOrder("GGM", "MGM", "MMM");
+        assertThat(enumerator.hasNext()).isFalse();
+    }
+
+    @Test
+    void testNext_unsatisfiableProblemGiven_shouldHaveNoSolution() {
+        SolutionEnumerator enumerator = PaintShopProblem.fromString("1\n1 G\n1 M").enumerate();
+
+        assertThat(enumerator.hasNext()).isFalse();
+        assertThat(enumerator.allCheapest()).isEmpty();
+        assertThrows(NoSuchElementException.class, enumerator::next);
+    }
+
+    @Test
+    void testForEachRemaining_exampleGiven_shouldEnumerateEachValidSolutionOnceByNonDecreasingCost() {
+        SolutionEnumerator enumerator = PaintShopProblem.fromString("3\n1 G 2 G\n3 M").enumerate();
+        List<String> enumerated = new ArrayList<>();
+
+        enumerator.forEachRemaining(paintBatches -> enumerated.add(paintBatches.finishesRepresentation()));
+
+        //the other combinations have paint 3 gloss, or neither paint 1 nor paint 2 gloss
+        assertThat(enumerated).hasSize(3);
+        assertThat(enumerated.get(0)).isEqualTo("GGM");
+        assertThat(enumerated.subList(1, 3)).containsExactlyInAnyOrder("GMM", "MGM");
+        assertThat(enumerator.hasNext()).isFalse();
+    }
+}
@@ -0,0 +1,55 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link SolverBudget} and {@link BudgetMeter}
+ */
+class SolverBudgetTest {
+
+    @Test
+    void testWithers_shouldReturnACopyWithTheGivenLimit() {
+        SolverBudget budget = SolverBudget.unlimited()
+                .withTimeLimit(2, TimeUnit.SECONDS)
+                .withMaxNodes(100)
+                .withMaxCandidateBytes(1024);
+
+        assertThat(budget.timeLimitNanos()).isEqualTo(2_000_000_000L);
+        assertThat(budget.maxNodes()).isEqualTo(100);
+        assertThat(budget.maxCandidateBytes()).isEqualTo(1024);
+        assertThat(SolverBudget.unlimited().maxNodes()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void testTick_maxNodesGiven_shouldBeExhaustedAfterMaxNodes() {
+        BudgetMeter meter = SolverBudget.unlimited().withMaxNodes(2).start();
+
+        assertThat(meter.tick()).isFalse();
+        assertThat(meter.tick()).isFalse();
+        assertThat(meter.tick()).isTrue();
+        assertThat(meter.exhausted()).isTrue();
+    }
+
+    @Test
+    void testTick_timeLimitGiven_shouldBeExhaustedAfterTheTimeLimit() {
+        BudgetMeter meter = SolverBudget.unlimited().withTimeLimit(0, TimeUnit.NANOSECONDS).start();
+
+        boolean exhausted = false;
+        for (int node = 0; node < 10_000 && !exhausted; node++) {
+            exhausted = meter.tick();
+        }
+        assertThat(exhausted).isTrue();
+    }
+
+    @Test
+    void testReserve_maxCandidateBytesGiven_shouldBeExhaustedWhenExceeded() {
+        BudgetMeter meter = SolverBudget.unlimited().withMaxCandidateBytes(100).start();
+
+        assertThat(meter.reserve(60)).isFalse();
+        assertThat(meter.reserve(60)).isTrue();
+    }
+}
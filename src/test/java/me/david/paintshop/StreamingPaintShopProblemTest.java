@@ -0,0 +1,84 @@
+package me.david.paintshop;
+
+import me.david.paintshop.exceptions.PaintShopInputRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@link StreamingPaintShopProblem}
+ */
+class StreamingPaintShopProblemTest {
+
+    private final Path testResourcesPath = Paths.get("src", "test", "resources");
+
+    @Test
+    void testSolve_examplesGiven_shouldFindTheSameSolutionsAsTheFileProblem() throws IOException {
+        for (int example = 1; example <= 5; example++) {
+            Path input = testResourcesPath.resolve("example" + example + ".txt");
+            String definition = new String(Files.readAllBytes(input), StandardCharsets.UTF_8);
+
+            PaintShopSolution solution = StreamingPaintShopProblem.solve(new StringReader(definition),
+                    SolverBudget.unlimited());
+
+            assertThat(solution.toString()).as(input.toString())
+                    .isEqualTo(new PaintShopProblem(input.toString()).solution());
+        }
+    }
+
+    @Test
+    void testAccept_unitCustomersGiven_shouldPropagateAsTheLinesArrive() {
+        StreamingPaintShopProblem problem = new StreamingPaintShopProblem();
+        problem.accept("3");
+        problem.accept("1 G 2 M");
+        assertThat(problem.domain(2)).isEqualTo((byte) 0b11);
+
+        problem.accept("1 M");
+
+        assertThat(problem.domain(1)).isEqualTo((byte) (1 << PaintFinish.M.ordinal()));
+        assertThat(problem.domain(2)).isEqualTo((byte) (1 << PaintFinish.M.ordinal()));
+        assertThat(problem.domain(3)).isEqualTo((byte) 0b11);
+    }
+
+    @Test
+    void testAccept_conflictGiven_shouldReportItBeforeTheEndOfTheInput() {
+        StreamingPaintShopProblem problem = new StreamingPaintShopProblem();
+        assertThat(problem.accept("2")).isTrue();
+        assertThat(problem.accept("1 G 2 G")).isTrue();
+        assertThat(problem.accept("1 M")).isTrue();
+
+        assertThat(problem.accept("2 M")).isFalse();
+
+        assertThat(problem.unsatisfiable()).isTrue();
+        assertThat(problem.accept("not even parsed")).isFalse();
+        assertThat(problem.solve(SolverBudget.unlimited()).status())
+                .isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+    }
+
+    @Test
+    void testSolve_signedOrPaddedIndexGiven_shouldAcceptItLikeTheFileProblem() {
+        String definition = "5\n+1 G\n01 M  3 G\n 2 M\n+5 G 4 M";
+
+        PaintShopSolution solution = StreamingPaintShopProblem.solve(new StringReader(definition),
+                SolverBudget.unlimited());
+
+        assertThat(solution.toString()).isEqualTo(PaintShopProblem.fromString(definition).solution())
+                .isEqualTo("G M G G G");
+    }
+
+    @Test
+    void testAccept_invalidLineGiven_shouldThrowAPaintShopInputRuntimeException() {
+        StreamingPaintShopProblem problem = new StreamingPaintShopProblem();
+        problem.accept("2");
+
+        assertThrows(PaintShopInputRuntimeException.class, () -> problem.accept("3 M"));
+    }
+}
@@ -0,0 +1,58 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link TwoSatPaintShopSolver}
+ */
+class TwoSatPaintShopSolverTest {
+
+    @Test
+    void testSolve_chainOfImplicationsGiven_shouldOnlyMakeTheImpliedMattes() {
+        int nbPaints = 5;
+        PaintShopSolution solution = solve(nbPaints, "1M", "1G 2M", "2G 4M", "3G 5G");
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.OPTIMAL);
+        assertThat(solution.toString()).isEqualTo("M M G M G");
+    }
+
+    @Test
+    void testSolve_contradictionGiven_shouldBeUnsatisfiable() {
+        int nbPaints = 3;
+
+        assertThat(solve(nbPaints, "1M", "1G 2M", "2G 3G", "3M").status())
+                .isEqualTo(PaintShopSolution.Status.UNSATISFIABLE);
+    }
+
+    @Test
+    void testSolve_longerTastesInAnotherComponentGiven_shouldSearchThatComponent() {
+        int nbPaints = 6;
+        PaintShopSolution solution = solve(nbPaints, "1M", "1G 2M", "4M 5G 6G", "4G", "5M 6G");
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.OPTIMAL);
+        assertThat(solution.toString()).isEqualTo("M M G G G G");
+    }
+
+    @Test
+    void testSolve_cycleOfImplicationsGiven_shouldKeepItsPaintsGloss() {
+        int nbPaints = 4;
+        //1M implies 2M implies 3M implies 1M: the component of the cycle is all matte or all gloss
+        PaintShopSolution solution = solve(nbPaints, "1G 2M", "2G 3M", "3G 1M", "3G 4M");
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.OPTIMAL);
+        assertThat(solution.toString()).isEqualTo("G G G G");
+    }
+
+    private static PaintShopSolution solve(int nbPaints, String... tastes) {
+        List<CustomerTaste> customerTastes = Stream.of(tastes)
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+        return new TwoSatPaintShopSolver(nbPaints, customerTastes).solve(SolverBudget.unlimited());
+    }
+}
@@ -0,0 +1,63 @@
+package me.david.paintshop;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link WalkSatPaintShopSolver}
+ */
+class WalkSatPaintShopSolverTest {
+
+    @Test
+    void testSolve_satisfiableProblemGiven_shouldReturnAFeasibleSolution() {
+        int nbPaints = 5;
+        PaintShopSolution solution = new WalkSatPaintShopSolver(nbPaints,
+                customerTastes(nbPaints, "1M3G5G", "2G3M4G", "5M"))
+                .solve(SolverBudget.unlimited());
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.FEASIBLE);
+        assertThat(solution.toString()).isEqualTo("G G G G M");
+    }
+
+    @Test
+    void testSolve_unsatisfiableProblemGiven_shouldReturnUnknown() {
+        int nbPaints = 1;
+        PaintShopSolution solution = new WalkSatPaintShopSolver(nbPaints, customerTastes(nbPaints, "1G", "1M"))
+                .solve(SolverBudget.unlimited());
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.UNKNOWN);
+    }
+
+    @Test
+    void testSolve_exhaustedBudgetGiven_shouldStop() {
+        int nbPaints = 1;
+        PaintShopSolution solution = new WalkSatPaintShopSolver(nbPaints, customerTastes(nbPaints, "1G", "1M"),
+                WalkSatPaintShopSolver.DEFAULT_SEED, 0.5, Integer.MAX_VALUE, Long.MAX_VALUE)
+                .solve(SolverBudget.unlimited().withMaxNodes(100));
+
+        assertThat(solution.status()).isEqualTo(PaintShopSolution.Status.UNKNOWN);
+    }
+
+    @Test
+    void testSolve_sameSeedGiven_shouldFindTheSameValidSolution() {
+        int nbPaints = 6;
+        List<CustomerTaste> customerTastes = customerTastes(nbPaints, "1G 2M", "2G 3M", "3G 4M 5G", "1M", "5M 6G");
+
+        String finishes = new WalkSatPaintShopSolver(nbPaints, customerTastes, 42L).solutions().get(0);
+
+        assertThat(customerTastes).allMatch(customerTaste -> customerTaste.likes(finishes));
+        assertThat(new WalkSatPaintShopSolver(nbPaints, customerTastes, 42L).solutions())
+                .containsExactly(finishes);
+    }
+
+    private static List<CustomerTaste> customerTastes(int nbPaints, String... tastes) {
+        return Stream.of(tastes)
+                .map(repr -> new CustomerTaste(nbPaints, repr))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,28 @@
+package me.david.paintshop.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+/**
+ * Unit test for {@link PaintShopSolverRuntimeException}
+ */
+class PaintShopSolverRuntimeExceptionTest {
+
+    @Test
+    void exceptionWithAdviceGiven_shouldConcatenateTheMessageAndErrorDescription() {
+        PaintShopError error = PaintShopError.SOLVER_TIMEOUT;
+        Exception exception = new PaintShopSolverRuntimeException(error, "some advice");
+        assertThat(exception.getMessage()).isEqualTo(error.getDescription() + " - some advice");
+        assertThat(exception).hasNoCause();
+    }
+
+    @Test
+    void exceptionWithNoAdviceGiven_shouldReturnTheErrorDescription() {
+        PaintShopError error = PaintShopError.SOLVER_INTERRUPTED;
+        Throwable t = new Throwable("fake throwable");
+        Exception exception = new PaintShopSolverRuntimeException(error, null, t);
+        assertThat(exception.getMessage()).isEqualTo(error.getDescription());
+        assertThat(exception).hasCause(t);
+    }
+}